@@ -8,7 +8,8 @@
 
 package at.tugraz.ist.ase.cacdr.algorithms;
 
-import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.checker.IConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.checker.UnknownConsistencyException;
 import at.tugraz.ist.ase.common.LoggerUtils;
 import at.tugraz.ist.ase.test.ITestCase;
 import at.tugraz.ist.ase.kb.core.Constraint;
@@ -59,13 +60,13 @@ public class DirectDebug {
     public static final String TIMER_DIRECTDEBUG = "Timer for DirectDebug:";
     public static final String COUNTER_DIRECTDEBUG_CALLS = "The number of DirectDebug calls:";
 
-    protected final ChocoConsistencyChecker checker;
+    protected final IConsistencyChecker checker;
 
     /**
-     * A constructor with a checker of {@link ChocoConsistencyChecker}.
-     * @param checker a checker of {@link ChocoConsistencyChecker}
+     * A constructor with a checker of {@link IConsistencyChecker}.
+     * @param checker a checker of {@link IConsistencyChecker}
      */
-    public DirectDebug(@NonNull ChocoConsistencyChecker checker) {
+    public DirectDebug(@NonNull IConsistencyChecker checker) {
         this.checker = checker;
     }
 
@@ -79,6 +80,7 @@ public class DirectDebug {
      * @param B a background knowledge
      * @param TC a set of test cases
      * @return a diagnosis or an empty set
+     * @throws UnknownConsistencyException if a consistency check is aborted by the checker
      */
     public Set<Constraint> findDiagnosis(@NonNull Set<Constraint> C, @NonNull Set<Constraint> B, @NonNull Set<ITestCase> TC)
     {
@@ -98,7 +100,14 @@ public class DirectDebug {
         } else{ // else return C \ directDebug(Φ, C, B, T'π)
             incrementCounter(COUNTER_DIRECTDEBUG_CALLS);
             start(TIMER_DIRECTDEBUG);
-            Set<Constraint> mss = directDebug(Collections.emptySet(), C, B, TCp);
+            Set<Constraint> mss;
+            try {
+                mss = directDebug(Collections.emptySet(), C, B, TCp);
+            } catch (UnknownConsistencyException ex) {
+                // stops the timer without saving the time of the aborted run
+                stop(TIMER_DIRECTDEBUG, false);
+                throw ex;
+            }
             stop(TIMER_DIRECTDEBUG);
 
             incrementCounter(COUNTER_DIFFERENT_OPERATOR);
@@ -0,0 +1,202 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.algorithms;
+
+import at.tugraz.ist.ase.cacdr.checker.CheckerPool;
+import at.tugraz.ist.ase.cacdr.checker.IConsistencyChecker;
+import at.tugraz.ist.ase.common.LoggerUtils;
+import at.tugraz.ist.ase.kb.core.Constraint;
+import com.google.common.collect.Sets;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import static at.tugraz.ist.ase.cacdr.eval.CAEvaluator.*;
+import static at.tugraz.ist.ase.common.ConstraintUtils.split;
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Implementation of FastDiagP, a MSS-based FastDiag which precomputes the consistency checks
+ * the FD recursion may need next on the checkers of a {@link CheckerPool}.
+ *
+ * FD is run as a sequence of steps, each ending at a consistency check of B U C. Before the check of a step,
+ * the lookahead tree of the following checks (B U C1, B U C2, ...), assuming both results of each check,
+ * is submitted to the pool up to {@link #getLookahead()} checks ahead (see {@link SpeculativeChecks}).
+ * The check of a step looks its result up if the check has already started, otherwise
+ * the check is run by the given checker.
+ *
+ * Since the steps are the ones of {@link FastDiagV3}, the diagnosis is the same as the one of FastDiagV3.
+ */
+@Slf4j
+public class FastDiagP extends FastDiagV3 {
+
+    private final CheckerPool pool;
+
+    /**
+     * The number of threads running lookahead checks, by default the size of the pool
+     */
+    @Getter
+    private int workers;
+
+    /**
+     * The number of checks which are looked ahead
+     */
+    @Getter
+    private int lookahead = 2;
+
+    public FastDiagP(@NonNull IConsistencyChecker checker, @NonNull CheckerPool pool) {
+        super(checker);
+        this.pool = pool;
+        this.workers = pool.size();
+    }
+
+    public void setWorkers(int workers) {
+        checkArgument(workers > 0, "The number of workers must be positive");
+
+        this.workers = workers;
+    }
+
+    public void setLookahead(int lookahead) {
+        checkArgument(lookahead >= 0, "The lookahead must not be negative");
+
+        this.lookahead = lookahead;
+    }
+
+    /**
+     * Runs FD step by step, looking ahead the checks of the next steps.
+     *
+     * @param Δ check to skip redundant consistency checks
+     * @param C a consideration set of constraints
+     * @param B a background knowledge
+     * @return a maximal satisfiable subset MSS of C U B.
+     */
+    @Override
+    protected Set<Constraint> fd(Set<Constraint> Δ, Set<Constraint> C, Set<Constraint> B) {
+        log.debug("{}Running FastDiagP [workers={}, lookahead={}] >>>", LoggerUtils.tab, workers, lookahead);
+        LoggerUtils.indent();
+
+        try (SpeculativeChecks lookaheadChecks = new SpeculativeChecks(pool, workers, "fastdiagp")) {
+            Step step = call(Δ, C, B, null, false);
+            while (!step.isDone()) {
+                lookaheadChecks.lookahead(step, s -> s.isDone() ? null : s.BwithC(), (s, consistent) -> resume(s, consistent, true), lookahead);
+
+                incrementCounter(COUNTER_CONSISTENCY_CHECKS);
+                Boolean consistent = lookaheadChecks.take(step.BwithC());
+                if (consistent == null) {
+                    consistent = checker.isConsistent(step.BwithC());
+                }
+
+                step = resume(step, consistent, false);
+            }
+
+            LoggerUtils.outdent();
+            log.debug("{}<<< Finished FastDiagP [submitted={}, used={}]", LoggerUtils.tab,
+                    lookaheadChecks.getNumOfSubmitted(), lookaheadChecks.getNumOfUsed());
+
+            return step.mss();
+        }
+    }
+
+    /**
+     * A step of FD, which waits for the consistency check of B U C, or the MSS if FD is done.
+     * @param C the consideration set, which is returned if B U C is consistent, otherwise split
+     * @param B the background knowledge
+     * @param BwithC the constraints to check
+     * @param frame the remaining work of the calling FDs
+     * @param mss the MSS found by FD
+     */
+    private record Step(Set<Constraint> C, Set<Constraint> B, Set<Constraint> BwithC, Frame frame, Set<Constraint> mss) {
+        boolean isDone() {
+            return mss != null;
+        }
+    }
+
+    /**
+     * The remaining work of a calling FD, either the right branch FD(C1 - Δ1, C2, B U Δ1) once Δ1
+     * is returned, or the union Δ1 ∪ Δ2 once Δ2 is returned.
+     */
+    private record Frame(Set<Constraint> C1, Set<Constraint> C2, Set<Constraint> B, Set<Constraint> Δ1, Frame parent) {
+        boolean isLeftBranch() {
+            return Δ1 == null;
+        }
+    }
+
+    /**
+     * // Func FD(Δ, C = {c1..cn}, B) : MSS
+     * // if Δ != Φ and consistent(B U C) return C;
+     */
+    private Step call(Set<Constraint> Δ, Set<Constraint> C, Set<Constraint> B, Frame frame, boolean speculative) {
+        if (!Δ.isEmpty()) {
+            if (!speculative) {
+                incrementCounter(COUNTER_UNION_OPERATOR);
+            }
+            return new Step(C, B, Sets.union(B, C), frame, null);
+        }
+        return proceed(C, B, frame, speculative);
+    }
+
+    /**
+     * Continues the given step with the result of its check.
+     */
+    private Step resume(Step step, boolean consistent, boolean speculative) {
+        if (consistent) {
+            return ret(step.C(), step.frame(), speculative);
+        }
+        return proceed(step.C(), step.B(), step.frame(), speculative);
+    }
+
+    /**
+     * // if singleton(C) return Φ;
+     * // C1 = {c1..ck}; C2 = {ck+1..cn};
+     * // Δ1 = FD(C2, C1, B);
+     */
+    private Step proceed(Set<Constraint> C, Set<Constraint> B, Frame frame, boolean speculative) {
+        if (C.size() == 1) {
+            return ret(Collections.emptySet(), frame, speculative);
+        }
+
+        Set<Constraint> C1 = new LinkedHashSet<>();
+        Set<Constraint> C2 = new LinkedHashSet<>();
+        split(C, C1, C2);
+
+        if (!speculative) {
+            incrementCounter(COUNTER_LEFT_BRANCH_CALLS);
+            incrementCounter(COUNTER_FASTDIAGV3_CALLS);
+        }
+        return call(C2, C1, B, new Frame(C1, C2, B, null, frame), speculative);
+    }
+
+    /**
+     * Returns the MSS to the calling FD, which either continues with Δ2 = FD(C1 - Δ1, C2, B U Δ1),
+     * or returns Δ1 ∪ Δ2.
+     */
+    private Step ret(Set<Constraint> mss, Frame frame, boolean speculative) {
+        if (frame == null) {
+            return new Step(null, null, null, null, mss);
+        }
+
+        if (!speculative) {
+            incrementCounter(COUNTER_UNION_OPERATOR);
+        }
+        if (frame.isLeftBranch()) {
+            if (!speculative) {
+                incrementCounter(COUNTER_DIFFERENT_OPERATOR);
+                incrementCounter(COUNTER_RIGHT_BRANCH_CALLS);
+                incrementCounter(COUNTER_FASTDIAGV3_CALLS);
+            }
+            return call(Sets.difference(frame.C1(), mss), frame.C2(), Sets.union(frame.B(), mss),
+                    new Frame(frame.C1(), frame.C2(), frame.B(), mss, frame.parent()), speculative);
+        }
+        return ret(Sets.union(frame.Δ1(), mss), frame.parent(), speculative);
+    }
+}
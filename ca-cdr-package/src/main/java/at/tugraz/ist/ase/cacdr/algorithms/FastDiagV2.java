@@ -8,7 +8,8 @@
 
 package at.tugraz.ist.ase.cacdr.algorithms;
 
-import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.checker.IConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.checker.UnknownConsistencyException;
 import at.tugraz.ist.ase.common.LoggerUtils;
 import at.tugraz.ist.ase.kb.core.Constraint;
 import com.google.common.collect.Sets;
@@ -60,9 +61,9 @@ public class FastDiagV2 {
     public static final String TIMER_FASTDIAGV2 = "Timer for FD V2:";
     public static final String COUNTER_FASTDIAGV2_CALLS = "The number of FD V2 calls:";
 
-    protected final ChocoConsistencyChecker checker;
+    protected final IConsistencyChecker checker;
 
-    public FastDiagV2(@NonNull ChocoConsistencyChecker checker) {
+    public FastDiagV2(@NonNull IConsistencyChecker checker) {
         this.checker = checker;
     }
 
@@ -77,6 +78,7 @@ public class FastDiagV2 {
      * @param C a consideration set of constraints. Need to inverse the order of the possibly faulty constraint set.
      * @param AC a background knowledge
      * @return a diagnosis or an empty set
+     * @throws UnknownConsistencyException if a consistency check is aborted by the checker
      */
     public Set<Constraint> findDiagnosis(@NonNull Set<Constraint> C, @NonNull Set<Constraint> AC) {
         log.debug("{}Identifying diagnosis for [C={}, AC={}] >>>", LoggerUtils.tab, C, AC);
@@ -95,7 +97,14 @@ public class FastDiagV2 {
         } else { // else return FD(Φ, C, AC)
             incrementCounter(COUNTER_FASTDIAGV2_CALLS);
             start(TIMER_FASTDIAGV2);
-            Set<Constraint> Δ = fd(Collections.emptySet(), C, AC);
+            Set<Constraint> Δ;
+            try {
+                Δ = fd(Collections.emptySet(), C, AC);
+            } catch (UnknownConsistencyException ex) {
+                // stops the timer without saving the time of the aborted run
+                stop(TIMER_FASTDIAGV2, false);
+                throw ex;
+            }
             stop(TIMER_FASTDIAGV2);
 
             LoggerUtils.outdent();
@@ -8,7 +8,8 @@
 
 package at.tugraz.ist.ase.cacdr.algorithms;
 
-import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.checker.IConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.checker.UnknownConsistencyException;
 import at.tugraz.ist.ase.common.LoggerUtils;
 import at.tugraz.ist.ase.kb.core.Constraint;
 import com.google.common.collect.Sets;
@@ -51,9 +52,9 @@ public class FastDiagV3 {
     public static final String TIMER_FASTDIAGV3 = "Timer for FD V3:";
     public static final String COUNTER_FASTDIAGV3_CALLS = "The number of FD V3 calls:";
 
-    protected final ChocoConsistencyChecker checker;
+    protected final IConsistencyChecker checker;
 
-    public FastDiagV3(@NonNull ChocoConsistencyChecker checker) {
+    public FastDiagV3(@NonNull IConsistencyChecker checker) {
         this.checker = checker;
     }
 
@@ -68,6 +69,7 @@ public class FastDiagV3 {
      * @param C a consideration set of constraints. Need to inverse the order of the possibly faulty constraint set.
      * @param B a background knowledge
      * @return a diagnosis or an empty set
+     * @throws UnknownConsistencyException if a consistency check is aborted by the checker
      */
     public Set<Constraint> findDiagnosis(@NonNull Set<Constraint> C, @NonNull Set<Constraint> B) {
         log.debug("{}Identifying diagnosis for [C={}, B={}] >>>", LoggerUtils.tab, C, B);
@@ -86,7 +88,14 @@ public class FastDiagV3 {
         } else { // else return C \ FD(C, B, Φ)
             incrementCounter(COUNTER_FASTDIAGV3_CALLS);
             start(TIMER_FASTDIAGV3);
-            Set<Constraint> mss = fd(Collections.emptySet(), C, B);
+            Set<Constraint> mss;
+            try {
+                mss = fd(Collections.emptySet(), C, B);
+            } catch (UnknownConsistencyException ex) {
+                // stops the timer without saving the time of the aborted run
+                stop(TIMER_FASTDIAGV3, false);
+                throw ex;
+            }
             stop(TIMER_FASTDIAGV3);
 
             incrementCounter(COUNTER_DIFFERENT_OPERATOR);
@@ -117,7 +126,7 @@ public class FastDiagV3 {
      * @param B a background knowledge
      * @return a maximal satisfiable subset MSS of C U B.
      */
-    private Set<Constraint> fd(Set<Constraint> Δ, Set<Constraint> C, Set<Constraint> B) {
+    protected Set<Constraint> fd(Set<Constraint> Δ, Set<Constraint> C, Set<Constraint> B) {
         log.trace("{}FD [Δ={}, C={}, B={}] >>>", LoggerUtils.tab, Δ, C, B);
         LoggerUtils.indent();
 
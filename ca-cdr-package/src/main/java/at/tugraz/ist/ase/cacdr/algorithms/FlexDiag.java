@@ -8,7 +8,8 @@
 
 package at.tugraz.ist.ase.cacdr.algorithms;
 
-import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.checker.IConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.checker.UnknownConsistencyException;
 import at.tugraz.ist.ase.common.LoggerUtils;
 import at.tugraz.ist.ase.kb.core.Constraint;
 import com.google.common.collect.Sets;
@@ -54,9 +55,9 @@ public class FlexDiag {
     public static final String TIMER_FLEXDIAG = "Timer for FlexDiag:";
     public static final String COUNTER_FLEXDIAG_CALLS = "The number of FlexDiag calls:";
 
-    protected final ChocoConsistencyChecker checker;
+    protected final IConsistencyChecker checker;
 
-    public FlexDiag(@NonNull ChocoConsistencyChecker checker) {
+    public FlexDiag(@NonNull IConsistencyChecker checker) {
         this.checker = checker;
     }
 
@@ -72,6 +73,7 @@ public class FlexDiag {
      * @param AC a background knowledge
      * @param m the value which controls the diagnosis quality
      * @return a diagnosis or an empty set
+     * @throws UnknownConsistencyException if a consistency check is aborted by the checker
      */
     public Set<Constraint> findDiagnosis(@NonNull Set<Constraint> S, @NonNull Set<Constraint> AC, int m) {
         log.debug("{}Identifying diagnosis for [S={}, AC={}, {}] >>>", LoggerUtils.tab, S, AC, m);
@@ -90,7 +92,14 @@ public class FlexDiag {
         } else { // else return FlexD(Φ, C, AC, m)
             incrementCounter(COUNTER_FLEXDIAG_CALLS);
             start(TIMER_FLEXDIAG);
-            Set<Constraint> Δ = flexd(Collections.emptySet(), S, AC, m);
+            Set<Constraint> Δ;
+            try {
+                Δ = flexd(Collections.emptySet(), S, AC, m);
+            } catch (UnknownConsistencyException ex) {
+                // stops the timer without saving the time of the aborted run
+                stop(TIMER_FLEXDIAG, false);
+                throw ex;
+            }
             stop(TIMER_FLEXDIAG);
 
             LoggerUtils.outdent();
@@ -0,0 +1,196 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.algorithms;
+
+import at.tugraz.ist.ase.cacdr.checker.CheckerPool;
+import at.tugraz.ist.ase.cacdr.checker.IConsistencyChecker;
+import at.tugraz.ist.ase.common.LoggerUtils;
+import at.tugraz.ist.ase.kb.core.Constraint;
+import com.google.common.collect.Sets;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import static at.tugraz.ist.ase.cacdr.eval.CAEvaluator.*;
+import static at.tugraz.ist.ase.common.ConstraintUtils.split;
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A QuickXPlain which runs the consistency checks of the next steps of QX ahead of time
+ * on the checkers of a {@link CheckerPool}.
+ *
+ * QX is run as a sequence of steps, each ending at a consistency check of B. Before the check of a step,
+ * the checks of the following steps are submitted to the pool, up to {@link #getLookahead()} checks ahead
+ * (see {@link SpeculativeChecks}). The check of a step uses the result of its submitted check
+ * if this check has already started, otherwise the check is run by the given checker.
+ *
+ * Since the steps are the ones of {@link QuickXPlain}, the conflict is the same as the one of QuickXPlain.
+ */
+@Slf4j
+public class ParallelQuickXPlain extends QuickXPlain {
+
+    private final CheckerPool pool;
+
+    /**
+     * The number of threads running speculative checks, by default the size of the pool
+     */
+    @Getter
+    private int workers;
+
+    /**
+     * The number of checks which are looked ahead
+     */
+    @Getter
+    private int lookahead = 2;
+
+    public ParallelQuickXPlain(@NonNull IConsistencyChecker checker, @NonNull CheckerPool pool) {
+        super(checker);
+        this.pool = pool;
+        this.workers = pool.size();
+    }
+
+    public void setWorkers(int workers) {
+        checkArgument(workers > 0, "The number of workers must be positive");
+
+        this.workers = workers;
+    }
+
+    public void setLookahead(int lookahead) {
+        checkArgument(lookahead >= 0, "The lookahead must not be negative");
+
+        this.lookahead = lookahead;
+    }
+
+    /**
+     * Runs QX step by step, looking ahead the checks of the next steps.
+     *
+     * @param D check to skip redundant consistency checks
+     * @param C a consideration set of constraints
+     * @param B a background knowledge
+     * @return a conflict set or an empty set
+     */
+    @Override
+    protected Set<Constraint> qx(Set<Constraint> D, Set<Constraint> C, Set<Constraint> B) {
+        log.debug("{}Running speculative QX [workers={}, lookahead={}] >>>", LoggerUtils.tab, workers, lookahead);
+        LoggerUtils.indent();
+
+        try (SpeculativeChecks speculations = new SpeculativeChecks(pool, workers, "speculative-qx")) {
+            Step step = call(D, C, B, null, false);
+            while (!step.isDone()) {
+                speculations.lookahead(step, s -> s.isDone() ? null : s.B(), (s, consistent) -> resume(s, consistent, true), lookahead);
+
+                incrementCounter(COUNTER_CONSISTENCY_CHECKS);
+                Boolean consistent = speculations.take(step.B());
+                if (consistent == null) {
+                    consistent = checker.isConsistent(step.B());
+                }
+
+                step = resume(step, consistent, false);
+            }
+
+            LoggerUtils.outdent();
+            log.debug("{}<<< Finished speculative QX [submitted={}, used={}]", LoggerUtils.tab,
+                    speculations.getNumOfSubmitted(), speculations.getNumOfUsed());
+
+            return step.conflict();
+        }
+    }
+
+    /**
+     * A step of QX, which waits for the consistency check of B, or the conflict if QX is done.
+     * @param C the consideration set, which is split if B is consistent
+     * @param B the background knowledge to check
+     * @param frame the remaining work of the calling QXs
+     * @param conflict the conflict found by QX
+     */
+    private record Step(Set<Constraint> C, Set<Constraint> B, Frame frame, Set<Constraint> conflict) {
+        boolean isDone() {
+            return conflict != null;
+        }
+    }
+
+    /**
+     * The remaining work of a calling QX, either the right branch QX(CS1, C2, B ∪ CS1) once CS1
+     * is returned, or the union CS1 ∪ CS2 once CS2 is returned.
+     */
+    private record Frame(Set<Constraint> C2, Set<Constraint> B, Set<Constraint> CS1, Frame parent) {
+        boolean isLeftBranch() {
+            return CS1 == null;
+        }
+    }
+
+    /**
+     * func QX(Δ, C, B)
+     * IF (Δ != Φ AND inconsistent(B)) return Φ;
+     */
+    private Step call(Set<Constraint> D, Set<Constraint> C, Set<Constraint> B, Frame frame, boolean speculative) {
+        if (!D.isEmpty()) {
+            return new Step(C, B, frame, null);
+        }
+        return proceed(C, B, frame, speculative);
+    }
+
+    /**
+     * Continues the given step with the result of its check.
+     */
+    private Step resume(Step step, boolean consistent, boolean speculative) {
+        if (consistent) {
+            return proceed(step.C(), step.B(), step.frame(), speculative);
+        }
+        return ret(Collections.emptySet(), step.frame(), speculative);
+    }
+
+    /**
+     * IF singleton(C) return C;
+     * C1 <-- {c1, …, ck}; C2 <-- {ck+1, …, cq};
+     * CS1 <-- QX(C2, C1, B ∪ C2);
+     */
+    private Step proceed(Set<Constraint> C, Set<Constraint> B, Frame frame, boolean speculative) {
+        if (C.size() == 1) {
+            return ret(C, frame, speculative);
+        }
+
+        Set<Constraint> C1 = new LinkedHashSet<>();
+        Set<Constraint> C2 = new LinkedHashSet<>();
+        split(C, C1, C2);
+
+        if (!speculative) {
+            incrementCounter(COUNTER_UNION_OPERATOR);
+            incrementCounter(COUNTER_LEFT_BRANCH_CALLS);
+            incrementCounter(COUNTER_QUICKXPLAIN_CALLS);
+        }
+        return call(C2, C1, Sets.union(B, C2), new Frame(C2, B, null, frame), speculative);
+    }
+
+    /**
+     * Returns CS to the calling QX, which either continues with CS2 <-- QX(CS1, C2, B ∪ CS1),
+     * or returns (CS1 ∪ CS2).
+     */
+    private Step ret(Set<Constraint> CS, Frame frame, boolean speculative) {
+        if (frame == null) {
+            return new Step(null, null, null, CS);
+        }
+
+        if (!speculative) {
+            incrementCounter(COUNTER_UNION_OPERATOR);
+        }
+        if (frame.isLeftBranch()) {
+            if (!speculative) {
+                incrementCounter(COUNTER_RIGHT_BRANCH_CALLS);
+                incrementCounter(COUNTER_QUICKXPLAIN_CALLS);
+            }
+            return call(CS, frame.C2(), Sets.union(frame.B(), CS), new Frame(frame.C2(), frame.B(), CS, frame.parent()), speculative);
+        }
+        return ret(Sets.union(frame.CS1(), CS), frame.parent(), speculative);
+    }
+}
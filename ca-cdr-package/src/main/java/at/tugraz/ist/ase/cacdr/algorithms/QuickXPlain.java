@@ -8,11 +8,15 @@
 
 package at.tugraz.ist.ase.cacdr.algorithms;
 
-import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.checker.IConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.checker.IUnsatCoreExtractable;
+import at.tugraz.ist.ase.cacdr.checker.UnknownConsistencyException;
 import at.tugraz.ist.ase.common.LoggerUtils;
 import at.tugraz.ist.ase.kb.core.Constraint;
 import com.google.common.collect.Sets;
+import lombok.Getter;
 import lombok.NonNull;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.Collections;
@@ -46,6 +50,11 @@ import static at.tugraz.ist.ase.common.ConstraintUtils.split;
  *
  * #08.2020 - Viet-Man Le: using Set structures to store constraints instead of List
  *
+ * If the unsat core shrinking is enabled, and the checker implements {@link IUnsatCoreExtractable},
+ * C is reduced to the constraints of the unsat core of the inconsistent check of (B ∪ C) before
+ * calling QX. The conflict of the reduced C is also a minimal conflict of C,
+ * but not necessarily the one found without the shrinking.
+ *
  * @author Muslum Atas (muesluem.atas@ist.tugraz.at)
  * @author Viet-Man Le (vietman.le@ist.tugraz.at)
  */
@@ -56,9 +65,15 @@ public class QuickXPlain {
     public static final String TIMER_QUICKXPLAIN = "Timer for QX:";
     public static final String COUNTER_QUICKXPLAIN_CALLS = "The number of QX calls:";
 
-    protected final ChocoConsistencyChecker checker;
+    protected final IConsistencyChecker checker;
 
-    public QuickXPlain(@NonNull ChocoConsistencyChecker checker) {
+    /**
+     * Whether C is reduced to an unsat core before calling QX
+     */
+    @Getter @Setter
+    private boolean unsatCoreShrinking = false;
+
+    public QuickXPlain(@NonNull IConsistencyChecker checker) {
         this.checker = checker;
     }
 
@@ -71,6 +86,7 @@ public class QuickXPlain {
      * @param C a consideration set. Need to inverse the order of the possibly faulty constraint set.
      * @param B a background knowledge
      * @return a conflict set or an empty set
+     * @throws UnknownConsistencyException if a consistency check is aborted by the checker
      */
     public Set<Constraint> findConflictSet(@NonNull Set<Constraint> C, @NonNull Set<Constraint> B) {
         log.debug("{}Identifying conflict for [C={}, B={}] >>>", LoggerUtils.tab, C, B);
@@ -88,7 +104,14 @@ public class QuickXPlain {
         } else { //ELSE return QX(Φ, C, B)
             incrementCounter(COUNTER_QUICKXPLAIN_CALLS);
             start(TIMER_QUICKXPLAIN);
-            Set<Constraint> cs = qx(Collections.emptySet(), C, B);
+            Set<Constraint> cs;
+            try {
+                cs = qx(Collections.emptySet(), shrinkToUnsatCore(C), B);
+            } catch (UnknownConsistencyException ex) {
+                // stops the timer without saving the time of the aborted run
+                stop(TIMER_QUICKXPLAIN, false);
+                throw ex;
+            }
             stop(TIMER_QUICKXPLAIN);
 
             LoggerUtils.outdent();
@@ -98,6 +121,36 @@ public class QuickXPlain {
         }
     }
 
+    /**
+     * Reduces C to the constraints of the unsat core of the last (inconsistent) check,
+     * if the shrinking is enabled and supported by the checker.
+     * @param C a consideration set
+     * @return the constraints of C in the unsat core, or C if no core is available
+     */
+    protected Set<Constraint> shrinkToUnsatCore(Set<Constraint> C) {
+        if (!unsatCoreShrinking || !(checker instanceof IUnsatCoreExtractable extractable)) {
+            return C;
+        }
+
+        Set<Constraint> core = extractable.getUnsatCore();
+        if (core == null) {
+            return C;
+        }
+
+        Set<Constraint> shrunkC = new LinkedHashSet<>();
+        for (Constraint c : C) {
+            if (core.contains(c)) {
+                shrunkC.add(c);
+            }
+        }
+        if (shrunkC.isEmpty()) { // B is inconsistent by itself
+            return C;
+        }
+
+        log.debug("{}Shrunk C to unsat core [C={}]", LoggerUtils.tab, shrunkC);
+        return shrunkC;
+    }
+
     /**
      * //func QX(Δ, C={c1,c2, …, cq}, B): CS
      * //IF (Δ != Φ AND inconsistent(B)) return Φ;
@@ -113,7 +166,7 @@ public class QuickXPlain {
      * @param B a background knowledge
      * @return a conflict set or an empty set
      */
-    private Set<Constraint> qx(Set<Constraint> D, Set<Constraint> C, Set<Constraint> B) {
+    protected Set<Constraint> qx(Set<Constraint> D, Set<Constraint> C, Set<Constraint> B) {
         log.trace("{}QX [D={}, C={}, B={}] >>>", LoggerUtils.tab, D, C, B);
         LoggerUtils.indent();
 
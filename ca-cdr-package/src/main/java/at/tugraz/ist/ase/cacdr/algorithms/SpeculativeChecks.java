@@ -0,0 +1,153 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.algorithms;
+
+import at.tugraz.ist.ase.cacdr.checker.CheckerPool;
+import at.tugraz.ist.ase.kb.core.Constraint;
+import lombok.Getter;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static at.tugraz.ist.ase.cacdr.eval.CAEvaluator.*;
+
+/**
+ * The consistency checks which an algorithm runs ahead of time on the checkers of a {@link CheckerPool}.
+ *
+ * The algorithm is run as a sequence of steps, each waiting for a consistency check. Before the check of a step,
+ * {@link #lookahead} submits the checks of the following steps, assuming both results of each check.
+ * The check of the step then uses {@link #take(Set)}, which gives the result of the submitted check if
+ * it has already started. Submitted checks which are no longer ahead are cancelled if they haven't started yet.
+ *
+ * The numbers of submitted, used, and wasted (run but not used) checks are added to the counters
+ * {@link at.tugraz.ist.ase.cacdr.eval.CAEvaluator#COUNTER_SPECULATIVE_CHECKS},
+ * {@link at.tugraz.ist.ase.cacdr.eval.CAEvaluator#COUNTER_USED_SPECULATIVE_CHECKS}, and
+ * {@link at.tugraz.ist.ase.cacdr.eval.CAEvaluator#COUNTER_WASTED_SPECULATIVE_CHECKS} when closed.
+ */
+class SpeculativeChecks implements AutoCloseable {
+
+    private final CheckerPool pool;
+    private final ExecutorService executor;
+    private final Map<Set<Constraint>, Future<Boolean>> checks = new HashMap<>();
+    private final AtomicInteger started = new AtomicInteger();
+
+    @Getter
+    private int numOfSubmitted = 0;
+    @Getter
+    private int numOfUsed = 0;
+
+    /**
+     * @param pool the checkers running the checks
+     * @param workers the number of threads running the checks
+     * @param name the name of the threads
+     */
+    SpeculativeChecks(CheckerPool pool, int workers, String name) {
+        this.pool = pool;
+        this.executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Submits the checks of the steps following the given step, up to the given depth,
+     * and cancels the submitted checks which aren't ahead anymore.
+     * @param step the current step
+     * @param check the constraints checked by a step, or null if the step is the last one
+     * @param next the following step of a step, given the result of its check
+     * @param depth the number of checks looked ahead
+     */
+    <S> void lookahead(S step, Function<S, Set<Constraint>> check, BiFunction<S, Boolean, S> next, int depth) {
+        Set<Set<Constraint>> ahead = new HashSet<>();
+        ahead.add(Set.copyOf(check.apply(step)));
+
+        List<S> frontier = List.of(step);
+        for (int d = 0; d < depth && !frontier.isEmpty(); d++) {
+            List<S> nextFrontier = new ArrayList<>();
+            for (S s : frontier) {
+                for (boolean consistent : new boolean[]{true, false}) {
+                    S n = next.apply(s, consistent);
+                    Set<Constraint> C = check.apply(n);
+                    if (C == null) {
+                        continue;
+                    }
+
+                    Set<Constraint> key = Set.copyOf(C);
+                    if (ahead.add(key) && !checks.containsKey(key)) {
+                        checks.put(key, executor.submit(() -> {
+                            started.incrementAndGet();
+                            return pool.withChecker(c -> c.isConsistent(key));
+                        }));
+                        numOfSubmitted++;
+                    }
+                    nextFrontier.add(n);
+                }
+            }
+            frontier = nextFrontier;
+        }
+
+        // finished checks are kept, since their results could be needed later
+        checks.entrySet().removeIf(e -> !ahead.contains(e.getKey()) && e.getValue().cancel(false));
+    }
+
+    /**
+     * @return the result of the submitted check of C, or null if the check hasn't started yet
+     */
+    Boolean take(Set<Constraint> C) {
+        Future<Boolean> future = checks.remove(Set.copyOf(C));
+        if (future == null || future.cancel(false)) {
+            return null;
+        }
+
+        try {
+            Boolean consistent = future.get();
+            numOfUsed++;
+            return consistent;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a speculative check", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("A speculative check failed", ex.getCause());
+        }
+    }
+
+    /**
+     * @return the number of checks which were run but not used
+     */
+    int getNumOfWasted() {
+        return started.get() - numOfUsed;
+    }
+
+    /**
+     * Cancels the checks which haven't started yet, and waits for the running ones,
+     * so that no check outlives the algorithm.
+     */
+    @Override
+    public void close() {
+        checks.values().forEach(future -> future.cancel(false));
+        checks.clear();
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+
+        incrementCounter(COUNTER_SPECULATIVE_CHECKS, numOfSubmitted);
+        incrementCounter(COUNTER_USED_SPECULATIVE_CHECKS, numOfUsed);
+        incrementCounter(COUNTER_WASTED_SPECULATIVE_CHECKS, getNumOfWasted());
+    }
+}
@@ -10,8 +10,9 @@ package at.tugraz.ist.ase.cacdr.algorithms.hs;
 
 import at.tugraz.ist.ase.cacdr.algorithms.hs.labeler.IHSLabelable;
 import at.tugraz.ist.ase.cacdr.algorithms.hs.labeler.LabelerType;
-import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.checker.IConsistencyChecker;
 import at.tugraz.ist.ase.kb.core.Constraint;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -49,6 +50,14 @@ public abstract class AbstractHSConstructor {
     @Setter
     private int maxDepth = 0;
 
+    /**
+     * False if the construction is aborted by a consistency check with an UNKNOWN result
+     * (see {@link at.tugraz.ist.ase.cacdr.checker.UnknownPolicy#ABORT}).
+     * The identified conflicts and diagnoses are then only a part of all conflicts and diagnoses.
+     */
+    @Setter(AccessLevel.PROTECTED)
+    private boolean complete = true;
+
     /**
      * Use setter to preset known conflicts
      */
@@ -57,9 +66,9 @@ public abstract class AbstractHSConstructor {
     private final List<Set<Constraint>> pathLabels = new LinkedList<>(); // diagnosis/conflict
 
     private IHSLabelable labeler;
-    private ChocoConsistencyChecker checker;
+    private IConsistencyChecker checker;
 
-    public AbstractHSConstructor(IHSLabelable labeler, ChocoConsistencyChecker checker) {
+    public AbstractHSConstructor(IHSLabelable labeler, IConsistencyChecker checker) {
         this.labeler = labeler;
         this.checker = checker;
     }
@@ -116,6 +125,7 @@ public abstract class AbstractHSConstructor {
     public void resetEngine() {
         nodeLabels.clear();
         pathLabels.clear();
+        complete = true;
     }
 
     public void dispose() {
@@ -10,7 +10,7 @@ package at.tugraz.ist.ase.cacdr.algorithms.hs;
 
 import at.tugraz.ist.ase.cacdr.algorithms.hs.labeler.IHSLabelable;
 import at.tugraz.ist.ase.cacdr.algorithms.hs.parameters.AbstractHSParameters;
-import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.checker.IConsistencyChecker;
 import at.tugraz.ist.ase.common.LoggerUtils;
 import at.tugraz.ist.ase.kb.core.Constraint;
 import com.google.common.collect.Sets;
@@ -33,16 +33,14 @@ public class HSDAG extends HSTree {
     // Map of <pathLabel, Node>
     private final Map<Set<Constraint>, Node> nodesLookup = new HashMap<>();
 
-    public HSDAG(IHSLabelable labeler, ChocoConsistencyChecker checker) {
+    public HSDAG(IHSLabelable labeler, IConsistencyChecker checker) {
         super(labeler, checker);
     }
 
     @Override
     protected List<Set<Constraint>> computeLabel(Node node) {
-        AbstractHSParameters param = node.getParameters();
-
         start(TIMER_NODE_LABEL);
-        List<Set<Constraint>> labels = getLabeler().getLabel(param);
+        List<Set<Constraint>> labels = callLabeler(node);
 
         if (!labels.isEmpty()) {
             stop(TIMER_NODE_LABEL);
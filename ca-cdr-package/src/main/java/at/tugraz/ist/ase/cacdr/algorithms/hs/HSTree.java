@@ -11,7 +11,8 @@ package at.tugraz.ist.ase.cacdr.algorithms.hs;
 import at.tugraz.ist.ase.cacdr.algorithms.hs.labeler.IHSLabelable;
 import at.tugraz.ist.ase.cacdr.algorithms.hs.labeler.LabelerType;
 import at.tugraz.ist.ase.cacdr.algorithms.hs.parameters.AbstractHSParameters;
-import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.checker.IConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.checker.UnknownConsistencyException;
 import at.tugraz.ist.ase.common.LoggerUtils;
 import at.tugraz.ist.ase.kb.core.Constraint;
 import com.google.common.collect.Sets;
@@ -40,7 +41,7 @@ public class HSTree extends AbstractHSConstructor {
     // Map of <label, list of nodes which have the label as its label>
     protected Map<Set<Constraint>, List<Node>> label_nodesMap = new LinkedHashMap<>();
 
-    public HSTree(IHSLabelable labeler, ChocoConsistencyChecker checker) {
+    public HSTree(IHSLabelable labeler, IConsistencyChecker checker) {
         super(labeler, checker);
     }
 
@@ -59,7 +60,13 @@ public class HSTree extends AbstractHSConstructor {
         // generate root if there is none
         if (!hasRoot()) {
             start(TIMER_NODE_LABEL);
-            List<Set<Constraint>> labels = getLabeler().getLabel(param);
+            List<Set<Constraint>> labels;
+            try {
+                labels = getLabeler().getLabel(param);
+            } catch (UnknownConsistencyException ex) {
+                abortConstruction();
+                return;
+            }
             stop(TIMER_NODE_LABEL);
 
             if (labels.isEmpty()) {
@@ -83,13 +90,27 @@ public class HSTree extends AbstractHSConstructor {
             expand(root);
         }
 
+        expandOpenNodes();
+    }
+
+    /**
+     * Labels and expands the open nodes in breadth-first order, until no open node is left
+     * or the construction is stopped, then ends the construction.
+     */
+    protected void expandOpenNodes() {
         while (hasNodesToExpand()) {
             Node node = getNextNode();
             if (skipNode(node)) continue;
             log.trace("{}Processing [node={}]", LoggerUtils.tab, node);
             LoggerUtils.indent();
 
-            label(node);
+            try {
+                label(node);
+            } catch (UnknownConsistencyException ex) {
+                LoggerUtils.outdent();
+                abortConstruction();
+                return;
+            }
             if (stopConstruction()) {
                 LoggerUtils.outdent();
                 endConstruction();
@@ -120,6 +141,18 @@ public class HSTree extends AbstractHSConstructor {
         }
     }
 
+    /**
+     * Ends the construction when a consistency check is aborted while computing a node label,
+     * keeping the conflicts and diagnoses identified so far.
+     */
+    protected void abortConstruction() {
+        stop(TIMER_NODE_LABEL, false);
+        setComplete(false);
+        log.warn("{}Aborted the construction due to an unknown consistency check", LoggerUtils.tab);
+
+        endConstruction();
+    }
+
     protected void label(Node node) {
         if (node.getLabel() == null) {
             // Reusing labels - H(node) ∩ S = {}, then label node by S
@@ -162,10 +195,8 @@ public class HSTree extends AbstractHSConstructor {
     }
 
     protected List<Set<Constraint>> computeLabel(Node node) {
-        AbstractHSParameters param = node.getParameters();
-
         start(TIMER_NODE_LABEL);
-        List<Set<Constraint>> labels = getLabeler().getLabel(param);
+        List<Set<Constraint>> labels = callLabeler(node);
 
         if (!labels.isEmpty()) {
             stop(TIMER_NODE_LABEL);
@@ -178,6 +209,15 @@ public class HSTree extends AbstractHSConstructor {
         return labels;
     }
 
+    /**
+     * Identifies the labels (conflicts/diagnoses) of a node by the labeler.
+     * @param node a node without label
+     * @return a list of labels
+     */
+    protected List<Set<Constraint>> callLabeler(Node node) {
+        return getLabeler().getLabel(node.getParameters());
+    }
+
     protected void addNodeLabels(Collection<Set<Constraint>> labels) {
         for (Set<Constraint> label : labels) {
             getNodeLabels().add(label);
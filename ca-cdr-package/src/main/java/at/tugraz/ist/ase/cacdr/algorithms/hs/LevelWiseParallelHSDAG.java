@@ -0,0 +1,210 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.algorithms.hs;
+
+import at.tugraz.ist.ase.cacdr.algorithms.hs.labeler.IHSLabelable;
+import at.tugraz.ist.ase.cacdr.checker.CheckerPool;
+import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.checker.IConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.checker.UnknownConsistencyException;
+import at.tugraz.ist.ase.common.LoggerUtils;
+import at.tugraz.ist.ase.kb.core.Constraint;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+import java.util.function.Function;
+
+import static at.tugraz.ist.ase.cacdr.eval.CAEvaluator.*;
+import static at.tugraz.ist.ase.common.ConstraintUtils.hasIntersection;
+
+/**
+ * Implementation of the level-wise parallel HS-dag algorithm.
+ * The open nodes of a level are labeled at the same time by the checkers of a {@link CheckerPool},
+ * each checker with its own labeler.
+ *
+ * A level is processed in three phases:
+ * 1. the open nodes of the level are taken in breadth-first order, skipping the closed ones (3.i, 3.ii),
+ * 2. the labels of the nodes which can't reuse a known label are computed in parallel,
+ * 3. the nodes are labeled and expanded in breadth-first order as HSDAG does, using the computed labels.
+ * Since the phase 3 applies the reuse, pruning, and relabeling rules of HSDAG to the same nodes in the same order,
+ * the identified conflicts and diagnoses are the ones of HSDAG. The labels of nodes closed or relabeled
+ * by nodes of the same level are computed in vain.
+ *
+ * source: Jannach, D., Schmitz, T., & Shchekotykhin, K. (2016). Parallel model-based diagnosis on multi-core computers.
+ * Journal of Artificial Intelligence Research, 55, 835-887.
+ */
+@Slf4j
+public class LevelWiseParallelHSDAG extends HSDAG {
+
+    // for evaluation
+    public static final String TIMER_LEVEL = "Timer for levels:";
+    public static final String COUNTER_PARALLEL_LABELS = "The number of labels computed in parallel:";
+    public static final String COUNTER_UNUSED_PARALLEL_LABELS = "The number of labels computed in parallel but not used:";
+
+    /**
+     * The wall time and the number of labels computed in parallel of a level
+     * @param level the level of the nodes
+     * @param time the wall time of the level in nanoseconds
+     * @param numOfParallelLabels the number of nodes labeled in parallel
+     */
+    public record LevelStatistics(int level, long time, int numOfParallelLabels) {}
+
+    private final CheckerPool pool;
+    private final Map<ChocoConsistencyChecker, IHSLabelable> labelers = new IdentityHashMap<>(); // checker of the pool -> its labeler
+
+    /**
+     * The statistics of the processed levels
+     */
+    @Getter
+    private final List<LevelStatistics> levels = new ArrayList<>();
+
+    // labels computed in parallel for the nodes of the current level, or the exception of the labeler
+    private final Map<Node, Object> parallelLabels = new IdentityHashMap<>();
+
+    /**
+     * @param labeler the labeler of the root node and of nodes without parallel labels
+     * @param checker the checker of the labeler
+     * @param pool the checkers labeling the nodes of a level
+     * @param labelerFactory creates a labeler of the same kind as the given labeler for a checker of the pool
+     */
+    public LevelWiseParallelHSDAG(IHSLabelable labeler, IConsistencyChecker checker,
+                                  @NonNull CheckerPool pool, @NonNull Function<IConsistencyChecker, IHSLabelable> labelerFactory) {
+        super(labeler, checker);
+        this.pool = pool;
+
+        for (ChocoConsistencyChecker c : pool.getCheckers()) {
+            labelers.put(c, labelerFactory.apply(c));
+        }
+    }
+
+    @Override
+    protected void expandOpenNodes() {
+        while (hasNodesToExpand()) {
+            start(TIMER_LEVEL);
+            long startTime = System.nanoTime();
+
+            // phase 1 - the open nodes of the level
+            int level = openNodes.element().getLevel();
+            List<Node> nodes = new ArrayList<>();
+            while (hasNodesToExpand() && openNodes.element().getLevel() == level) {
+                Node node = getNextNode();
+                if (!skipNode(node)) {
+                    nodes.add(node);
+                }
+            }
+
+            // phase 2 - labels of the nodes which can't reuse a label
+            int numOfParallelLabels = computeParallelLabels(nodes);
+            log.debug("{}Labeled nodes of level {} in parallel [nodes={}, parallel labels={}]", LoggerUtils.tab,
+                    level, nodes.size(), numOfParallelLabels);
+
+            // phase 3 - label and expand the nodes in order
+            boolean finished = false;
+            for (Node node : nodes) {
+                if (skipNode(node)) continue;
+                log.trace("{}Processing [node={}]", LoggerUtils.tab, node);
+                LoggerUtils.indent();
+
+                try {
+                    label(node);
+                } catch (UnknownConsistencyException ex) {
+                    LoggerUtils.outdent();
+                    endLevel(level, startTime, numOfParallelLabels);
+                    abortConstruction();
+                    return;
+                }
+                if (stopConstruction()) {
+                    LoggerUtils.outdent();
+                    finished = true;
+                    break;
+                }
+
+                if (node.getStatus() == NodeStatus.Open) {
+                    expand(node);
+                }
+
+                LoggerUtils.outdent();
+            }
+
+            endLevel(level, startTime, numOfParallelLabels);
+            if (finished) {
+                endConstruction();
+                return;
+            }
+            System.gc();
+        }
+
+        endConstruction();
+    }
+
+    /**
+     * Computes the labels of the given nodes, which can't reuse a known label, by the labelers of the pool.
+     * @return the number of computed labels
+     */
+    private int computeParallelLabels(List<Node> nodes) {
+        List<Node> nodesToLabel = new ArrayList<>();
+        for (Node node : nodes) {
+            if (node.getLabel() == null
+                    && getNodeLabels().stream().allMatch(label -> hasIntersection(node.getPathLabel(), label))) {
+                nodesToLabel.add(node);
+            }
+        }
+
+        List<Function<ChocoConsistencyChecker, Object>> tasks = new ArrayList<>(nodesToLabel.size());
+        for (Node node : nodesToLabel) {
+            tasks.add(checker -> {
+                try {
+                    return labelers.get(checker).getLabel(node.getParameters());
+                } catch (UnknownConsistencyException ex) {
+                    return ex; // thrown when the node is labeled
+                }
+            });
+        }
+        List<Object> results = pool.invokeAll(tasks);
+
+        for (int i = 0; i < nodesToLabel.size(); i++) {
+            parallelLabels.put(nodesToLabel.get(i), results.get(i));
+        }
+        incrementCounter(COUNTER_PARALLEL_LABELS, nodesToLabel.size());
+        return nodesToLabel.size();
+    }
+
+    private void endLevel(int level, long startTime, int numOfParallelLabels) {
+        stop(TIMER_LEVEL);
+        incrementCounter(COUNTER_UNUSED_PARALLEL_LABELS, parallelLabels.size());
+        parallelLabels.clear();
+
+        levels.add(new LevelStatistics(level, System.nanoTime() - startTime, numOfParallelLabels));
+    }
+
+    /**
+     * Uses the labels computed in parallel if there are some for the node.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    protected List<Set<Constraint>> callLabeler(Node node) {
+        Object result = parallelLabels.remove(node);
+        if (result == null) {
+            return super.callLabeler(node);
+        }
+        if (result instanceof UnknownConsistencyException ex) {
+            throw ex;
+        }
+        return (List<Set<Constraint>>) result;
+    }
+
+    @Override
+    public void resetEngine() {
+        super.resetEngine();
+        this.levels.clear();
+        this.parallelLabels.clear();
+    }
+}
@@ -11,7 +11,7 @@ package at.tugraz.ist.ase.cacdr.algorithms.hs.labeler;
 import at.tugraz.ist.ase.cacdr.algorithms.FastDiagV2;
 import at.tugraz.ist.ase.cacdr.algorithms.hs.parameters.AbstractHSParameters;
 import at.tugraz.ist.ase.cacdr.algorithms.hs.parameters.FastDiagV2Parameters;
-import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.checker.IConsistencyChecker;
 import at.tugraz.ist.ase.kb.core.Constraint;
 import lombok.Getter;
 import lombok.NonNull;
@@ -33,10 +33,10 @@ public class FastDiagV2Labeler extends FastDiagV2 implements IHSLabelable {
 
     /**
      * Constructor with parameters which contain C, and AC
-     * @param checker a {@link ChocoConsistencyChecker} object
+     * @param checker a {@link IConsistencyChecker} object
      * @param parameters a {@link FastDiagV2Parameters} object
      */
-    public FastDiagV2Labeler(@NonNull ChocoConsistencyChecker checker, @NonNull FastDiagV2Parameters parameters) {
+    public FastDiagV2Labeler(@NonNull IConsistencyChecker checker, @NonNull FastDiagV2Parameters parameters) {
         super(checker);
         this.initialParameters = parameters;
     }
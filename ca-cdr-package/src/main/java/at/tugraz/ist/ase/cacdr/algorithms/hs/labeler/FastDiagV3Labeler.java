@@ -12,7 +12,7 @@ import at.tugraz.ist.ase.cacdr.algorithms.FastDiagV3;
 import at.tugraz.ist.ase.cacdr.algorithms.hs.parameters.AbstractHSParameters;
 import at.tugraz.ist.ase.cacdr.algorithms.hs.parameters.FastDiagV2Parameters;
 import at.tugraz.ist.ase.cacdr.algorithms.hs.parameters.FastDiagV3Parameters;
-import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.checker.IConsistencyChecker;
 import at.tugraz.ist.ase.kb.core.Constraint;
 import lombok.Getter;
 import lombok.NonNull;
@@ -34,10 +34,10 @@ public class FastDiagV3Labeler extends FastDiagV3 implements IHSLabelable {
 
     /**
      * Constructor with parameters which contain C, and B
-     * @param checker a {@link ChocoConsistencyChecker} object
+     * @param checker a {@link IConsistencyChecker} object
      * @param parameters a {@link FastDiagV2Parameters} object
      */
-    public FastDiagV3Labeler(@NonNull ChocoConsistencyChecker checker, @NonNull FastDiagV3Parameters parameters) {
+    public FastDiagV3Labeler(@NonNull IConsistencyChecker checker, @NonNull FastDiagV3Parameters parameters) {
         super(checker);
         this.initialParameters = parameters;
     }
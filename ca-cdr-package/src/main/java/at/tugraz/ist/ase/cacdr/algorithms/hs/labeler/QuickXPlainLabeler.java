@@ -12,7 +12,7 @@ import at.tugraz.ist.ase.cacdr.algorithms.QuickXPlain;
 import at.tugraz.ist.ase.cacdr.algorithms.hs.parameters.AbstractHSParameters;
 import at.tugraz.ist.ase.cacdr.algorithms.hs.parameters.FastDiagV2Parameters;
 import at.tugraz.ist.ase.cacdr.algorithms.hs.parameters.QuickXPlainParameters;
-import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.checker.IConsistencyChecker;
 import at.tugraz.ist.ase.kb.core.Constraint;
 import lombok.Getter;
 import lombok.NonNull;
@@ -31,10 +31,10 @@ public class QuickXPlainLabeler extends QuickXPlain implements IHSLabelable {
 
     /**
      * Constructor with parameters which contain C, and B
-     * @param checker a {@link ChocoConsistencyChecker} object
+     * @param checker a {@link IConsistencyChecker} object
      * @param parameters a {@link FastDiagV2Parameters} object
      */
-    public QuickXPlainLabeler(@NonNull ChocoConsistencyChecker checker, @NonNull QuickXPlainParameters parameters) { // @NonNull Set<Constraint> C, @NonNull Set<Constraint> B
+    public QuickXPlainLabeler(@NonNull IConsistencyChecker checker, @NonNull QuickXPlainParameters parameters) { // @NonNull Set<Constraint> C, @NonNull Set<Constraint> B
         super(checker);
         this.initialParameters = parameters;
     }
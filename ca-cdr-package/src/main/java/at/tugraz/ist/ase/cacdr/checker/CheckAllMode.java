@@ -0,0 +1,40 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker;
+
+/**
+ * Modes of {@link IConsistencyChecker#checkAll(java.util.List, CheckAllMode)}, i.e., when the sets
+ * following a set in the given list don't need to be checked anymore.
+ * Sets which aren't checked are told apart by {@link CheckAllResult#numOfChecked()}.
+ */
+public enum CheckAllMode {
+    /**
+     * Checks all sets.
+     */
+    ALL,
+    /**
+     * Stops at the first consistent set, i.e., its bit is the only set bit.
+     */
+    FIRST_CONSISTENT,
+    /**
+     * Stops at the first inconsistent set, i.e., the first clear bit.
+     */
+    FIRST_INCONSISTENT;
+
+    /**
+     * @return true if the sets following a set with the given result don't need to be checked
+     */
+    public boolean stopsAt(boolean consistent) {
+        return switch (this) {
+            case ALL -> false;
+            case FIRST_CONSISTENT -> consistent;
+            case FIRST_INCONSISTENT -> !consistent;
+        };
+    }
+}
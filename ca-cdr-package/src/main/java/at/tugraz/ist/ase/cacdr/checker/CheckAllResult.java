@@ -0,0 +1,40 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker;
+
+import java.util.BitSet;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Results of {@link IConsistencyChecker#checkAll(java.util.List, CheckAllMode)}.
+ * The sets 0..numOfChecked - 1 are checked, the sets after them aren't checked
+ * since the {@link CheckAllMode} stopped the checks.
+ *
+ * @param consistent a bitset, whose i-th bit is set if the i-th set is checked and consistent
+ * @param numOfChecked the number of checked sets
+ */
+public record CheckAllResult(BitSet consistent, int numOfChecked) {
+
+    /**
+     * @return true if the i-th set is checked
+     */
+    public boolean isChecked(int i) {
+        return i < numOfChecked;
+    }
+
+    /**
+     * @return true if the i-th set is consistent
+     * @throws IllegalArgumentException if the i-th set isn't checked
+     */
+    public boolean isConsistent(int i) {
+        checkArgument(isChecked(i), "The set %s isn't checked", i);
+        return consistent.get(i);
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker;
+
+import at.tugraz.ist.ase.cacdr.checker.trace.CheckTrace;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The measures of a single consistency check, given to the {@link ICheckListener}s of a {@link ChocoConsistencyChecker}.
+ *
+ * The propagation time is the time of the root propagation, i.e., of {@link CheckingStrategy#PROPAGATION_FIRST},
+ * or of the initial propagation of the solver. The search time is the rest of the time of the solver.
+ * The numbers of nodes and fails are taken from the measures of the Choco solver.
+ */
+@Builder
+@Getter
+@ToString
+public class CheckEvent {
+
+    /**
+     * How a check is decided
+     */
+    public enum Decision {
+        CACHE,          // found in the cache of the checker
+        BACKGROUND,     // the pinned background is inconsistent
+        SOLUTION_REUSE, // satisfied by a kept solution
+        PROPAGATION,    // decided by the root propagation
+        SEARCH          // decided (or stopped) by the solver
+    }
+
+    private final CheckTrace.Kind kind;
+    private final int size; // the number of given constraints
+    private final int numOfPostedConstraints; // the number of Choco constraints in the model when checking
+
+    private final Decision decision; // null if an error occurred
+    private final long propagationTime; // in nanoseconds
+    private final long searchTime; // in nanoseconds
+    private final long nodes;
+    private final long fails;
+
+    private final ConsistencyResult result;
+    private final long time; // the total time of the check, in nanoseconds
+}
@@ -0,0 +1,91 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker;
+
+import at.tugraz.ist.ase.kb.core.Constraint;
+import at.tugraz.ist.ase.test.ITestCase;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A canonical identity of a consistency check.
+ *
+ * Two checks have the same key if they consider the same set of constraints (regardless of the order),
+ * and the same test case, negated test case, and negated constraint. Test cases are identified by their
+ * textual representation, and {@link Constraint}s by their {@link Constraint#equals(Object)}.
+ */
+@Getter
+@EqualsAndHashCode(cacheStrategy = EqualsAndHashCode.CacheStrategy.LAZY)
+public final class CheckKey {
+    private final Set<Constraint> constraints;
+    private final String testcase;
+    private final String negTestcase;
+    private final Constraint negConstraint;
+
+    private CheckKey(Set<Constraint> constraints, String testcase, String negTestcase, Constraint negConstraint) {
+        this.constraints = constraints;
+        this.testcase = testcase;
+        this.negTestcase = negTestcase;
+        this.negConstraint = negConstraint;
+    }
+
+    /**
+     * Key of consistent(C)
+     */
+    public static CheckKey of(@NonNull Collection<Constraint> C) {
+        return new CheckKey(Set.copyOf(C), null, null, null);
+    }
+
+    /**
+     * Key of consistent(C ∪ testcase)
+     */
+    public static CheckKey of(@NonNull Collection<Constraint> C, @NonNull ITestCase testcase) {
+        return new CheckKey(Set.copyOf(C), testcase.toString(), null, null);
+    }
+
+    /**
+     * Key of consistent(testcase ∧ ¬neg_testcase)
+     */
+    public static CheckKey of(@NonNull ITestCase testcase, @NonNull ITestCase neg_testcase) {
+        return new CheckKey(Collections.emptySet(), testcase.toString(), neg_testcase.toString(), null);
+    }
+
+    /**
+     * Key of consistent(C - {cstr} ∪ {¬cstr})
+     */
+    public static CheckKey ofNegated(@NonNull Collection<Constraint> C, @NonNull Constraint cstr) {
+        Set<Constraint> CF = new HashSet<>(C);
+        CF.remove(cstr);
+        return new CheckKey(Set.copyOf(CF), null, null, cstr);
+    }
+
+    /**
+     * Returns the key of the same check without the constraints, i.e., what the constraints
+     * are checked with (a test case, a negated test case, or a negated constraint).
+     */
+    public CheckKey context() {
+        return new CheckKey(Collections.emptySet(), testcase, negTestcase, negConstraint);
+    }
+
+    @Override
+    public String toString() {
+        return "CheckKey{" +
+                "C=" + constraints +
+                (testcase != null ? ", testcase=" + testcase : "") +
+                (negTestcase != null ? ", neg_testcase=" + negTestcase : "") +
+                (negConstraint != null ? ", neg_cstr=" + negConstraint : "") +
+                '}';
+    }
+}
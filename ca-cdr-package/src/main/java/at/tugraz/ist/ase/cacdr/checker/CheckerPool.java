@@ -0,0 +1,202 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker;
+
+import at.tugraz.ist.ase.cdrmodel.CDRModel;
+import at.tugraz.ist.ase.cdrmodel.IDebuggingModel;
+import at.tugraz.ist.ase.common.LoggerUtils;
+import at.tugraz.ist.ase.kb.core.Constraint;
+import at.tugraz.ist.ase.test.ITestCase;
+import at.tugraz.ist.ase.test.TestCase;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * A pool of {@link ChocoConsistencyChecker}s, which lets several threads check the consistency at the same time.
+ *
+ * Each checker works on its own copy of the given {@link CDRModel}, hence checks of different threads
+ * never share a Choco model. Constraints and test cases of the given model are mapped to the ones
+ * of each copy by their textual representation.
+ *
+ * Choco models cannot be copied, and a Choco constraint cannot be posted to another model, hence
+ * the copies are made by {@link CDRModel#clone()}. The clones of the models (e.g., FMDebuggingModel and
+ * the test models) build their knowledge base and run initialize() again, i.e., each checker
+ * of the pool pays the full initialization cost of the model once, when the pool is created.
+ *
+ * A thread leases a checker with {@link #acquire()}, and gives it back with {@link #release(ChocoConsistencyChecker)},
+ * or simply runs a task with {@link #withChecker(Function)}. Tasks can also be run by the threads of the pool,
+ * one thread per checker, using {@link #invokeAll(List)}.
+ */
+@Slf4j
+public class CheckerPool {
+
+    private final List<ChocoConsistencyChecker> checkers = new ArrayList<>();
+    private final BlockingQueue<ChocoConsistencyChecker> availableCheckers;
+    private ExecutorService executor = null; // created at the first use
+
+    /**
+     * Constructor
+     *
+     * Creates a copy of the given CDRModel for each checker of the pool,
+     * each copy costing as much as initializing the model.
+     * @param diagModel a {@link CDRModel} which also implements {@link at.tugraz.ist.ase.cdrmodel.IChocoModel}
+     * @param size the number of checkers
+     */
+    public CheckerPool(@NonNull CDRModel diagModel, int size) throws CloneNotSupportedException {
+        checkArgument(size > 0, "The size of the pool must be positive");
+
+        for (int i = 0; i < size; i++) {
+            checkers.add(new CopyChecker((CDRModel) diagModel.clone()));
+        }
+        availableCheckers = new ArrayBlockingQueue<>(size, false, checkers);
+
+        log.debug("{}Created CheckerPool for {} [size={}]", LoggerUtils.tab, diagModel, size);
+    }
+
+    /**
+     * Leases a checker, waiting until a checker is available.
+     * @return a checker which is only used by the calling thread until it is released
+     */
+    public ChocoConsistencyChecker acquire() throws InterruptedException {
+        return availableCheckers.take();
+    }
+
+    /**
+     * Gives a leased checker back to the pool.
+     * @param checker a checker obtained from {@link #acquire()}
+     */
+    public void release(@NonNull ChocoConsistencyChecker checker) {
+        checkArgument(checkers.contains(checker), "The checker doesn't belong to the pool");
+        checkState(!availableCheckers.contains(checker), "The checker is already released");
+
+        availableCheckers.add(checker);
+    }
+
+    /**
+     * Runs a task with a leased checker, and releases the checker afterwards.
+     * @param task a task using the checker
+     * @return the result of the task
+     */
+    public <T> T withChecker(@NonNull Function<ChocoConsistencyChecker, T> task) throws InterruptedException {
+        ChocoConsistencyChecker checker = acquire();
+        try {
+            return task.apply(checker);
+        } finally {
+            release(checker);
+        }
+    }
+
+    /**
+     * Runs the given tasks in the threads of the pool, each with a leased checker,
+     * and waits until all of them are done.
+     * If a task fails, the remaining tasks are cancelled, and its exception is rethrown.
+     * @param tasks tasks using a checker
+     * @return the results of the tasks, in the order of the tasks
+     */
+    public <T> List<T> invokeAll(@NonNull List<Function<ChocoConsistencyChecker, T>> tasks) {
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        for (Function<ChocoConsistencyChecker, T> task : tasks) {
+            futures.add(executor().submit(() -> withChecker(task)));
+        }
+
+        List<T> results = new ArrayList<>(tasks.size());
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException ex) {
+            futures.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the checkers", ex);
+        } catch (ExecutionException ex) {
+            futures.forEach(f -> f.cancel(true));
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("A task of the checkers failed", ex.getCause());
+        }
+        return results;
+    }
+
+    private synchronized ExecutorService executor() {
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(checkers.size(), runnable -> {
+                Thread thread = new Thread(runnable, "checker-pool");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+
+    /**
+     * @return the number of checkers
+     */
+    public int size() {
+        return checkers.size();
+    }
+
+    /**
+     * @return all checkers of the pool, e.g., to configure them before leasing
+     */
+    public List<ChocoConsistencyChecker> getCheckers() {
+        return Collections.unmodifiableList(checkers);
+    }
+
+    public synchronized void dispose() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        checkers.forEach(ChocoConsistencyChecker::dispose);
+        checkers.clear();
+        availableCheckers.clear();
+    }
+
+    /**
+     * A checker working on a copy of a CDRModel.
+     * Constraints and test cases are mapped to the ones of the copy.
+     */
+    private static class CopyChecker extends ChocoConsistencyChecker {
+
+        private final Map<Constraint, Constraint> constraints = new HashMap<>(); // constraint -> the same constraint of the copy
+        private final Map<String, TestCase> testcases = new HashMap<>(); // test case -> the same test case of the copy
+
+        CopyChecker(CDRModel copy) {
+            super(copy);
+
+            for (Constraint c : copy.getAllConstraints()) {
+                constraints.put(c, c);
+            }
+        }
+
+        @Override
+        protected Constraint internal(Constraint c) {
+            Constraint internal = constraints.get(c);
+            checkArgument(internal != null, "The constraint %s isn't a constraint of the model", c);
+            return internal;
+        }
+
+        @Override
+        protected TestCase internal(ITestCase testcase) {
+            return testcases.computeIfAbsent(testcase.toString(), k -> {
+                ITestCase tc = ((IDebuggingModel) cdrModel).getTestCase(k);
+                checkArgument(tc instanceof TestCase, "The test case %s isn't a TestCase of the model", k);
+                return (TestCase) tc;
+            });
+        }
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker;
+
+/**
+ * Types of consistency checkers, which can be created by {@link ConsistencyCheckerFactory}.
+ */
+public enum CheckerType {
+    /**
+     * {@link ChocoConsistencyChecker}, which posts and unposts constraints for each check.
+     */
+    CHOCO,
+    /**
+     * {@link ChocoAssumptionConsistencyChecker}, which reifies each constraint once.
+     */
+    CHOCO_ASSUMPTION,
+    /**
+     * {@link FMSatConsistencyChecker}, which compiles the constraints of a feature model into clauses once.
+     */
+    SAT,
+    /**
+     * {@link FMBddConsistencyChecker}, which compiles the constraints of a feature model into a BDD once.
+     */
+    BDD,
+    /**
+     * {@link PortfolioConsistencyChecker}, which runs each check with differently configured searches in parallel.
+     */
+    PORTFOLIO
+}
@@ -0,0 +1,24 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker;
+
+/**
+ * Strategies of {@link ChocoConsistencyChecker} to decide the consistency of the posted constraints.
+ */
+public enum CheckingStrategy {
+    /**
+     * Always searches for a solution.
+     */
+    SEARCH,
+    /**
+     * Runs the root propagation first, and only searches for a solution
+     * if the propagation cannot decide the consistency.
+     */
+    PROPAGATION_FIRST
+}
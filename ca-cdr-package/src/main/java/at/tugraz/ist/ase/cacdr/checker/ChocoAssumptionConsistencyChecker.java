@@ -0,0 +1,394 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker;
+
+import at.tugraz.ist.ase.cdrmodel.CDRModel;
+import at.tugraz.ist.ase.cdrmodel.IChocoModel;
+import at.tugraz.ist.ase.cdrmodel.IDebuggingModel;
+import at.tugraz.ist.ase.common.LoggerUtils;
+import at.tugraz.ist.ase.kb.core.Constraint;
+import at.tugraz.ist.ase.test.ITestCase;
+import at.tugraz.ist.ase.test.TestCase;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.chocosolver.solver.Cause;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.constraints.ReificationConstraint;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.BoolVar;
+
+import java.util.*;
+
+import static at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker.TIMER_SOLVER;
+import static at.tugraz.ist.ase.cacdr.eval.CAEvaluator.*;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * A consistency checker using the Choco solver, which never posts/unposts constraints while checking.
+ *
+ * Each {@link Constraint} (as well as each negated constraint, test case, and negated test case)
+ * is reified once with a dedicated selector s, i.e., s -> constraint. A check then fixes
+ * the selectors of the requested constraints to true, and the others to false, inside
+ * a worldPush/worldPop of the environment. The model is compiled once and reused by all checks.
+ *
+ * The checker works on a clone of the given {@link CDRModel}, since reified Choco constraints
+ * cannot be posted to the model anymore. Constraints and test cases of the given model are
+ * mapped to the ones of the clone by their textual representation.
+ *
+ * Since each constraint has its own selector, the unsat core of an inconsistent check is taken over
+ * the selectors refuted by the propagation (see {@link #getUnsatCore()}).
+ */
+@Slf4j
+public class ChocoAssumptionConsistencyChecker implements IConsistencyChecker, IUnsatCoreExtractable {
+
+    /**
+     * The internal model, i.e., the model of the clone
+     */
+    protected Model model;
+    protected CDRModel cdrModel;
+
+    private final Map<Constraint, Constraint> constraints = new HashMap<>(); // constraint -> the same constraint of the clone
+    private final Map<Constraint, BoolVar> selectors = new HashMap<>();
+    private final Map<BoolVar, Constraint> constraintsOfSelectors = new HashMap<>();
+    private final Map<Constraint, BoolVar> negSelectors = new HashMap<>();
+    private final Map<String, BoolVar> testcaseSelectors = new HashMap<>();
+    private final Map<String, BoolVar> negTestcaseSelectors = new HashMap<>();
+    private final List<BoolVar> allSelectors = new ArrayList<>();
+
+    private List<BoolVar> lastAssumptions = null; // the assumptions of the last check, null if not inconsistent
+
+    /**
+     * How an UNKNOWN result, i.e., a check failed by an error, is answered by the isConsistent functions.
+     */
+    @Getter @Setter
+    private UnknownPolicy unknownPolicy = UnknownPolicy.INCONSISTENT;
+
+    /**
+     * The result of the last check
+     */
+    @Getter
+    private ConsistencyResult lastResult = null;
+
+    /**
+     * Constructor
+     *
+     * Clones the given CDRModel, and reifies all constraints of the clone.
+     * Negated constraints and test cases are reified at their first use.
+     */
+    public ChocoAssumptionConsistencyChecker(@NonNull CDRModel diagModel) throws CloneNotSupportedException {
+        this.cdrModel = (CDRModel) diagModel.clone();
+        model = ((IChocoModel) cdrModel).getModel();
+
+        for (Constraint c : cdrModel.getAllConstraints()) {
+            constraints.put(c, c);
+            selectorOf(c);
+        }
+
+        log.debug("{}Created ChocoAssumptionConsistencyChecker for {}", LoggerUtils.tab, diagModel);
+    }
+
+    /**
+     * Checks the consistency of a set of constraints.
+     * @param C       set of {@link Constraint}s
+     * @return true if the given set of constraints are consistent, and false otherwise.
+     */
+    @Override
+    public boolean isConsistent(@NonNull Collection<Constraint> C) {
+        checkArgument(!C.isEmpty(), "Cannot check the consistency with an empty set of constraints");
+
+        log.debug("{}Checking consistency for [C={}] >>>", LoggerUtils.tab, C);
+        LoggerUtils.indent();
+
+        return check(selectorsOf(C));
+    }
+
+    /**
+     * Checks the consistency of a set of constraints with a test case.
+     * @param C       set of {@link Constraint}s
+     * @param testcase a {@link ITestCase}
+     * @return true if the given test case isn't violated to the set of constraints, and false otherwise.
+     */
+    @Override
+    public boolean isConsistent(@NonNull Collection<Constraint> C, @NonNull ITestCase testcase) {
+        checkState(cdrModel instanceof IDebuggingModel, "Cannot check the consistency with a test case if the model is not debugging model");
+        checkArgument(!C.isEmpty(), "Cannot check the consistency with an empty set of constraints");
+
+        log.debug("{}Checking consistency for [C={}, testcase={}] >>>", LoggerUtils.tab, C, testcase);
+        LoggerUtils.indent();
+
+        List<BoolVar> assumptions = selectorsOf(C);
+        assumptions.add(testcaseSelectorOf(testcase, false));
+
+        return check(assumptions);
+    }
+
+    /**
+     * consistent(tα ∧ ¬tγ)
+     *
+     * Checks the consistency between two test cases (tα ∧ ¬tγ) to identify a redundant test case.
+     * If the output is false (inconsistent), then tγ is a redundant test case.
+     *
+     * @param testcase a {@link ITestCase}
+     * @param neg_testcase a {@link ITestCase}
+     * @return true if the given test cases are not contradict, and false otherwise.
+     */
+    public boolean isConsistent(@NonNull ITestCase testcase, @NonNull ITestCase neg_testcase) {
+        checkState(cdrModel instanceof IDebuggingModel, "Cannot check the consistency with a test case if the model is not debugging model");
+
+        log.debug("{}Checking consistency for [testcase={}, neg_testcase={}] >>>", LoggerUtils.tab, testcase, neg_testcase);
+        LoggerUtils.indent();
+
+        List<BoolVar> assumptions = new ArrayList<>();
+        assumptions.add(testcaseSelectorOf(testcase, false));
+        assumptions.add(testcaseSelectorOf(neg_testcase, true));
+
+        return check(assumptions);
+    }
+
+    /**
+     * consistent(C - {cstr} ∪ {¬cstr})
+     *
+     * Checks the consistency of (C - {cstr} ∪ {¬cstr}) to identify the redundant constraints.
+     * If the output is false (inconsistent), then cstr is a redundant constraint.
+     *
+     * @param C set of {@link Constraint}s
+     * @param cstr a {@link Constraint}
+     * @return true if the given test cases are not contradict, and false otherwise.
+     */
+    public boolean isConsistent(@NonNull Collection<Constraint> C, @NonNull Constraint cstr) {
+        checkArgument(!C.isEmpty(), "Cannot check the consistency with an empty set of constraints");
+
+        log.debug("{}Checking consistency for [C={}, cstr={}] >>>", LoggerUtils.tab, C, cstr);
+        LoggerUtils.indent();
+
+        List<Constraint> CF = new LinkedList<>(C);
+        // C - {cstr}
+        CF.remove(cstr);
+
+        List<BoolVar> assumptions = selectorsOf(CF);
+        // ∪ {¬cstr}
+        assumptions.add(negSelectors.computeIfAbsent(internal(cstr), c -> reify(c.getNegChocoConstraints())));
+
+        return check(assumptions);
+    }
+
+    /**
+     * Nothing to reset, since checks don't change the model.
+     */
+    @Override
+    public void reset() {
+        model.getSolver().reset();
+
+        log.trace("{}Reset model", LoggerUtils.tab);
+    }
+
+    @Override
+    public void dispose() {
+        this.model = null;
+        this.cdrModel = null;
+        constraints.clear();
+        selectors.clear();
+        constraintsOfSelectors.clear();
+        negSelectors.clear();
+        testcaseSelectors.clear();
+        negTestcaseSelectors.clear();
+        allSelectors.clear();
+        lastAssumptions = null;
+    }
+
+    /**
+     * Runs the solver with the selectors of the given assumptions set to true,
+     * and the other selectors set to false.
+     * An error during the check results in {@link ConsistencyResult#UNKNOWN}, which is answered
+     * according to the {@link UnknownPolicy}.
+     * @param assumptions selectors of the considering constraints
+     * @return true if the model is consistent under the given assumptions, and false otherwise.
+     * @throws UnknownConsistencyException if the check fails and the policy is ABORT
+     */
+    protected boolean check(Collection<BoolVar> assumptions) {
+        try {
+            incrementCounter(COUNTER_CHOCO_SOLVER_CALLS);
+            log.trace("{}Checking...", LoggerUtils.tab);
+            incrementCounter(COUNTER_SIZE_CONSISTENCY_CHECKS, assumptions.size());
+
+            Set<BoolVar> on = new HashSet<>(assumptions);
+            boolean isFeasible;
+
+            model.getEnvironment().worldPush();
+            try {
+                for (BoolVar selector : allSelectors) {
+                    if (on.contains(selector)) {
+                        selector.setToTrue(Cause.Null);
+                    } else {
+                        selector.setToFalse(Cause.Null);
+                    }
+                }
+
+                start(TIMER_SOLVER);
+                try {
+                    isFeasible = model.getSolver().solve();
+                } finally {
+                    stop(TIMER_SOLVER);
+                }
+            } catch (ContradictionException ex) {
+                isFeasible = false;
+            } finally {
+                // the solver is reset to the world of the assumptions, which is then popped
+                model.getSolver().reset();
+                model.getEnvironment().worldPop();
+            }
+
+            if (isFeasible) {
+                incrementCounter(COUNTER_FEASIBLE);
+            } else {
+                incrementCounter(COUNTER_INFEASIBLE);
+            }
+            lastResult = ConsistencyResult.of(isFeasible);
+            lastAssumptions = isFeasible ? null : new ArrayList<>(assumptions);
+
+            LoggerUtils.outdent();
+            log.debug("{}<<< Checked [consistency={}]", LoggerUtils.tab, isFeasible);
+
+            return isFeasible;
+        } catch (Exception e) {
+            log.error("{}Error occurred while checking consistency: {}", LoggerUtils.tab, e.getMessage());
+            LoggerUtils.outdent();
+            incrementCounter(COUNTER_UNKNOWN);
+            lastResult = ConsistencyResult.UNKNOWN;
+            lastAssumptions = null;
+
+            // an error doesn't mean that the model is inconsistent
+            return switch (unknownPolicy) {
+                case CONSISTENT -> true;
+                case INCONSISTENT -> false;
+                case ABORT -> throw new UnknownConsistencyException("The consistency check failed with an error");
+            };
+        }
+    }
+
+    /**
+     * Replays the assumptions of the last check with a propagation after each selector set to true,
+     * the selectors of test cases and negated constraints first. The constraints whose selectors are set
+     * until the propagation refutes a selector form the core. If the propagation refutes no selector,
+     * i.e., the search was needed to prove the inconsistency, the core is all checked constraints.
+     * Selectors of test cases and negated constraints are ignored, since they aren't constraints.
+     * @return an unsat core, or null if the last check wasn't inconsistent
+     */
+    @Override
+    public Set<Constraint> getUnsatCore() {
+        if (lastAssumptions == null) {
+            return null;
+        }
+
+        start(TIMER_UNSAT_CORE);
+        List<BoolVar> order = new ArrayList<>(lastAssumptions.size());
+        lastAssumptions.stream().filter(s -> !constraintsOfSelectors.containsKey(s)).forEach(order::add);
+        lastAssumptions.stream().filter(constraintsOfSelectors::containsKey).forEach(order::add);
+        Set<BoolVar> on = new HashSet<>(lastAssumptions);
+
+        Set<Constraint> core = new LinkedHashSet<>();
+        model.getEnvironment().worldPush();
+        try {
+            for (BoolVar selector : allSelectors) {
+                if (!on.contains(selector)) {
+                    selector.setToFalse(Cause.Null);
+                }
+            }
+            model.getSolver().propagate();
+
+            for (BoolVar selector : order) {
+                Constraint c = constraintsOfSelectors.get(selector);
+                if (c != null) {
+                    core.add(c);
+                }
+                selector.setToTrue(Cause.Null);
+                model.getSolver().propagate();
+            }
+        } catch (ContradictionException ex) {
+            model.getSolver().getEngine().flush();
+        } finally {
+            model.getEnvironment().worldPop();
+            // the engine stays initialized with the propagators of the popped world
+            model.getSolver().getEngine().reset();
+        }
+        stop(TIMER_UNSAT_CORE);
+
+        incrementCounter(COUNTER_UNSAT_CORES);
+        incrementCounter(COUNTER_SIZE_UNSAT_CORES, core.size());
+        log.debug("{}Extracted unsat core [core={}]", LoggerUtils.tab, core);
+
+        return core;
+    }
+
+    private List<BoolVar> selectorsOf(Collection<Constraint> C) {
+        List<BoolVar> assumptions = new ArrayList<>(C.size() + 2);
+        for (Constraint c : C) {
+            assumptions.add(selectorOf(internal(c)));
+        }
+        return assumptions;
+    }
+
+    private BoolVar selectorOf(Constraint c) {
+        return selectors.computeIfAbsent(c, k -> {
+            BoolVar selector = reify(k.getChocoConstraints());
+            constraintsOfSelectors.put(selector, k);
+            return selector;
+        });
+    }
+
+    private BoolVar testcaseSelectorOf(ITestCase testcase, boolean negative) {
+        Map<String, BoolVar> map = negative ? negTestcaseSelectors : testcaseSelectors;
+        return map.computeIfAbsent(testcase.toString(), k -> {
+            ITestCase tc = ((IDebuggingModel) cdrModel).getTestCase(k);
+            checkArgument(tc instanceof TestCase, "The test case %s isn't a TestCase of the model", k);
+
+            TestCase internalTC = (TestCase) tc;
+            return reify(negative ? internalTC.getNegChocoConstraints() : internalTC.getChocoConstraints());
+        });
+    }
+
+    /**
+     * @return the constraint of the clone which corresponds to the given constraint
+     */
+    private Constraint internal(Constraint c) {
+        Constraint internal = constraints.get(c);
+        checkArgument(internal != null, "The constraint %s isn't a constraint of the model", c);
+        return internal;
+    }
+
+    /**
+     * Creates a selector s, and posts s -> r for the reification r of each given Choco constraint.
+     *
+     * Choco doesn't support nested reifications, so a {@link ReificationConstraint} (b <-> c)
+     * is posted permanently instead. It only defines its boolean variable b, hence it never
+     * restricts the other variables.
+     * @return the selector
+     */
+    private BoolVar reify(List<org.chocosolver.solver.constraints.Constraint> cstrs) {
+        checkArgument(cstrs != null, "Cannot reify a missing list of Choco constraints");
+
+        BoolVar selector = model.boolVar("selector_" + allSelectors.size());
+        for (org.chocosolver.solver.constraints.Constraint c : cstrs) {
+            if (c instanceof ReificationConstraint) {
+                if (c.getStatus() == org.chocosolver.solver.constraints.Constraint.Status.FREE) {
+                    model.post(c);
+                }
+            } else {
+                model.arithm(selector, "<=", c.reify()).post();
+            }
+        }
+        allSelectors.add(selector);
+
+        log.trace("{}Reified constraints [cstrs={}, selector={}]", LoggerUtils.tab, cstrs, selector);
+        return selector;
+    }
+}
@@ -8,6 +8,8 @@
 
 package at.tugraz.ist.ase.cacdr.checker;
 
+import at.tugraz.ist.ase.cacdr.checker.trace.CheckTrace;
+import at.tugraz.ist.ase.cacdr.checker.trace.CheckTraceRecorder;
 import at.tugraz.ist.ase.cdrmodel.CDRModel;
 import at.tugraz.ist.ase.cdrmodel.IChocoModel;
 import at.tugraz.ist.ase.cdrmodel.IDebuggingModel;
@@ -15,11 +17,30 @@ import at.tugraz.ist.ase.common.LoggerUtils;
 import at.tugraz.ist.ase.test.ITestCase;
 import at.tugraz.ist.ase.test.TestCase;
 import at.tugraz.ist.ase.kb.core.Constraint;
+import lombok.Getter;
 import lombok.NonNull;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import org.chocosolver.solver.Cause;
 import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solution;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.loop.monitors.IMonitorInitialize;
+import org.chocosolver.solver.search.strategy.Search;
+import org.chocosolver.solver.search.strategy.selectors.values.IntDomainLast;
+import org.chocosolver.solver.search.strategy.selectors.values.IntDomainMin;
+import org.chocosolver.solver.search.strategy.selectors.variables.DomOverWDeg;
+import org.chocosolver.solver.search.strategy.strategy.AbstractStrategy;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.criteria.Criterion;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 import static at.tugraz.ist.ase.cacdr.eval.CAEvaluator.*;
 import static at.tugraz.ist.ase.common.ConstraintUtils.*;
@@ -32,6 +53,7 @@ import static com.google.common.base.Preconditions.checkState;
 @Slf4j
 public class ChocoConsistencyChecker implements IConsistencyChecker {
     public static final String TIMER_SOLVER = "Timer for solver:";
+    public static final String TIMER_PROPAGATION = "Timer for propagation:";
 
     /**
      * An internal models
@@ -39,6 +61,137 @@ public class ChocoConsistencyChecker implements IConsistencyChecker {
     protected Model model;
     protected CDRModel cdrModel;
 
+    /**
+     * An optional cache of check results. Null (by default) means that the cache is disabled.
+     */
+    @Getter @Setter
+    private IConsistencyCache cache = null;
+
+    @Getter @Setter
+    private CheckingStrategy strategy = CheckingStrategy.SEARCH;
+
+    /**
+     * Limits of each search, 0 (by default) means no limit.
+     * A search stopped by a limit results in {@link ConsistencyResult#UNKNOWN}.
+     */
+    @Getter @Setter
+    private long timeLimit = 0; // in milliseconds
+    @Getter @Setter
+    private long failLimit = 0;
+    @Getter @Setter
+    private long nodeLimit = 0;
+
+    /**
+     * An additional criterion stopping each search, e.g., when another checker has already decided the check.
+     * A search stopped by it results in {@link ConsistencyResult#UNKNOWN}. Null (by default) means no criterion.
+     */
+    @Getter @Setter
+    private Criterion stopCriterion = null;
+
+    /**
+     * The search strategy and the restarts of the solver.
+     */
+    @Getter
+    private SearchConfiguration searchConfiguration = SearchConfiguration.DEFAULT;
+    private long seed = 0;
+
+    /**
+     * In the warm start mode, the search tries the values of the last found solution first (phase saving),
+     * and branches on the variables of the last conflicts first. Consecutive checks of the algorithms
+     * differ by a few constraints, hence a consistent check often finds a solution with (almost) no backtracking.
+     * The warm start replaces the search strategy of the search configuration, and keeps its restarts.
+     */
+    @Getter
+    private boolean warmStart = false;
+    private Solution lastSolution = null; // the last solution found by the search, in the warm start mode
+
+    /**
+     * How an UNKNOWN result is answered by the isConsistent functions.
+     */
+    @Getter @Setter
+    private UnknownPolicy unknownPolicy = UnknownPolicy.INCONSISTENT;
+
+    /**
+     * An optional pool of checkers, which checks the test cases of
+     * {@link #isConsistent(Collection, Collection, boolean)} in parallel.
+     * Null (by default) means that test cases are checked one by one by this checker.
+     * The checkers of the pool check as this checker would, see {@link #asThisChecker(Function)}.
+     */
+    @Getter @Setter
+    private CheckerPool pool = null;
+
+    /**
+     * An optional recorder of all checks received by this checker, see {@link CheckTrace}.
+     * Null (by default) means that checks aren't recorded.
+     */
+    @Getter @Setter
+    private CheckTraceRecorder recorder = null;
+
+    /**
+     * Listeners receiving the measures of each check, see {@link CheckEvent}.
+     * Nothing is measured while no listener is registered.
+     */
+    private final List<ICheckListener> listeners = new ArrayList<>();
+    private final RootPropagationTimer rootPropagationTimer = new RootPropagationTimer();
+    private CheckEvent.CheckEventBuilder event = null; // the measures of the current check, null if there's no listener
+    private long propagationTime = 0; // the propagation time of the current check, in nanoseconds
+
+    /**
+     * The result of the last check
+     */
+    @Getter
+    private ConsistencyResult lastResult = null;
+
+    /**
+     * A pool of the most recently found solutions, the most recent first.
+     * A check is consistent without calling the solver if one of them satisfies all posted constraints.
+     * The pool size 0 (by default) means that solutions aren't kept.
+     */
+    @Getter
+    private int solutionPoolSize = 0;
+    private final Deque<Solution> solutions = new ArrayDeque<>();
+
+    /**
+     * In the incremental mode, constraints are kept posted after a check,
+     * and the next check only posts/unposts the difference.
+     */
+    @Getter
+    private boolean incremental = false;
+    private final Set<org.chocosolver.solver.constraints.Constraint> postedConstraints = new LinkedHashSet<>();
+
+    /**
+     * Background constraints which stay posted in the model, see {@link #pinBackground(Collection)}.
+     * Choco constraints of the background entailed by its root propagation aren't kept posted.
+     */
+    @Getter
+    private Set<Constraint> background = Collections.emptySet();
+    private final Set<org.chocosolver.solver.constraints.Constraint> backgroundConstraints = new HashSet<>();
+    private boolean backgroundConsistent = true;
+
+    /**
+     * If true, the checks learn the values of the background variables which no solution of the background has,
+     * see {@link #learnBackground(Set)}. The learned values depend only on the background, hence they are kept
+     * in the root domains for all following checks, and are removed again when the same background is re-pinned.
+     * The mode applies to the next pinned background.
+     */
+    @Getter @Setter
+    private boolean backgroundSingletonPruning = false;
+
+    /**
+     * The maximal number of singleton probes, i.e., propagations of one value of a variable,
+     * when learning the values refuted by a background. Variables whose domains are larger
+     * than the remaining probes aren't probed.
+     */
+    @Getter
+    private int singletonProbeLimit = 10000;
+
+    // what the checks learned about the last pinned background, kept while it's unpinned
+    private Set<Constraint> learnedBackground = Collections.emptySet();
+    private final Map<IntVar, List<Integer>> learnedValues = new LinkedHashMap<>(); // variable -> values refuted by the background
+    private final Set<IntVar> unprobedVars = new HashSet<>(); // variables of the background which aren't probed yet
+    private int numProbes = 0; // singleton probes of the learned background
+    private boolean searched = false; // whether the solver has searched since its last reset
+
     /**
      * Constructor
      *
@@ -63,11 +216,25 @@ public class ChocoConsistencyChecker implements IConsistencyChecker {
         log.debug("{}Checking consistency for [C={}] >>>", LoggerUtils.tab, C);
         LoggerUtils.indent();
 
-        // post constraints of the parameter C
-        postConstraints(C, model);
+        event = listeners.isEmpty() ? null : newEvent(CheckTrace.Kind.CONSTRAINTS, C.size());
+        long startTime = event != null || recorder != null ? System.nanoTime() : 0;
+        CheckKey key = cache != null ? CheckKey.of(C) : null;
+        Boolean consistent = getCachedResult(key);
+        if (consistent == null) {
+            // post constraints of the parameter C
+            post(chocoConstraintsOf(C));
+
+            // Call solve()
+            consistent = decide(key, check());
+        }
 
-        // Call solve()
-        return check();
+        if (recorder != null) {
+            recorder.record(C, lastResult, System.nanoTime() - startTime);
+        }
+        if (event != null) {
+            fireCheck(System.nanoTime() - startTime);
+        }
+        return consistent;
     }
 
     /**
@@ -84,14 +251,27 @@ public class ChocoConsistencyChecker implements IConsistencyChecker {
         log.debug("{}Checking consistency for [C={}, testcase={}] >>>", LoggerUtils.tab, C, testcase);
         LoggerUtils.indent();
 
-        // post constraints of the parameter C
-        postConstraints(C, model);
+        event = listeners.isEmpty() ? null : newEvent(CheckTrace.Kind.CONSTRAINTS_TESTCASE, C.size());
+        long startTime = event != null || recorder != null ? System.nanoTime() : 0;
+        CheckKey key = cache != null ? CheckKey.of(C, testcase) : null;
+        Boolean consistent = getCachedResult(key);
+        if (consistent == null) {
+            // post constraints of the parameter C and test case's constraints
+            List<org.chocosolver.solver.constraints.Constraint> cstrs = chocoConstraintsOf(C);
+            cstrs.addAll(internal(testcase).getChocoConstraints());
+            post(cstrs);
 
-        // post test case's constraints
-        postTestCase((TestCase) testcase, false);
+            // Call solve()
+            consistent = decide(key, check());
+        }
 
-        // Call solve()
-        return check();
+        if (recorder != null) {
+            recorder.record(C, testcase, lastResult, System.nanoTime() - startTime);
+        }
+        if (event != null) {
+            fireCheck(System.nanoTime() - startTime);
+        }
+        return consistent;
     }
 
     /**
@@ -114,14 +294,27 @@ public class ChocoConsistencyChecker implements IConsistencyChecker {
         log.debug("{}Checking consistency for [testcase={}, neg_testcase={}] >>>", LoggerUtils.tab, testcase, neg_testcase);
         LoggerUtils.indent();
 
-        // post test case's constraints
-        postTestCase((TestCase) testcase, false);
+        event = listeners.isEmpty() ? null : newEvent(CheckTrace.Kind.TESTCASE_NEG_TESTCASE, 0);
+        long startTime = event != null || recorder != null ? System.nanoTime() : 0;
+        CheckKey key = cache != null ? CheckKey.of(testcase, neg_testcase) : null;
+        Boolean consistent = getCachedResult(key);
+        if (consistent == null) {
+            // post test case's constraints and neg test case's constraints
+            List<org.chocosolver.solver.constraints.Constraint> cstrs = new ArrayList<>(internal(testcase).getChocoConstraints());
+            cstrs.addAll(internal(neg_testcase).getNegChocoConstraints());
+            post(cstrs);
 
-        // post neg test case's constraints
-        postTestCase((TestCase) neg_testcase, true);
+            // Call solve()
+            consistent = decide(key, check());
+        }
 
-        // Call solve()
-        return check();
+        if (recorder != null) {
+            recorder.record(testcase, neg_testcase, lastResult, System.nanoTime() - startTime);
+        }
+        if (event != null) {
+            fireCheck(System.nanoTime() - startTime);
+        }
+        return consistent;
     }
 
     /**
@@ -132,6 +325,9 @@ public class ChocoConsistencyChecker implements IConsistencyChecker {
      *
      * Used by WipeOutR_FM algorithm.
      *
+     * If cstr belongs to the pinned background, the background is unpinned during the check,
+     * since its root propagation has already applied cstr. The cache is kept.
+     *
      * @param C set of {@link Constraint}s
      * @param cstr a {@link Constraint}
      * @return true if the given test cases are not contradict, and false otherwise.
@@ -142,18 +338,41 @@ public class ChocoConsistencyChecker implements IConsistencyChecker {
         log.debug("{}Checking consistency for [C={}, cstr={}] >>>", LoggerUtils.tab, C, cstr);
         LoggerUtils.indent();
 
-        List<Constraint> CF = new LinkedList<>(C);
-        // C - {cstr}
-        CF.remove(cstr);
+        event = listeners.isEmpty() ? null : newEvent(CheckTrace.Kind.CONSTRAINTS_NEG_CONSTRAINT, C.size());
+        long startTime = event != null || recorder != null ? System.nanoTime() : 0;
+        CheckKey key = cache != null ? CheckKey.ofNegated(C, cstr) : null;
+        Boolean consistent = getCachedResult(key);
+        if (consistent == null) {
+            Set<Constraint> pinned = background;
+            if (pinned.contains(cstr)) {
+                unpin();
+            }
+            try {
+                List<Constraint> CF = new LinkedList<>(C);
+                // C - {cstr}
+                CF.remove(cstr);
 
-        // post constraints of the parameter C
-        postConstraints(CF, model);
+                // post constraints of the parameter C ∪ {¬cstr}
+                List<org.chocosolver.solver.constraints.Constraint> cstrs = chocoConstraintsOf(CF);
+                cstrs.addAll(internal(cstr).getNegChocoConstraints());
+                post(cstrs);
 
-        // ∪ {¬cstr}
-        postConstraint(cstr, model, true);
+                // Call solve()
+                consistent = decide(key, check());
+            } finally {
+                if (pinned.contains(cstr)) {
+                    pin(pinned);
+                }
+            }
+        }
 
-        // Call solve()
-        return check();
+        if (recorder != null) {
+            recorder.record(C, cstr, lastResult, System.nanoTime() - startTime);
+        }
+        if (event != null) {
+            fireCheck(System.nanoTime() - startTime);
+        }
+        return consistent;
     }
 
     /**
@@ -212,6 +431,15 @@ public class ChocoConsistencyChecker implements IConsistencyChecker {
         log.debug("{}Checking consistency [C={}, TC={}] >>>", LoggerUtils.tab, C, TC);
         LoggerUtils.indent();
 
+        if (pool != null && TC.size() > 1) {
+            Set<ITestCase> TCp = isConsistentInParallel(C, new ArrayList<>(TC), onlyOne);
+
+            LoggerUtils.outdent();
+            log.debug("{}Checked in parallel [TCp={}]", LoggerUtils.tab, TCp);
+
+            return TCp;
+        }
+
         Set<ITestCase> TCp = new LinkedHashSet<>();
         for (ITestCase tc: TC) {
             if (!isConsistent(C, tc)) {
@@ -229,90 +457,933 @@ public class ChocoConsistencyChecker implements IConsistencyChecker {
         return TCp;
     }
 
+    /**
+     * Spreads the test cases over the checkers of the pool. The k-th of n workers checks
+     * the test cases k, k + n, k + 2n..., so that all workers start with the first test cases.
+     * With onlyOne, a worker stops as soon as a test case before its next one is known to be violated,
+     * which keeps the result the same as checking the test cases one by one.
+     * @return violated test cases, in the order of the given test cases
+     */
+    private Set<ITestCase> isConsistentInParallel(Collection<Constraint> C, List<ITestCase> TC, boolean onlyOne) {
+        boolean[] violated = new boolean[TC.size()];
+        AtomicInteger firstViolation = new AtomicInteger(TC.size());
+        int numWorkers = Math.min(pool.size(), TC.size());
+
+        List<Function<ChocoConsistencyChecker, Void>> workers = new ArrayList<>(numWorkers);
+        for (int k = 0; k < numWorkers; k++) {
+            int first = k;
+            workers.add(asThisChecker(checker -> {
+                for (int i = first; i < TC.size(); i += numWorkers) {
+                    if (onlyOne && i > firstViolation.get()) {
+                        break;
+                    }
+                    if (!checker.isConsistent(C, TC.get(i))) {
+                        violated[i] = true;
+                        firstViolation.accumulateAndGet(i, Math::min);
+                    }
+                }
+                return null;
+            }));
+        }
+        pool.invokeAll(workers);
+
+        Set<ITestCase> TCp = new LinkedHashSet<>();
+        for (int i = 0; i < TC.size(); i++) {
+            if (violated[i]) {
+                TCp.add(TC.get(i));
+
+                if (onlyOne) {
+                    break;
+                }
+            }
+        }
+        return TCp;
+    }
+
+    /**
+     * Wraps a task of the {@link #pool}, so that its checker checks as this checker would.
+     * During the task, the checker gets the limits, the stop criterion, the UNKNOWN policy,
+     * and the pinned background of this checker, and its checks go to the cache, the recorder,
+     * and the listeners of this checker. The listeners are called by one thread at a time.
+     * The settings and the background of the checker are restored after the task.
+     */
+    private <T> Function<ChocoConsistencyChecker, T> asThisChecker(Function<ChocoConsistencyChecker, T> task) {
+        return checker -> {
+            Set<Constraint> ownBackground = checker.background;
+            boolean ownSingletonPruning = checker.backgroundSingletonPruning;
+            int ownSingletonProbeLimit = checker.singletonProbeLimit;
+            long ownTimeLimit = checker.timeLimit, ownFailLimit = checker.failLimit, ownNodeLimit = checker.nodeLimit;
+            Criterion ownStopCriterion = checker.stopCriterion;
+            UnknownPolicy ownUnknownPolicy = checker.unknownPolicy;
+            IConsistencyCache ownCache = checker.cache;
+            CheckTraceRecorder ownRecorder = checker.recorder;
+            ICheckListener forward = listeners.isEmpty() ? null : e -> {
+                synchronized (listeners) {
+                    listeners.forEach(l -> l.onCheck(e));
+                }
+            };
+
+            // the background first, since pinning clears the cache of the checker
+            if (!checker.background.equals(background) || checker.backgroundSingletonPruning != backgroundSingletonPruning
+                    || checker.singletonProbeLimit != singletonProbeLimit) {
+                checker.backgroundSingletonPruning = backgroundSingletonPruning;
+                checker.singletonProbeLimit = singletonProbeLimit;
+                checker.pinBackground(background);
+            }
+            checker.timeLimit = timeLimit;
+            checker.failLimit = failLimit;
+            checker.nodeLimit = nodeLimit;
+            checker.stopCriterion = stopCriterion;
+            checker.unknownPolicy = unknownPolicy;
+            checker.cache = cache;
+            checker.recorder = recorder;
+            if (forward != null) {
+                checker.addCheckListener(forward);
+            }
+
+            try {
+                return task.apply(checker);
+            } finally {
+                if (forward != null) {
+                    checker.removeCheckListener(forward);
+                }
+                checker.timeLimit = ownTimeLimit;
+                checker.failLimit = ownFailLimit;
+                checker.nodeLimit = ownNodeLimit;
+                checker.stopCriterion = ownStopCriterion;
+                checker.unknownPolicy = ownUnknownPolicy;
+                checker.cache = ownCache;
+                checker.recorder = ownRecorder;
+                if (!checker.background.equals(ownBackground) || checker.backgroundSingletonPruning != ownSingletonPruning
+                        || checker.singletonProbeLimit != ownSingletonProbeLimit) {
+                    checker.backgroundSingletonPruning = ownSingletonPruning;
+                    checker.singletonProbeLimit = ownSingletonProbeLimit;
+                    checker.pinBackground(ownBackground);
+                }
+            }
+        };
+    }
+
+    /**
+     * Checks several sets of constraints in the incremental mode, so that a set only posts/unposts
+     * its difference to the previous set. With a {@link #pool}, the sets are spread over the checkers
+     * of the pool as in {@link #isConsistent(Collection, Collection, boolean)}, and each checker works
+     * through its sets incrementally with the settings of this checker.
+     * @return the consistent sets and the number of checked sets, see {@link CheckAllMode}
+     */
+    @Override
+    public CheckAllResult checkAll(@NonNull List<? extends Collection<Constraint>> sets, @NonNull CheckAllMode mode) {
+        log.debug("{}Checking consistency of sets [sets={}, mode={}] >>>", LoggerUtils.tab, sets.size(), mode);
+        LoggerUtils.indent();
+
+        boolean[] consistent = new boolean[sets.size()];
+        AtomicInteger stop = new AtomicInteger(sets.size()); // the first set at which the checks can stop
+        if (pool != null && sets.size() > 1) {
+            int numWorkers = Math.min(pool.size(), sets.size());
+
+            List<Function<ChocoConsistencyChecker, Void>> workers = new ArrayList<>(numWorkers);
+            for (int k = 0; k < numWorkers; k++) {
+                int first = k;
+                workers.add(asThisChecker(checker -> {
+                    checker.checkIncrementally(sets, first, numWorkers, mode, consistent, stop);
+                    return null;
+                }));
+            }
+            pool.invokeAll(workers);
+        } else {
+            checkIncrementally(sets, 0, 1, mode, consistent, stop);
+        }
+
+        // sets after the stop aren't answered, even if they were checked in parallel
+        int numOfChecked = Math.min(stop.get() + 1, sets.size());
+        BitSet result = new BitSet(sets.size());
+        for (int i = 0; i < numOfChecked; i++) {
+            result.set(i, consistent[i]);
+        }
+
+        LoggerUtils.outdent();
+        log.debug("{}<<< Checked sets [consistent={}, checked={}]", LoggerUtils.tab, result, numOfChecked);
+
+        return new CheckAllResult(result, numOfChecked);
+    }
+
+    /**
+     * Checks the sets first, first + step, first + 2 * step... in the incremental mode,
+     * until a set after the known stop is reached.
+     */
+    private void checkIncrementally(List<? extends Collection<Constraint>> sets, int first, int step, CheckAllMode mode,
+                                    boolean[] consistent, AtomicInteger stop) {
+        boolean wasIncremental = incremental;
+        incremental = true;
+        try {
+            for (int i = first; i < sets.size() && i <= stop.get(); i += step) {
+                consistent[i] = isConsistent(sets.get(i));
+
+                if (mode.stopsAt(consistent[i])) {
+                    stop.accumulateAndGet(i, Math::min);
+                }
+            }
+        } finally {
+            setIncremental(wasIncremental);
+        }
+    }
+
     /**
      * Resets the model to the original status
      * Restores constraints which are removed in the {@func isConsistent} function.
      */
     @Override
     public void reset() {
-        model.getSolver().reset();
-        incrementCounter(COUNTER_UNPOST_CONSTRAINT, model.getNbCstrs());
-        model.unpost(model.getCstrs()); // unpost all constraints
+        resetSolver();
+        // unpost all constraints, except the pinned background
+        org.chocosolver.solver.constraints.Constraint[] cstrs = Arrays.stream(model.getCstrs())
+                .filter(c -> !backgroundConstraints.contains(c))
+                .toArray(org.chocosolver.solver.constraints.Constraint[]::new);
+        incrementCounter(COUNTER_UNPOST_CONSTRAINT, cstrs.length);
+        model.unpost(cstrs);
+        postedConstraints.clear();
 
         log.trace("{}Reset model", LoggerUtils.tab);
     }
 
+    /**
+     * Turns the incremental mode on/off.
+     * Turning it off removes the constraints kept posted from the last check.
+     */
+    public void setIncremental(boolean incremental) {
+        if (this.incremental && !incremental) {
+            reset();
+        }
+        this.incremental = incremental;
+
+        log.debug("{}Set incremental mode [incremental={}]", LoggerUtils.tab, incremental);
+    }
+
+    /**
+     * Sets the search strategy and the restarts of the solver.
+     * @param searchConfiguration a {@link SearchConfiguration}
+     * @param seed the seed of the random configurations
+     */
+    public void setSearchConfiguration(@NonNull SearchConfiguration searchConfiguration, long seed) {
+        searchConfiguration.configure(model.getSolver(), seed);
+        if (warmStart) {
+            model.getSolver().setSearch(warmStartSearch(seed));
+        }
+        this.searchConfiguration = searchConfiguration;
+        this.seed = seed;
+
+        log.debug("{}Set search configuration [configuration={}, seed={}]", LoggerUtils.tab, searchConfiguration, seed);
+    }
+
+    public void setSearchConfiguration(@NonNull SearchConfiguration searchConfiguration) {
+        setSearchConfiguration(searchConfiguration, 0);
+    }
+
+    /**
+     * Turns the warm start mode on/off.
+     * Turning it on forgets the last solution, turning it off gets back the search of the search configuration.
+     */
+    public void setWarmStart(boolean warmStart) {
+        this.warmStart = warmStart;
+        lastSolution = warmStart ? new Solution(model) : null;
+        setSearchConfiguration(searchConfiguration, seed);
+
+        log.debug("{}Set warm start mode [warmStart={}]", LoggerUtils.tab, warmStart);
+    }
+
+    /**
+     * @return dom/wdeg with last conflicts, which tries the value of a variable in the last solution first,
+     * and the lower bound if there's no last solution, or the value was removed
+     */
+    private AbstractStrategy<IntVar> warmStartSearch(long seed) {
+        IntVar[] vars = model.retrieveIntVars(true);
+        return Search.lastConflict(Search.intVarSearch(new DomOverWDeg(vars, seed),
+                new IntDomainLast(lastSolution, new IntDomainMin(), null), vars));
+    }
+
+    /**
+     * Sets the maximum number of kept solutions.
+     * Solutions exceeding the new size are removed, the oldest first.
+     */
+    public void setSolutionPoolSize(int solutionPoolSize) {
+        checkArgument(solutionPoolSize >= 0, "The solution pool size must be non-negative");
+
+        this.solutionPoolSize = solutionPoolSize;
+        while (solutions.size() > solutionPoolSize) {
+            solutions.removeLast();
+        }
+
+        log.debug("{}Set solution pool size [size={}]", LoggerUtils.tab, solutionPoolSize);
+    }
+
+    /**
+     * Sets the maximal number of singleton probes, which applies to the next pinned background.
+     */
+    public void setSingletonProbeLimit(int singletonProbeLimit) {
+        checkArgument(singletonProbeLimit >= 0, "The singleton probe limit must be non-negative");
+
+        this.singletonProbeLimit = singletonProbeLimit;
+    }
+
+    /**
+     * Pins a set of background constraints (e.g., B) to the model.
+     *
+     * The background stays posted, and is propagated once at a new world of the environment,
+     * so that its domain reductions are shared by all following checks. Constraints of the background
+     * are then skipped when they are given to {@link #isConsistent}, i.e., the algorithms can keep
+     * passing B ∪ C, and only C is posted/unposted for each check.
+     *
+     * Choco propagates all posted constraints again at the beginning of each search. Hence, background
+     * constraints which are entailed by the root domains are unposted, see {@link #retireEntailedBackground()}.
+     *
+     * Since the keys of the cache don't include the background, the cache is cleared when the background
+     * is pinned or unpinned.
+     *
+     * @param B a set of background {@link Constraint}s
+     */
+    public void pinBackground(@NonNull Collection<Constraint> B) {
+        pin(B);
+        clearCache();
+    }
+
+    /**
+     * Pins the given background, keeping the cache.
+     */
+    private void pin(Collection<Constraint> B) {
+        unpin();
+        if (B.isEmpty()) {
+            return;
+        }
+
+        log.debug("{}Pinning background [B={}] >>>", LoggerUtils.tab, B);
+        LoggerUtils.indent();
+
+        reset();
+        background = new LinkedHashSet<>(B);
+        background.forEach(c -> backgroundConstraints.addAll(internal(c).getChocoConstraints()));
+        backgroundConstraints.forEach(model::post);
+        incrementCounter(COUNTER_POST_CONSTRAINT, backgroundConstraints.size());
+
+        // the values learned about the same background are kept
+        if (!backgroundSingletonPruning || !background.equals(learnedBackground)) {
+            learnedBackground = backgroundSingletonPruning ? background : Collections.emptySet();
+            learnedValues.clear();
+            unprobedVars.clear();
+            if (backgroundSingletonPruning) {
+                unprobedVars.addAll(intVarsOf(backgroundConstraints));
+            }
+            numProbes = 0;
+        }
+
+        // root propagation of the background, kept until the background is unpinned
+        model.getEnvironment().worldPush();
+        try {
+            model.getSolver().propagate();
+            reapplyLearnedValues();
+            retireEntailedBackground();
+        } catch (ContradictionException ex) {
+            backgroundConsistent = false;
+            model.getSolver().getEngine().flush();
+        }
+
+        LoggerUtils.outdent();
+        log.debug("{}<<< Pinned background [consistency={}, posted={}]", LoggerUtils.tab, backgroundConsistent, backgroundConstraints.size());
+    }
+
+    /**
+     * Removes the values learned by the checks of an earlier pinning of the same background
+     * from the root domains of the background.
+     * @throws ContradictionException if the background is inconsistent
+     */
+    private void reapplyLearnedValues() throws ContradictionException {
+        if (learnedValues.isEmpty()) {
+            return;
+        }
+
+        int numValues = 0;
+        for (Map.Entry<IntVar, List<Integer>> entry : learnedValues.entrySet()) {
+            for (int value : entry.getValue()) {
+                entry.getKey().removeValue(value, Cause.Null);
+            }
+            numValues += entry.getValue().size();
+        }
+        model.getSolver().propagate();
+
+        incrementCounter(COUNTER_BACKGROUND_REAPPLIED_VALUES, numValues);
+        log.trace("{}Removed the learned values of the background [values={}]", LoggerUtils.tab, numValues);
+    }
+
+    /**
+     * Learns the values of the given background variables which no solution of the background has,
+     * after a check which used these variables. Each value of each variable is tried with a propagation
+     * of the background alone at a new world of the environment. A value whose propagation fails is
+     * removed from the root domains of the background, hence the following checks don't derive
+     * the same failure again. Each variable is probed once per background, and only enumerated domains
+     * are probed, at most {@link #getSingletonProbeLimit()} values per background in total.
+     *
+     * Only the background is posted at this point, i.e., the learned values don't depend on the constraints
+     * of the checks. Therefore, nothing is learned in the incremental mode, which keeps the constraints posted.
+     * @param vars the variables of the background used by the last check
+     */
+    private void learnBackground(Set<IntVar> vars) {
+        if (vars.isEmpty() || !backgroundConsistent) {
+            return;
+        }
+
+        Solver solver = model.getSolver();
+        int probes = numProbes;
+        int numLearned = 0;
+        try {
+            for (IntVar var : vars) {
+                unprobedVars.remove(var);
+                if (var.isInstantiated() || numProbes + var.getDomainSize() > singletonProbeLimit) {
+                    continue;
+                }
+
+                List<Integer> refuted = new ArrayList<>();
+                for (int value = var.getLB(); value <= var.getUB(); value = var.nextValue(value)) {
+                    numProbes++;
+                    model.getEnvironment().worldPush();
+                    try {
+                        var.instantiateTo(value, Cause.Null);
+                        solver.propagate();
+                    } catch (ContradictionException ex) {
+                        solver.getEngine().flush();
+                        refuted.add(value);
+                    } finally {
+                        model.getEnvironment().worldPop();
+                    }
+                }
+                if (refuted.isEmpty()) {
+                    continue;
+                }
+
+                // the values stay removed at the world of the background
+                for (int value : refuted) {
+                    var.removeValue(value, Cause.Null);
+                }
+                solver.propagate();
+                learnedValues.computeIfAbsent(var, k -> new ArrayList<>()).addAll(refuted);
+                numLearned += refuted.size();
+            }
+        } catch (ContradictionException ex) { // the background has no solution
+            solver.getEngine().flush();
+            backgroundConsistent = false;
+        } finally {
+            // the engine stays initialized with the propagators of the background
+            solver.getEngine().reset();
+        }
+
+        incrementCounter(COUNTER_BACKGROUND_SINGLETON_PROBES, numProbes - probes);
+        incrementCounter(COUNTER_BACKGROUND_SINGLETON_PRUNED_VALUES, numLearned);
+        log.trace("{}Learned from the background [vars={}, probes={}, learned values={}]", LoggerUtils.tab,
+                vars.size(), numProbes - probes, numLearned);
+    }
+
+    /**
+     * @return the integer variables with enumerated domains of the given Choco constraints
+     */
+    private static Set<IntVar> intVarsOf(Collection<org.chocosolver.solver.constraints.Constraint> constraints) {
+        Set<IntVar> vars = new LinkedHashSet<>();
+        for (org.chocosolver.solver.constraints.Constraint c : constraints) {
+            for (Propagator<?> propagator : c.getPropagators()) {
+                for (Variable var : propagator.getVars()) {
+                    if (var instanceof IntVar intVar && intVar.hasEnumeratedDomain()) {
+                        vars.add(intVar);
+                    }
+                }
+            }
+        }
+        return vars;
+    }
+
+    /**
+     * Unposts the background constraints which are satisfied by every assignment of the root domains.
+     * Since all following checks start from (subsets of) these domains, such a constraint cannot prune
+     * anything anymore, and re-propagating it at each search is wasted. It's left unposted when the
+     * background is unpinned, i.e., the model gets back to its status before pinning.
+     */
+    private void retireEntailedBackground() {
+        org.chocosolver.solver.constraints.Constraint[] entailed = backgroundConstraints.stream()
+                .filter(c -> c.isSatisfied() == ESat.TRUE)
+                .toArray(org.chocosolver.solver.constraints.Constraint[]::new);
+        if (entailed.length == 0) {
+            return;
+        }
+
+        model.unpost(entailed);
+        Arrays.asList(entailed).forEach(backgroundConstraints::remove);
+        incrementCounter(COUNTER_RETIRED_BACKGROUND_CONSTRAINTS, entailed.length);
+        log.trace("{}Retired entailed background constraints [retired={}]", LoggerUtils.tab, entailed.length);
+    }
+
+    /**
+     * Removes the pinned background from the model, and clears the cache.
+     */
+    public void unpinBackground() {
+        if (background.isEmpty()) {
+            return;
+        }
+
+        unpin();
+        clearCache();
+    }
+
+    /**
+     * Unpins the background, keeping the cache.
+     */
+    private void unpin() {
+        if (background.isEmpty()) {
+            return;
+        }
+
+        reset();
+        model.unpost(backgroundConstraints.toArray(new org.chocosolver.solver.constraints.Constraint[0]));
+        incrementCounter(COUNTER_UNPOST_CONSTRAINT, backgroundConstraints.size());
+        // get back the domains before the root propagation
+        model.getEnvironment().worldPop();
+
+        background = Collections.emptySet();
+        backgroundConstraints.clear();
+        backgroundConsistent = true;
+
+        log.debug("{}Unpinned background", LoggerUtils.tab);
+    }
+
+    /**
+     * Forgets the cached results, which were checked with another background.
+     */
+    private void clearCache() {
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
     @Override
     public void dispose() {
         this.model = null;
         this.cdrModel = null;
+        this.cache = null;
+        this.postedConstraints.clear();
+        this.background = Collections.emptySet();
+        this.backgroundConstraints.clear();
+        this.solutions.clear();
+        this.lastSolution = null;
+        this.listeners.clear();
+    }
+
+    /**
+     * Registers a listener, which receives a {@link CheckEvent} after each check of this checker.
+     */
+    public void addCheckListener(@NonNull ICheckListener listener) {
+        if (listeners.isEmpty()) {
+            model.getSolver().plugMonitor(rootPropagationTimer);
+        }
+        listeners.add(listener);
+
+        log.debug("{}Added check listener [listeners={}]", LoggerUtils.tab, listeners.size());
+    }
+
+    public void removeCheckListener(@NonNull ICheckListener listener) {
+        if (listeners.remove(listener) && listeners.isEmpty()) {
+            model.getSolver().unplugMonitor(rootPropagationTimer);
+        }
+
+        log.debug("{}Removed check listener [listeners={}]", LoggerUtils.tab, listeners.size());
+    }
+
+    private CheckEvent.CheckEventBuilder newEvent(CheckTrace.Kind kind, int size) {
+        propagationTime = 0;
+        return CheckEvent.builder().kind(kind).size(size);
+    }
+
+    /**
+     * Gives the measures of the current check to all listeners.
+     * @param time the total time of the check in nanoseconds
+     */
+    private void fireCheck(long time) {
+        CheckEvent checkEvent = event.propagationTime(propagationTime).result(lastResult).time(time).build();
+        event = null;
+
+        for (ICheckListener listener : listeners) {
+            listener.onCheck(checkEvent);
+        }
+    }
+
+    /**
+     * Looks up the result of a check in the cache.
+     * If the result is found, the check is finished here.
+     * @param key the key of the check, null if the cache is disabled
+     * @return the cached result, or null if the cache is disabled or doesn't contain the check
+     */
+    private Boolean getCachedResult(CheckKey key) {
+        if (key == null) {
+            return null;
+        }
+
+        Boolean consistent = cache.get(key);
+        if (consistent != null) {
+            lastResult = ConsistencyResult.of(consistent);
+            if (event != null) {
+                event.decision(CheckEvent.Decision.CACHE);
+            }
+            LoggerUtils.outdent();
+            log.debug("{}<<< Checked from cache [consistency={}]", LoggerUtils.tab, consistent);
+        }
+        return consistent;
+    }
+
+    /**
+     * Answers the result of a check. A decided result is stored in the cache, if the cache is enabled,
+     * and an UNKNOWN result is answered according to the {@link UnknownPolicy}.
+     * @param key the key of the check, null if the cache is disabled
+     * @param result the result of the check
+     * @return true if the check is consistent, and false otherwise
+     * @throws UnknownConsistencyException if the result is UNKNOWN and the policy is ABORT
+     */
+    private boolean decide(CheckKey key, ConsistencyResult result) {
+        lastResult = result;
+
+        if (result == ConsistencyResult.UNKNOWN) {
+            return switch (unknownPolicy) {
+                case CONSISTENT -> true;
+                case INCONSISTENT -> false;
+                case ABORT -> throw new UnknownConsistencyException("The consistency check is stopped before being decided");
+            };
+        }
+
+        boolean consistent = result == ConsistencyResult.CONSISTENT;
+        if (key != null) {
+            cache.put(key, consistent);
+        }
+        return consistent;
     }
 
     /**
      * Runs the solver to check the consistency of the model.
-     * @return true if the model is consistent, and false otherwise.
+     * @return CONSISTENT if the model is consistent, INCONSISTENT if the model is inconsistent,
+     * and UNKNOWN if the search is stopped by a limit, or an error occurs.
      */
-    protected boolean check() {
+    protected ConsistencyResult check() {
+        boolean failed = false;
+        Set<IntVar> learningVars = Collections.emptySet(); // the background variables to learn from
         try {
+            if (!unprobedVars.isEmpty() && !background.isEmpty() && !incremental) {
+                learningVars = intVarsOf(Arrays.stream(model.getCstrs()).filter(c -> !backgroundConstraints.contains(c)).toList());
+                learningVars.retainAll(unprobedVars);
+            }
+
             incrementCounter(COUNTER_CHOCO_SOLVER_CALLS);
             log.trace("{}Checking...", LoggerUtils.tab);
             incrementCounter(COUNTER_SIZE_CONSISTENCY_CHECKS, model.getNbCstrs());
+            if (event != null) {
+                event.numOfPostedConstraints(model.getNbCstrs()).decision(CheckEvent.Decision.BACKGROUND);
+            }
 
-            start(TIMER_SOLVER);
-            boolean isFeasible = model.getSolver().solve();
-            stop(TIMER_SOLVER);
+            // an inconsistent background makes every check inconsistent
+            ConsistencyResult result = ConsistencyResult.INCONSISTENT;
+            if (backgroundConsistent) {
+                Boolean decided = null;
 
-            if (isFeasible) {
-                incrementCounter(COUNTER_FEASIBLE);
-            } else {
-                incrementCounter(COUNTER_INFEASIBLE);
+                if (isSatisfiedByKnownSolution()) {
+                    result = ConsistencyResult.CONSISTENT;
+                    incrementCounter(COUNTER_DECIDED_BY_SOLUTION_REUSE);
+                    decidedBy(CheckEvent.Decision.SOLUTION_REUSE);
+                } else if (strategy == CheckingStrategy.PROPAGATION_FIRST && (decided = propagate()) != null) {
+                    result = ConsistencyResult.of(decided);
+                    incrementCounter(COUNTER_DECIDED_BY_PROPAGATION);
+                    decidedBy(CheckEvent.Decision.PROPAGATION);
+                } else {
+                    result = search();
+                    incrementCounter(COUNTER_DECIDED_BY_SEARCH);
+                    decidedBy(CheckEvent.Decision.SEARCH);
+
+                    if (result == ConsistencyResult.CONSISTENT) {
+                        recordSolution();
+                        if (warmStart) {
+                            lastSolution.record();
+                        }
+                    }
+                }
             }
 
-//            model.getEnvironment().worldPush();
-//            try {
-//                start(TIMER_SOLVER);
-//                model.getSolver().propagate(); // propagate
-//                isFeasible = true; incrementCounter(COUNTER_FEASIBLE);
-//
-//            } catch (ContradictionException ex) { // in case of a contradiction
-//
-//                isFeasible = false; incrementCounter(COUNTER_INFEASIBLE);
-//                model.getSolver().getEngine().flush();
-//
-//            } finally {
-//                stop(TIMER_SOLVER);
-//                // get back the original model
-//                model.getEnvironment().worldPop();
-//            }
-
-            // resets the model to the beginning status
-            reset();
+            switch (result) {
+                case CONSISTENT -> incrementCounter(COUNTER_FEASIBLE);
+                case INCONSISTENT -> incrementCounter(COUNTER_INFEASIBLE);
+                case UNKNOWN -> incrementCounter(COUNTER_UNKNOWN);
+            }
 
             LoggerUtils.outdent();
-            log.debug("{}<<< Checked [consistency={}]", LoggerUtils.tab, isFeasible);
+            log.debug("{}<<< Checked [consistency={}]", LoggerUtils.tab, result);
 
-            return isFeasible;
+            return result;
         } catch (Exception e) {
+            failed = true;
             log.error("{}Error occurred while checking consistency: {}", LoggerUtils.tab, e.getMessage());
             LoggerUtils.outdent();
+            decidedBy(null);
+            incrementCounter(COUNTER_UNKNOWN);
+
+            // an error doesn't mean that the model is inconsistent
+            return ConsistencyResult.UNKNOWN;
+        } finally {
+            if (incremental && !failed) {
+                // keeps the constraints posted for the next check
+                resetSolver();
+            } else {
+                // resets the model to the beginning status, also after an error,
+                // so that the constraints of the failed check don't remain in the following checks
+                reset();
+                learnBackground(learningVars);
+            }
+        }
+    }
+
+    /**
+     * Searches for a solution within the limits of the checker.
+     * Choco removes all stop criteria when the solver is reset, hence the limits are set before each search.
+     * @return CONSISTENT if a solution is found, INCONSISTENT if the search space is exhausted,
+     * and UNKNOWN if the search is stopped by a limit.
+     */
+    private ConsistencyResult search() {
+        Solver solver = model.getSolver();
+        solver.removeAllStopCriteria();
+        if (timeLimit > 0) {
+            solver.limitTime(timeLimit);
+        }
+        if (failLimit > 0) {
+            solver.limitFail(failLimit);
+        }
+        if (nodeLimit > 0) {
+            solver.limitNode(nodeLimit);
+        }
+        if (stopCriterion != null) {
+            solver.addStopCriterion(stopCriterion);
+        }
+
+        start(TIMER_SOLVER);
+        searched = true;
+        long startTime = event != null ? System.nanoTime() : 0;
+        rootPropagationTimer.time = 0;
+        try {
+            if (solver.solve()) {
+                return ConsistencyResult.CONSISTENT;
+            }
+            return solver.isStopCriterionMet() ? ConsistencyResult.UNKNOWN : ConsistencyResult.INCONSISTENT;
+        } finally {
+            stop(TIMER_SOLVER);
+            incrementCounter(COUNTER_SEARCH_NODES, (int) solver.getMeasures().getNodeCount());
+            incrementCounter(COUNTER_SEARCH_FAILS, (int) solver.getMeasures().getFailCount());
+            if (event != null) {
+                propagationTime += rootPropagationTimer.time;
+                event.searchTime(System.nanoTime() - startTime - rootPropagationTimer.time)
+                        .nodes(solver.getMeasures().getNodeCount())
+                        .fails(solver.getMeasures().getFailCount());
+            }
+        }
+    }
+
+    /**
+     * Runs the root propagation of the posted constraints at a new world of the environment.
+     * @return false if the propagation finds a contradiction, true if the propagation instantiates
+     * all variables (i.e., finds a solution), or null if the propagation cannot decide the consistency.
+     */
+    private Boolean propagate() {
+        model.getEnvironment().worldPush();
+        start(TIMER_PROPAGATION);
+        long startTime = event != null ? System.nanoTime() : 0;
+        try {
+            model.getSolver().propagate();
+
+            return Arrays.stream(model.getVars()).allMatch(Variable::isInstantiated) ? true : null;
+        } catch (ContradictionException ex) { // in case of a contradiction
+            model.getSolver().getEngine().flush();
 
             return false;
+        } finally {
+            stop(TIMER_PROPAGATION);
+            if (event != null) {
+                propagationTime += System.nanoTime() - startTime;
+            }
+            // get back the original model
+            model.getEnvironment().worldPop();
+            // the engine stays initialized with the propagators of the popped world
+            model.getSolver().getEngine().reset();
         }
     }
 
     /**
-     * Posts the corresponding constraints of a textual test case to the model.
-     * @param testcase a {@link TestCase}
+     * Looks for a kept solution which satisfies all posted constraints.
+     * Each solution is restored at a new world of the environment, which is popped afterwards.
+     * The found solution is moved to the front of the pool.
+     * @return true if a kept solution satisfies all posted constraints, and false otherwise.
      */
-    protected void postTestCase(TestCase testcase, boolean negative) {
-        if (!negative) {
-            testcase.getChocoConstraints().forEach(model::post);
-            incrementCounter(COUNTER_POST_CONSTRAINT, testcase.getChocoConstraints().size());
-            log.trace("{}Added test case's constraints", LoggerUtils.tab);
-        } else {
-            testcase.getNegChocoConstraints().forEach(model::post);
-            incrementCounter(COUNTER_POST_CONSTRAINT, testcase.getNegChocoConstraints().size());
-            log.trace("{}Added neg test case's constraints", LoggerUtils.tab);
+    private boolean isSatisfiedByKnownSolution() {
+        Iterator<Solution> iterator = solutions.iterator();
+        while (iterator.hasNext()) {
+            Solution solution = iterator.next();
+
+            if (isSatisfiedBy(solution)) {
+                iterator.remove();
+                solutions.addFirst(solution);
+
+                log.trace("{}Satisfied by a kept solution", LoggerUtils.tab);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isSatisfiedBy(Solution solution) {
+        model.getEnvironment().worldPush();
+        try {
+            solution.restore();
+
+            return Arrays.stream(model.getCstrs()).allMatch(c -> c.isSatisfied() == ESat.TRUE);
+        } catch (ContradictionException ex) { // the solution violates the domains of the pinned background
+            model.getSolver().getEngine().flush();
+
+            return false;
+        } finally {
+            // get back the original model
+            model.getEnvironment().worldPop();
+            // restoring a solution propagates, hence initializes the engine
+            model.getSolver().getEngine().reset();
+        }
+    }
+
+    /**
+     * Keeps the current solution of the solver in the pool, removing the oldest one if the pool is full.
+     */
+    private void recordSolution() {
+        if (solutionPoolSize == 0) {
+            return;
+        }
+
+        if (solutions.size() == solutionPoolSize) {
+            solutions.removeLast();
         }
+        solutions.addFirst(new Solution(model).record());
+    }
+
+    private void decidedBy(CheckEvent.Decision decision) {
+        if (event != null) {
+            event.decision(decision);
+        }
+    }
+
+    /**
+     * Measures the initial propagation of the solver, which happens at the beginning of each search.
+     * It's only plugged into the solver while a listener is registered.
+     */
+    private static class RootPropagationTimer implements IMonitorInitialize {
+        private long startTime = 0;
+        private long time = 0; // in nanoseconds
+
+        @Override
+        public void beforeInitialize() {
+            startTime = System.nanoTime();
+        }
+
+        @Override
+        public void afterInitialize(boolean correct) {
+            time = System.nanoTime() - startTime;
+        }
+    }
+
+    /**
+     * Solver.reset() pops the environment to the world where the last search started,
+     * even if the solver has already been reset. Hence, while a background is pinned,
+     * the solver is only reset after a search, so that the root propagation of the background is kept.
+     */
+    private void resetSolver() {
+        if (background.isEmpty() || searched) {
+            model.getSolver().reset();
+            searched = false;
+        }
+    }
+
+    /**
+     * Posts the given Choco constraints to the model.
+     * In the incremental mode, only constraints which are not posted yet are posted,
+     * and the constraints of the previous check which are not in the given list are unposted.
+     * @param cstrs a list of Choco constraints
+     */
+    protected void post(List<org.chocosolver.solver.constraints.Constraint> cstrs) {
+        if (!incremental) {
+            cstrs.forEach(model::post);
+            incrementCounter(COUNTER_POST_CONSTRAINT, cstrs.size());
+            log.trace("{}Posted constraints", LoggerUtils.tab);
+            return;
+        }
+
+        Set<org.chocosolver.solver.constraints.Constraint> target = new LinkedHashSet<>(cstrs);
+
+        // unpost constraints of the previous check which are not required anymore
+        List<org.chocosolver.solver.constraints.Constraint> toUnpost = new ArrayList<>();
+        for (org.chocosolver.solver.constraints.Constraint c : postedConstraints) {
+            if (!target.contains(c)) {
+                toUnpost.add(c);
+            }
+        }
+        if (!toUnpost.isEmpty()) {
+            model.unpost(toUnpost.toArray(new org.chocosolver.solver.constraints.Constraint[0]));
+            toUnpost.forEach(postedConstraints::remove);
+        }
+
+        // post constraints which are not posted yet
+        int kept = postedConstraints.size();
+        for (org.chocosolver.solver.constraints.Constraint c : target) {
+            if (postedConstraints.add(c)) {
+                model.post(c);
+            }
+        }
+        int numPosted = postedConstraints.size() - kept;
+
+        incrementCounter(COUNTER_UNPOST_CONSTRAINT, toUnpost.size());
+        incrementCounter(COUNTER_POST_CONSTRAINT, numPosted);
+        // each kept constraint saves one unpost (after the previous check) and one post (now)
+        incrementCounter(COUNTER_AVOIDED_UNPOST_CONSTRAINT, kept);
+        incrementCounter(COUNTER_AVOIDED_POST_CONSTRAINT, kept);
+        log.trace("{}Posted the difference [posted={}, unposted={}, kept={}]", LoggerUtils.tab, numPosted, toUnpost.size(), kept);
+    }
+
+    /**
+     * @return the Choco constraints of the given constraints, except the ones of the pinned background
+     */
+    private List<org.chocosolver.solver.constraints.Constraint> chocoConstraintsOf(Collection<Constraint> C) {
+        List<org.chocosolver.solver.constraints.Constraint> cstrs = new ArrayList<>();
+        int saved = 0;
+        for (Constraint c : C) {
+            if (background.contains(c)) {
+                saved += c.getChocoConstraints().size();
+            } else {
+                cstrs.addAll(internal(c).getChocoConstraints());
+            }
+        }
+        if (saved > 0) {
+            incrementCounter(COUNTER_SAVED_BACKGROUND_POSTS, saved);
+        }
+        return cstrs;
+    }
+
+    /**
+     * Returns the constraint whose Choco constraints belong to the model of this checker.
+     * Override this method if the checker works on a copy of the model of the given constraints.
+     * @param c a {@link Constraint}
+     * @return the given constraint
+     */
+    protected Constraint internal(Constraint c) {
+        return c;
+    }
+
+    /**
+     * Returns the test case whose Choco constraints belong to the model of this checker.
+     * Override this method if the checker works on a copy of the model of the given test case.
+     * @param testcase a {@link TestCase}
+     * @return the given test case
+     */
+    protected TestCase internal(ITestCase testcase) {
+        return (TestCase) testcase;
     }
 }
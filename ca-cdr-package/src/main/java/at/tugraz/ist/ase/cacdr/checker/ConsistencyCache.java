@@ -0,0 +1,88 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker;
+
+import at.tugraz.ist.ase.common.LoggerUtils;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static at.tugraz.ist.ase.cacdr.eval.CAEvaluator.*;
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A bounded cache of consistency check results with LRU eviction.
+ *
+ * Results are identified by {@link CheckKey}s. Hits, misses, and evictions
+ * are counted by the counters of {@link at.tugraz.ist.ase.cacdr.eval.CAEvaluator}.
+ */
+@Slf4j
+public class ConsistencyCache implements IConsistencyCache {
+
+    @Getter
+    private final int maxSize;
+
+    private final Map<CheckKey, Boolean> results;
+
+    /**
+     * Creates an empty cache.
+     * @param maxSize the maximum number of results kept in the cache
+     */
+    public ConsistencyCache(int maxSize) {
+        checkArgument(maxSize > 0, "The size of the cache must be greater than 0");
+
+        this.maxSize = maxSize;
+        // access-order LinkedHashMap, i.e., the eldest entry is the least recently used one
+        this.results = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CheckKey, Boolean> eldest) {
+                if (size() > ConsistencyCache.this.maxSize) {
+                    incrementCounter(COUNTER_CACHE_EVICTIONS);
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        log.debug("{}Created ConsistencyCache [maxSize={}]", LoggerUtils.tab, maxSize);
+    }
+
+    @Override
+    public synchronized Boolean get(@NonNull CheckKey key) {
+        Boolean consistent = results.get(key);
+
+        if (consistent != null) {
+            incrementCounter(COUNTER_CACHE_HITS);
+            log.trace("{}Cache hit [key={}, consistency={}]", LoggerUtils.tab, key, consistent);
+        } else {
+            incrementCounter(COUNTER_CACHE_MISSES);
+        }
+        return consistent;
+    }
+
+    @Override
+    public synchronized void put(@NonNull CheckKey key, boolean consistent) {
+        results.put(key, consistent);
+    }
+
+    @Override
+    public synchronized int size() {
+        return results.size();
+    }
+
+    @Override
+    public synchronized void clear() {
+        results.clear();
+
+        log.trace("{}Cleared ConsistencyCache", LoggerUtils.tab);
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker;
+
+import at.tugraz.ist.ase.cdrmodel.CDRModel;
+import at.tugraz.ist.ase.cdrmodel.fm.FMDebuggingModel;
+import lombok.NonNull;
+
+/**
+ * Creates the consistency checker of a given {@link CheckerType} for a {@link CDRModel}.
+ */
+public class ConsistencyCheckerFactory {
+
+    private static final ConsistencyCheckerFactory instance = new ConsistencyCheckerFactory();
+
+    private ConsistencyCheckerFactory() {}
+
+    public static ConsistencyCheckerFactory getInstance() {
+        return instance;
+    }
+
+    /**
+     * @param type the type of the checker
+     * @param diagModel a {@link CDRModel}
+     * @return a new checker for the given model
+     * @throws IllegalArgumentException if the type of checker doesn't support the model
+     */
+    public IConsistencyChecker getChecker(@NonNull CheckerType type, @NonNull CDRModel diagModel) throws CloneNotSupportedException {
+        return switch (type) {
+            case CHOCO -> new ChocoConsistencyChecker(diagModel);
+            case CHOCO_ASSUMPTION -> new ChocoAssumptionConsistencyChecker(diagModel);
+            case SAT -> {
+                if (!(diagModel instanceof FMDebuggingModel)) {
+                    throw new IllegalArgumentException("The SAT checker only supports feature models: " + diagModel);
+                }
+                yield new FMSatConsistencyChecker(diagModel);
+            }
+            case BDD -> {
+                if (!(diagModel instanceof FMDebuggingModel)) {
+                    throw new IllegalArgumentException("The BDD checker only supports feature models: " + diagModel);
+                }
+                yield new FMBddConsistencyChecker(diagModel);
+            }
+            case PORTFOLIO -> new PortfolioConsistencyChecker(diagModel);
+        };
+    }
+}
@@ -0,0 +1,23 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker;
+
+/**
+ * Results of a consistency check.
+ * UNKNOWN means that the check was stopped (e.g., by a time limit) before the solver could decide it.
+ */
+public enum ConsistencyResult {
+    CONSISTENT,
+    INCONSISTENT,
+    UNKNOWN;
+
+    public static ConsistencyResult of(boolean consistent) {
+        return consistent ? CONSISTENT : INCONSISTENT;
+    }
+}
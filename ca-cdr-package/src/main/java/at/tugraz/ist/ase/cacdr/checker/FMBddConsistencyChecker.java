@@ -0,0 +1,422 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker;
+
+import at.tugraz.ist.ase.cacdr.checker.bdd.Bdd;
+import at.tugraz.ist.ase.cacdr.checker.sat.FMCnfTranslator;
+import at.tugraz.ist.ase.cdrmodel.CDRModel;
+import at.tugraz.ist.ase.cdrmodel.fm.FMDebuggingModel;
+import at.tugraz.ist.ase.common.LoggerUtils;
+import at.tugraz.ist.ase.kb.core.Constraint;
+import at.tugraz.ist.ase.test.ITestCase;
+import at.tugraz.ist.ase.test.TestCase;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.util.*;
+
+import static at.tugraz.ist.ase.cacdr.eval.CAEvaluator.*;
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A consistency checker for feature models using a reduced ordered BDD.
+ *
+ * All constraints of the feature model are compiled once into a single BDD,
+ * where each {@link Constraint} c is guarded by a dedicated selector s, i.e., (s -> c).
+ * A selector precedes the features of its constraint in the variable order.
+ * A check then fixes the selectors of the requested constraints to true, the other selectors to false,
+ * and the features of the test cases to their values, and looks for a path to the TRUE terminal.
+ * Hence, checks never call a solver, and never create new nodes.
+ *
+ * Negated test cases and negated constraints are disjunctions of cubes (conjunctions of literals),
+ * so that a check with them succeeds if a check with one of the cubes succeeds.
+ *
+ * Since the compilation could be expensive, the compiled BDD can be cached in a file.
+ * A cached BDD is only used if it was compiled from the same features and constraints.
+ */
+@Slf4j
+public class FMBddConsistencyChecker implements IConsistencyChecker {
+
+    public static final String TIMER_BDD_COMPILATION = "Timer for BDD compilation:";
+
+    private static final String CACHE_FORMAT = "FMBDD-1";
+
+    protected CDRModel cdrModel;
+    private FMCnfTranslator translator;
+
+    private Bdd bdd;
+    /**
+     * The root of the compiled BDD
+     */
+    private int root;
+
+    private final List<String> levelNames = new ArrayList<>(); // identifies the variables of the levels in a cache
+    private int[] featureLevels; // variable -> level
+    private final Map<Constraint, Integer> selectorLevels = new LinkedHashMap<>();
+    private int[] defaultValues; // all selectors are false, all features are free
+
+    /**
+     * Constructor
+     *
+     * Compiles all constraints of the given model into a BDD.
+     * @param diagModel a {@link FMDebuggingModel}
+     */
+    public FMBddConsistencyChecker(@NonNull CDRModel diagModel) {
+        this(diagModel, null);
+    }
+
+    /**
+     * Constructor
+     *
+     * Loads the compiled BDD from the given cache file if the file exists and fits the model.
+     * Otherwise, compiles all constraints of the given model into a BDD, and saves it to the cache file.
+     * @param diagModel a {@link FMDebuggingModel}
+     * @param cacheFile a cache file, or null if the BDD shouldn't be cached
+     */
+    public FMBddConsistencyChecker(@NonNull CDRModel diagModel, File cacheFile) {
+        checkArgument(diagModel instanceof FMDebuggingModel, "The model %s isn't a model of a feature model", diagModel);
+        this.cdrModel = diagModel;
+        translator = new FMCnfTranslator((FMDebuggingModel) diagModel);
+
+        orderVariables();
+
+        if (cacheFile == null || !load(cacheFile)) {
+            compile();
+            if (cacheFile != null) {
+                save(cacheFile);
+            }
+        }
+
+        log.debug("{}Created FMBddConsistencyChecker for {} [levels={}, nodes={}]", LoggerUtils.tab,
+                diagModel, levelNames.size(), bdd.count(root));
+    }
+
+    /**
+     * @return the number of nodes of the compiled BDD, including the terminals
+     */
+    public int getNumOfNodes() {
+        return bdd.count(root);
+    }
+
+    /**
+     * Checks the consistency of a set of constraints.
+     * @param C       set of {@link Constraint}s
+     * @return true if the given set of constraints are consistent, and false otherwise.
+     */
+    @Override
+    public boolean isConsistent(@NonNull Collection<Constraint> C) {
+        checkArgument(!C.isEmpty(), "Cannot check the consistency with an empty set of constraints");
+
+        log.debug("{}Checking consistency for [C={}] >>>", LoggerUtils.tab, C);
+        LoggerUtils.indent();
+
+        return check(valuesOf(C), null, null);
+    }
+
+    /**
+     * Checks the consistency of a set of constraints with a test case.
+     * @param C       set of {@link Constraint}s
+     * @param testcase a {@link ITestCase}
+     * @return true if the given test case isn't violated to the set of constraints, and false otherwise.
+     */
+    @Override
+    public boolean isConsistent(@NonNull Collection<Constraint> C, @NonNull ITestCase testcase) {
+        checkArgument(!C.isEmpty(), "Cannot check the consistency with an empty set of constraints");
+
+        log.debug("{}Checking consistency for [C={}, testcase={}] >>>", LoggerUtils.tab, C, testcase);
+        LoggerUtils.indent();
+
+        return check(valuesOf(C), literalsOf(testcase), null);
+    }
+
+    /**
+     * consistent(tα ∧ ¬tγ)
+     *
+     * Checks the consistency between two test cases (tα ∧ ¬tγ) to identify a redundant test case.
+     * If the output is false (inconsistent), then tγ is a redundant test case.
+     *
+     * @param testcase a {@link ITestCase}
+     * @param neg_testcase a {@link ITestCase}
+     * @return true if the given test cases are not contradict, and false otherwise.
+     */
+    public boolean isConsistent(@NonNull ITestCase testcase, @NonNull ITestCase neg_testcase) {
+        log.debug("{}Checking consistency for [testcase={}, neg_testcase={}] >>>", LoggerUtils.tab, testcase, neg_testcase);
+        LoggerUtils.indent();
+
+        // ¬(l1 ∧ ... ∧ ln) = ¬l1 ∨ ... ∨ ¬ln, which is false if tγ has no literals
+        List<int[]> cubes = Arrays.stream(literalsOf(neg_testcase)).mapToObj(l -> new int[]{-l}).toList();
+
+        return check(defaultValues.clone(), literalsOf(testcase), cubes);
+    }
+
+    /**
+     * consistent(C - {cstr} ∪ {¬cstr})
+     *
+     * Checks the consistency of (C - {cstr} ∪ {¬cstr}) to identify the redundant constraints.
+     * If the output is false (inconsistent), then cstr is a redundant constraint.
+     *
+     * @param C set of {@link Constraint}s
+     * @param cstr a {@link Constraint}
+     * @return true if the given test cases are not contradict, and false otherwise.
+     */
+    public boolean isConsistent(@NonNull Collection<Constraint> C, @NonNull Constraint cstr) {
+        checkArgument(!C.isEmpty(), "Cannot check the consistency with an empty set of constraints");
+
+        log.debug("{}Checking consistency for [C={}, cstr={}] >>>", LoggerUtils.tab, C, cstr);
+        LoggerUtils.indent();
+
+        List<Constraint> CF = new LinkedList<>(C);
+        // C - {cstr}
+        CF.remove(cstr);
+
+        // ¬(K1 ∧ ... ∧ Km) = ¬K1 ∨ ... ∨ ¬Km, where ¬Kj is the cube of the negated literals of the clause Kj,
+        // which is false if cstr has no clauses
+        List<int[]> cubes = translator.getClauses(cstr).stream()
+                .map(clause -> Arrays.stream(clause).map(l -> -l).toArray())
+                .toList();
+
+        return check(valuesOf(CF), null, cubes);
+    }
+
+    /**
+     * Nothing to reset, since checks don't change the BDD.
+     */
+    @Override
+    public void reset() {
+        log.trace("{}Reset model", LoggerUtils.tab);
+    }
+
+    @Override
+    public void dispose() {
+        this.cdrModel = null;
+        this.translator = null;
+        this.bdd = null;
+        levelNames.clear();
+        selectorLevels.clear();
+    }
+
+    /**
+     * Checks whether the BDD is satisfiable under the given values of the selectors and the given literals.
+     * If cubes are given, then one of them must also hold, i.e., an empty list of cubes
+     * (an empty disjunction) is never satisfiable.
+     * @param values the values of the levels, in which the selectors are set
+     * @param literals literals of features, or null
+     * @param cubes alternative conjunctions of literals, or null if there's no negation
+     * @return true if satisfiable, and false otherwise
+     */
+    protected boolean check(int[] values, int[] literals, List<int[]> cubes) {
+        incrementCounter(COUNTER_BDD_CHECKS);
+        log.trace("{}Checking...", LoggerUtils.tab);
+
+        boolean isFeasible = literals == null || assign(values, literals);
+        if (isFeasible) {
+            if (cubes == null) {
+                isFeasible = bdd.isSatisfiable(root, values);
+            } else {
+                isFeasible = false;
+                for (int[] cube : cubes) {
+                    int[] cubeValues = values.clone();
+                    if (assign(cubeValues, cube) && bdd.isSatisfiable(root, cubeValues)) {
+                        isFeasible = true;
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (isFeasible) {
+            incrementCounter(COUNTER_FEASIBLE);
+        } else {
+            incrementCounter(COUNTER_INFEASIBLE);
+        }
+
+        LoggerUtils.outdent();
+        log.debug("{}<<< Checked [consistency={}]", LoggerUtils.tab, isFeasible);
+
+        return isFeasible;
+    }
+
+    /**
+     * Sets the values of the features of the given literals.
+     * @return false if the literals contradict each other or the values, and true otherwise
+     */
+    private boolean assign(int[] values, int[] literals) {
+        for (int l : literals) {
+            int level = featureLevels[Math.abs(l)];
+            int value = l > 0 ? 1 : 0;
+            if (values[level] == 1 - value) {
+                return false;
+            }
+            values[level] = value;
+        }
+        return true;
+    }
+
+    private int[] valuesOf(Collection<Constraint> C) {
+        int[] values = defaultValues.clone();
+        for (Constraint c : C) {
+            Integer level = selectorLevels.get(c);
+            checkArgument(level != null, "The constraint %s isn't a constraint of the feature model", c);
+            values[level] = 1;
+        }
+        return values;
+    }
+
+    private int[] literalsOf(ITestCase testcase) {
+        checkArgument(testcase instanceof TestCase, "Cannot check the consistency with a non-TestCase object");
+        return translator.getLiterals((TestCase) testcase);
+    }
+
+    /**
+     * Orders the variables by the features of the feature model, where the selector of a constraint
+     * immediately precedes the first feature of the constraint.
+     */
+    private void orderVariables() {
+        int numOfFeatures = translator.getNumOfVariables();
+
+        // constraints by their first feature
+        List<List<Constraint>> constraintsOf = new ArrayList<>();
+        for (int v = 0; v <= numOfFeatures; v++) {
+            constraintsOf.add(new ArrayList<>());
+        }
+        translator.getClauses().forEach((c, cnf) -> {
+            int first = cnf.stream().flatMapToInt(Arrays::stream).map(Math::abs).min().orElseThrow();
+            constraintsOf.get(first).add(c);
+        });
+
+        featureLevels = new int[numOfFeatures + 1];
+        for (int v = 1; v <= numOfFeatures; v++) {
+            for (Constraint c : constraintsOf.get(v)) {
+                selectorLevels.put(c, levelNames.size());
+                levelNames.add("constraint " + c);
+            }
+            featureLevels[v] = levelNames.size();
+            levelNames.add("feature " + v);
+        }
+
+        defaultValues = new int[levelNames.size()];
+        Arrays.fill(defaultValues, -1);
+        selectorLevels.values().forEach(level -> defaultValues[level] = 0);
+    }
+
+    /**
+     * Compiles the conjunction of (s -> c) for all constraints c, from the bottom to the top of the order.
+     */
+    private void compile() {
+        log.trace("{}Compiling BDD >>>", LoggerUtils.tab);
+        LoggerUtils.indent();
+
+        start(TIMER_BDD_COMPILATION);
+        bdd = new Bdd(levelNames.size());
+
+        List<Constraint> constraints = new ArrayList<>(selectorLevels.keySet());
+        Collections.reverse(constraints);
+
+        root = Bdd.TRUE;
+        for (Constraint c : constraints) {
+            int cnf = Bdd.TRUE;
+            for (int[] clause : translator.getClauses(c)) {
+                int disjunction = Bdd.FALSE;
+                for (int l : clause) {
+                    disjunction = bdd.or(disjunction, bdd.literal(featureLevels[Math.abs(l)], l > 0));
+                }
+                cnf = bdd.and(cnf, disjunction);
+            }
+
+            // s -> c
+            int guarded = bdd.or(bdd.literal(selectorLevels.get(c), false), cnf);
+            root = bdd.and(root, guarded);
+        }
+        stop(TIMER_BDD_COMPILATION);
+
+        LoggerUtils.outdent();
+        log.trace("{}<<< Compiled BDD [nodes={}]", LoggerUtils.tab, bdd.count(root));
+    }
+
+    /**
+     * Saves the nodes of the compiled BDD to the given file.
+     * The nodes are saved bottom-up, hence the children of a node are always saved before the node.
+     */
+    private void save(File file) {
+        List<Integer> nodes = new ArrayList<>();
+        collect(root, new HashSet<>(), nodes);
+        Map<Integer, Integer> ids = new HashMap<>(Map.of(Bdd.FALSE, Bdd.FALSE, Bdd.TRUE, Bdd.TRUE));
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeUTF(CACHE_FORMAT);
+            out.writeInt(levelNames.size());
+            for (String name : levelNames) {
+                out.writeUTF(name);
+            }
+
+            out.writeInt(nodes.size());
+            for (int node : nodes) {
+                ids.put(node, ids.size());
+                out.writeInt(bdd.getLevel(node));
+                out.writeInt(ids.get(bdd.getLow(node)));
+                out.writeInt(ids.get(bdd.getHigh(node)));
+            }
+            out.writeInt(ids.get(root));
+
+            log.debug("{}Saved BDD to {} [nodes={}]", LoggerUtils.tab, file, nodes.size());
+        } catch (IOException ex) {
+            log.warn("{}Cannot save BDD to {}: {}", LoggerUtils.tab, file, ex.getMessage());
+        }
+    }
+
+    /**
+     * Loads the compiled BDD from the given file.
+     * @return true if the BDD is loaded, and false if the file doesn't exist or doesn't fit the model
+     */
+    private boolean load(File file) {
+        if (!file.exists()) {
+            return false;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (!CACHE_FORMAT.equals(in.readUTF()) || in.readInt() != levelNames.size()) {
+                log.debug("{}Ignored BDD cache {} of another model", LoggerUtils.tab, file);
+                return false;
+            }
+            for (String name : levelNames) {
+                if (!name.equals(in.readUTF())) {
+                    log.debug("{}Ignored BDD cache {} of another model", LoggerUtils.tab, file);
+                    return false;
+                }
+            }
+
+            Bdd loaded = new Bdd(levelNames.size());
+            int[] nodes = new int[in.readInt() + 2];
+            nodes[Bdd.TRUE] = Bdd.TRUE;
+            for (int i = 2; i < nodes.length; i++) {
+                int level = in.readInt();
+                nodes[i] = loaded.mk(level, nodes[in.readInt()], nodes[in.readInt()]);
+            }
+
+            root = nodes[in.readInt()];
+            bdd = loaded;
+
+            log.debug("{}Loaded BDD from {} [nodes={}]", LoggerUtils.tab, file, nodes.length);
+            return true;
+        } catch (IOException | RuntimeException ex) {
+            log.warn("{}Cannot load BDD from {}: {}", LoggerUtils.tab, file, ex.getMessage());
+            return false;
+        }
+    }
+
+    private void collect(int node, Set<Integer> visited, List<Integer> nodes) {
+        if (node <= Bdd.TRUE || !visited.add(node)) {
+            return;
+        }
+        collect(bdd.getLow(node), visited, nodes);
+        collect(bdd.getHigh(node), visited, nodes);
+        nodes.add(node);
+    }
+}
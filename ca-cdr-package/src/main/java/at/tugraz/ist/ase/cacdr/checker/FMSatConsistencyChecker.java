@@ -0,0 +1,310 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker;
+
+import at.tugraz.ist.ase.cacdr.checker.sat.FMCnfTranslator;
+import at.tugraz.ist.ase.cacdr.checker.sat.SatSolver;
+import at.tugraz.ist.ase.cdrmodel.CDRModel;
+import at.tugraz.ist.ase.cdrmodel.fm.FMDebuggingModel;
+import at.tugraz.ist.ase.common.LoggerUtils;
+import at.tugraz.ist.ase.kb.core.Constraint;
+import at.tugraz.ist.ase.test.ITestCase;
+import at.tugraz.ist.ase.test.TestCase;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+
+import static at.tugraz.ist.ase.cacdr.eval.CAEvaluator.*;
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A consistency checker for feature models using a {@link SatSolver}.
+ *
+ * The relationships and cross-tree constraints of the feature model are compiled
+ * into clauses over one variable per feature by {@link FMCnfTranslator}.
+ * Each {@link Constraint} (as well as each negated constraint, test case, and negated test case)
+ * is guarded by a dedicated selector s, i.e., (¬s ∨ clause) for each of its clauses.
+ * A check solves the clauses under the assumptions that the selectors of the requested
+ * constraints are true. Since the other selectors are free, their constraints never
+ * restrict a solution. Clauses are compiled once, and learned clauses are kept by all checks.
+ *
+ * After an inconsistent check, the selectors refuted by the solver give an unsat core of the check.
+ *
+ * Supports models of {@link FMDebuggingModel}, whose test cases are {@link TestCase}s
+ * assigning "true" or "false" to features.
+ */
+@Slf4j
+public class FMSatConsistencyChecker implements IConsistencyChecker, IUnsatCoreExtractable {
+
+    public static final String TIMER_SAT_SOLVER = "Timer for SAT solver:";
+
+    protected CDRModel cdrModel;
+    protected SatSolver solver = new SatSolver();
+
+    private FMCnfTranslator translator;
+    private final Map<Constraint, Integer> selectors = new HashMap<>();
+    private final Map<Integer, Constraint> constraintsOfSelectors = new HashMap<>();
+    private final Map<Constraint, Integer> negSelectors = new HashMap<>();
+    private final Map<String, Integer> testcaseSelectors = new HashMap<>();
+    private final Map<String, Integer> negTestcaseSelectors = new HashMap<>();
+
+    private int[] lastConflict = null; // the refuted selectors of the last check, null if consistent
+
+    /**
+     * Constructor
+     *
+     * Compiles all constraints of the given model into clauses.
+     * Negated constraints and test cases are compiled at their first use.
+     * @param diagModel a {@link FMDebuggingModel}
+     */
+    public FMSatConsistencyChecker(@NonNull CDRModel diagModel) {
+        checkArgument(diagModel instanceof FMDebuggingModel, "The model %s isn't a model of a feature model", diagModel);
+        this.cdrModel = diagModel;
+
+        translator = new FMCnfTranslator((FMDebuggingModel) diagModel);
+        for (int i = 0; i < translator.getNumOfVariables(); i++) {
+            solver.newVariable(); // the variables of the features
+        }
+
+        for (Constraint c : cdrModel.getAllConstraints()) {
+            selectorOf(c);
+        }
+
+        log.debug("{}Created FMSatConsistencyChecker for {} [variables={}, clauses={}]", LoggerUtils.tab,
+                diagModel, solver.getNumVariables(), solver.getNumClauses());
+    }
+
+    /**
+     * Checks the consistency of a set of constraints.
+     * @param C       set of {@link Constraint}s
+     * @return true if the given set of constraints are consistent, and false otherwise.
+     */
+    @Override
+    public boolean isConsistent(@NonNull Collection<Constraint> C) {
+        checkArgument(!C.isEmpty(), "Cannot check the consistency with an empty set of constraints");
+
+        log.debug("{}Checking consistency for [C={}] >>>", LoggerUtils.tab, C);
+        LoggerUtils.indent();
+
+        return check(selectorsOf(C));
+    }
+
+    /**
+     * Checks the consistency of a set of constraints with a test case.
+     * @param C       set of {@link Constraint}s
+     * @param testcase a {@link ITestCase}
+     * @return true if the given test case isn't violated to the set of constraints, and false otherwise.
+     */
+    @Override
+    public boolean isConsistent(@NonNull Collection<Constraint> C, @NonNull ITestCase testcase) {
+        checkArgument(!C.isEmpty(), "Cannot check the consistency with an empty set of constraints");
+
+        log.debug("{}Checking consistency for [C={}, testcase={}] >>>", LoggerUtils.tab, C, testcase);
+        LoggerUtils.indent();
+
+        List<Integer> assumptions = selectorsOf(C);
+        assumptions.add(testcaseSelectorOf(testcase, false));
+
+        return check(assumptions);
+    }
+
+    /**
+     * consistent(tα ∧ ¬tγ)
+     *
+     * Checks the consistency between two test cases (tα ∧ ¬tγ) to identify a redundant test case.
+     * If the output is false (inconsistent), then tγ is a redundant test case.
+     *
+     * @param testcase a {@link ITestCase}
+     * @param neg_testcase a {@link ITestCase}
+     * @return true if the given test cases are not contradict, and false otherwise.
+     */
+    public boolean isConsistent(@NonNull ITestCase testcase, @NonNull ITestCase neg_testcase) {
+        log.debug("{}Checking consistency for [testcase={}, neg_testcase={}] >>>", LoggerUtils.tab, testcase, neg_testcase);
+        LoggerUtils.indent();
+
+        List<Integer> assumptions = new ArrayList<>();
+        assumptions.add(testcaseSelectorOf(testcase, false));
+        assumptions.add(testcaseSelectorOf(neg_testcase, true));
+
+        return check(assumptions);
+    }
+
+    /**
+     * consistent(C - {cstr} ∪ {¬cstr})
+     *
+     * Checks the consistency of (C - {cstr} ∪ {¬cstr}) to identify the redundant constraints.
+     * If the output is false (inconsistent), then cstr is a redundant constraint.
+     *
+     * @param C set of {@link Constraint}s
+     * @param cstr a {@link Constraint}
+     * @return true if the given test cases are not contradict, and false otherwise.
+     */
+    public boolean isConsistent(@NonNull Collection<Constraint> C, @NonNull Constraint cstr) {
+        checkArgument(!C.isEmpty(), "Cannot check the consistency with an empty set of constraints");
+
+        log.debug("{}Checking consistency for [C={}, cstr={}] >>>", LoggerUtils.tab, C, cstr);
+        LoggerUtils.indent();
+
+        List<Constraint> CF = new LinkedList<>(C);
+        // C - {cstr}
+        CF.remove(cstr);
+
+        List<Integer> assumptions = selectorsOf(CF);
+        // ∪ {¬cstr}
+        assumptions.add(negSelectors.computeIfAbsent(cstr, this::negate));
+
+        return check(assumptions);
+    }
+
+    /**
+     * Nothing to reset, since checks don't change the clauses.
+     */
+    @Override
+    public void reset() {
+        log.trace("{}Reset model", LoggerUtils.tab);
+    }
+
+    @Override
+    public void dispose() {
+        this.cdrModel = null;
+        this.solver = null;
+        this.translator = null;
+        selectors.clear();
+        constraintsOfSelectors.clear();
+        negSelectors.clear();
+        testcaseSelectors.clear();
+        negTestcaseSelectors.clear();
+    }
+
+    /**
+     * Runs the SAT solver under the given assumptions.
+     * @param assumptions selectors of the considering constraints
+     * @return true if the clauses are satisfiable under the given assumptions, and false otherwise.
+     */
+    protected boolean check(List<Integer> assumptions) {
+        incrementCounter(COUNTER_SAT_SOLVER_CALLS);
+        log.trace("{}Checking...", LoggerUtils.tab);
+        incrementCounter(COUNTER_SIZE_CONSISTENCY_CHECKS, assumptions.size());
+
+        boolean isFeasible;
+        start(TIMER_SAT_SOLVER);
+        try {
+            isFeasible = solver.solve(assumptions.stream().mapToInt(Integer::intValue).toArray());
+        } finally {
+            stop(TIMER_SAT_SOLVER);
+        }
+
+        if (isFeasible) {
+            incrementCounter(COUNTER_FEASIBLE);
+            lastConflict = null;
+        } else {
+            incrementCounter(COUNTER_INFEASIBLE);
+            lastConflict = solver.getConflict();
+        }
+
+        LoggerUtils.outdent();
+        log.debug("{}<<< Checked [consistency={}, learned clauses={}]", LoggerUtils.tab, isFeasible, solver.getNumLearnedClauses());
+
+        return isFeasible;
+    }
+
+    /**
+     * Gets the constraints whose selectors are refuted by the solver in the last check.
+     * Selectors of test cases and negated constraints are ignored, since they aren't constraints.
+     * @return an unsat core, or null if the last check was consistent
+     */
+    @Override
+    public Set<Constraint> getUnsatCore() {
+        if (lastConflict == null) {
+            return null;
+        }
+
+        start(TIMER_UNSAT_CORE);
+        Set<Constraint> core = new LinkedHashSet<>();
+        for (int selector : lastConflict) {
+            Constraint c = constraintsOfSelectors.get(selector);
+            if (c != null) {
+                core.add(c);
+            }
+        }
+        stop(TIMER_UNSAT_CORE);
+
+        incrementCounter(COUNTER_UNSAT_CORES);
+        incrementCounter(COUNTER_SIZE_UNSAT_CORES, core.size());
+        log.debug("{}Extracted unsat core [core={}]", LoggerUtils.tab, core);
+
+        return core;
+    }
+
+    private List<Integer> selectorsOf(Collection<Constraint> C) {
+        List<Integer> assumptions = new ArrayList<>(C.size() + 2);
+        for (Constraint c : C) {
+            assumptions.add(selectorOf(c));
+        }
+        return assumptions;
+    }
+
+    private int selectorOf(Constraint c) {
+        return selectors.computeIfAbsent(c, k -> {
+            int selector = guard(translator.getClauses(k));
+            constraintsOfSelectors.put(selector, k);
+            return selector;
+        });
+    }
+
+    private int testcaseSelectorOf(ITestCase testcase, boolean negative) {
+        Map<String, Integer> map = negative ? negTestcaseSelectors : testcaseSelectors;
+        return map.computeIfAbsent(testcase.toString(), k -> {
+            checkArgument(testcase instanceof TestCase, "The test case %s isn't a TestCase", k);
+
+            int[] literals = translator.getLiterals((TestCase) testcase);
+            if (negative) {
+                // ¬(l1 ∧ ... ∧ ln) = (¬l1 ∨ ... ∨ ¬ln)
+                return guard(List.of(Arrays.stream(literals).map(l -> -l).toArray()));
+            }
+            return guard(Arrays.stream(literals).mapToObj(l -> new int[]{l}).toList());
+        });
+    }
+
+    /**
+     * Encodes the negation of a constraint, i.e., at least one of its clauses is violated.
+     * A clause k is violated if its auxiliary variable a is true, i.e., a -> ¬l for each literal l of k.
+     * @return the selector of the negated constraint
+     */
+    private int negate(Constraint c) {
+        List<int[]> cnf = translator.getClauses(c);
+
+        int[] violated = new int[cnf.size()];
+        for (int i = 0; i < cnf.size(); i++) {
+            violated[i] = solver.newVariable();
+            for (int l : cnf.get(i)) {
+                solver.addClause(-violated[i], -l);
+            }
+        }
+        // a1 ∨ ... ∨ am
+        return guard(List.of(violated));
+    }
+
+    /**
+     * Creates a selector s, and adds (¬s ∨ clause) for each given clause.
+     * @return the selector
+     */
+    private int guard(List<int[]> cnf) {
+        int selector = solver.newVariable();
+        for (int[] clause : cnf) {
+            int[] guarded = Arrays.copyOf(clause, clause.length + 1);
+            guarded[clause.length] = -selector;
+            solver.addClause(guarded);
+        }
+
+        log.trace("{}Added clauses [clauses={}, selector={}]", LoggerUtils.tab, cnf.size(), selector);
+        return selector;
+    }
+}
@@ -0,0 +1,25 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker;
+
+/**
+ * A listener receiving a {@link CheckEvent} after each consistency check of a {@link ChocoConsistencyChecker}.
+ *
+ * The listener is called by the thread of the check, and should return quickly.
+ */
+@FunctionalInterface
+public interface ICheckListener {
+
+    /**
+     * Called after a consistency check is finished
+     *
+     * @param event the measures of the check
+     */
+    void onCheck(CheckEvent event);
+}
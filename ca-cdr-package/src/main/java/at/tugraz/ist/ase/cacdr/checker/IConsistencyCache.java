@@ -0,0 +1,36 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker;
+
+/**
+ * A common interface for the caches of consistency check results.
+ */
+public interface IConsistencyCache {
+
+    /**
+     * Returns the cached result of a check.
+     * @param key the key of the check
+     * @return the cached result, or null if the result of the check isn't known
+     */
+    Boolean get(CheckKey key);
+
+    /**
+     * Stores the result of a check.
+     * @param key the key of the check
+     * @param consistent the result of the check
+     */
+    void put(CheckKey key, boolean consistent);
+
+    /**
+     * @return the number of entries kept in the cache
+     */
+    int size();
+
+    void clear();
+}
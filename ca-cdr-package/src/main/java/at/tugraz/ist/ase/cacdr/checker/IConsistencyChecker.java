@@ -9,8 +9,9 @@
 package at.tugraz.ist.ase.cacdr.checker;
 
 import at.tugraz.ist.ase.kb.core.Constraint;
+import at.tugraz.ist.ase.test.ITestCase;
 
-import java.util.Collection;
+import java.util.*;
 
 /**
  * A common interface for the different consistency checkers.
@@ -26,6 +27,87 @@ public interface IConsistencyChecker {
      */
     boolean isConsistent(Collection<Constraint> constraints);
 
+    /**
+     * Checks consistency of a set of constraints with a test case
+     *
+     * @param constraints       set of constraints
+     * @param testcase          a test case
+     * @return <code>true</code> if the test case isn't violated to the constraints and <code>false</code> otherwise
+     */
+    boolean isConsistent(Collection<Constraint> constraints, ITestCase testcase);
+
+    /**
+     * Checks consistency between a test case and a negated test case (tα ∧ ¬tγ)
+     *
+     * @param testcase          a test case
+     * @param neg_testcase      a test case, which is negated
+     * @return <code>true</code> if the test cases don't contradict and <code>false</code> otherwise
+     */
+    boolean isConsistent(ITestCase testcase, ITestCase neg_testcase);
+
+    /**
+     * Checks consistency of a set of constraints, in which a constraint is negated (C - {cstr} ∪ {¬cstr})
+     *
+     * @param constraints       set of constraints
+     * @param cstr              a constraint, which is negated
+     * @return <code>true</code> if the constraints are consistent and <code>false</code> otherwise
+     */
+    boolean isConsistent(Collection<Constraint> constraints, Constraint cstr);
+
+    /**
+     * Checks consistency of a set of constraints with a set of test cases, and
+     * returns remaining inconsistent test cases.
+     *
+     * @param constraints       set of constraints
+     * @param testcases         considering test cases
+     * @param onlyOne true - to get only one inconsistent test case, false - to get all inconsistent test cases
+     * @return remaining inconsistent test cases
+     */
+    default Set<ITestCase> isConsistent(Collection<Constraint> constraints, Collection<ITestCase> testcases, boolean onlyOne) {
+        Set<ITestCase> TCp = new LinkedHashSet<>();
+        for (ITestCase tc: testcases) {
+            if (!isConsistent(constraints, tc)) {
+                TCp.add(tc);
+
+                if (onlyOne) {
+                    break;
+                }
+            }
+        }
+        return TCp;
+    }
+
+    /**
+     * Checks consistency of several sets of constraints, with the same results as checking them
+     * one by one in the given order.
+     *
+     * @param sets              sets of constraints
+     * @param mode              when the remaining sets don't need to be checked anymore
+     * @return the consistent sets and the number of checked sets, see {@link CheckAllMode}
+     */
+    default CheckAllResult checkAll(List<? extends Collection<Constraint>> sets, CheckAllMode mode) {
+        BitSet consistent = new BitSet(sets.size());
+        for (int i = 0; i < sets.size(); i++) {
+            boolean result = isConsistent(sets.get(i));
+            consistent.set(i, result);
+
+            if (mode.stopsAt(result)) {
+                return new CheckAllResult(consistent, i + 1);
+            }
+        }
+        return new CheckAllResult(consistent, sets.size());
+    }
+
+    /**
+     * Checks consistency of all given sets of constraints
+     *
+     * @param sets              sets of constraints
+     * @return the consistent sets, all sets are checked
+     */
+    default CheckAllResult checkAll(List<? extends Collection<Constraint>> sets) {
+        return checkAll(sets, CheckAllMode.ALL);
+    }
+
 //    /**
 //     * Checks consistency of a set of constraints
 //     *
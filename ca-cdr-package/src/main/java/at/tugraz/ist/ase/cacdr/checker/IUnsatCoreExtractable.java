@@ -0,0 +1,28 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker;
+
+import at.tugraz.ist.ase.kb.core.Constraint;
+
+import java.util.Set;
+
+/**
+ * An interface for consistency checkers which can tell why the last check was inconsistent.
+ */
+public interface IUnsatCoreExtractable {
+
+    /**
+     * Gets an unsat core of the last check, i.e., a subset of the checked constraints
+     * which is still inconsistent together with the test case or the negated constraint of the check.
+     * The core isn't necessarily minimal.
+     *
+     * @return an unsat core, or null if the last check was consistent or no core is available
+     */
+    Set<Constraint> getUnsatCore();
+}
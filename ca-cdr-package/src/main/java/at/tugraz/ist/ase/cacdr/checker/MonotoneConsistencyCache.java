@@ -0,0 +1,216 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker;
+
+import at.tugraz.ist.ase.common.LoggerUtils;
+import at.tugraz.ist.ase.kb.core.Constraint;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import static at.tugraz.ist.ase.cacdr.eval.CAEvaluator.*;
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A cache of consistency check results which exploits the monotonicity of consistency:
+ * - if a set of constraints S is consistent, every subset of S is consistent,
+ * - if a set of constraints S is inconsistent, every superset of S is inconsistent.
+ *
+ * For each context of a check (see {@link CheckKey#context()}), the cache keeps
+ * the maximal known-consistent sets and the minimal known-inconsistent sets,
+ * indexed by {@link SetIndex}es.
+ *
+ * The nested sets generated by QuickXPlain and FastDiag are answered
+ * without calling the solver.
+ *
+ * The number of kept sets is bounded. If the bound is exceeded, the least recently used contexts
+ * are evicted, and the oldest sets of the current context if it's the only one left.
+ * Each evicted set is counted by {@link at.tugraz.ist.ase.cacdr.eval.CAEvaluator#COUNTER_CACHE_EVICTIONS}.
+ * Constraints get their ids when a set is put, and lose them once no kept set contains them.
+ */
+@Slf4j
+public class MonotoneConsistencyCache implements IConsistencyCache {
+
+    public static final int DEFAULT_MAX_SIZE = 10000;
+    private static final int MIN_PRUNING_SIZE = 64; // the number of ids from which unused ids are pruned
+
+    /**
+     * The maximum number of sets kept over all contexts
+     */
+    @Getter
+    private final int maxSize;
+
+    private final Map<Constraint, Integer> ids = new HashMap<>();
+    private int nextId = 0;
+    private int pruningSize = MIN_PRUNING_SIZE; // the number of ids at which unused ids are pruned next
+    // access-order LinkedHashMap, i.e., the eldest context is the least recently used one
+    private final Map<CheckKey, Context> contexts = new LinkedHashMap<>(16, 0.75f, true);
+    private int size = 0;
+
+    /**
+     * Creates an empty cache keeping at most {@link #DEFAULT_MAX_SIZE} sets.
+     */
+    public MonotoneConsistencyCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Creates an empty cache.
+     * @param maxSize the maximum number of sets kept over all contexts
+     */
+    public MonotoneConsistencyCache(int maxSize) {
+        checkArgument(maxSize > 0, "The size of the cache must be greater than 0");
+
+        this.maxSize = maxSize;
+
+        log.debug("{}Created MonotoneConsistencyCache [maxSize={}]", LoggerUtils.tab, maxSize);
+    }
+
+    @Override
+    public synchronized Boolean get(@NonNull CheckKey key) {
+        Context context = contexts.get(key.context());
+        // constraints without ids aren't in any kept set
+        int[] S = knownIds(key.getConstraints());
+        boolean allKnown = S.length == key.getConstraints().size();
+
+        if (context != null && allKnown && context.consistentSets.containsSupersetOf(S)) {
+            incrementCounter(COUNTER_CACHE_HITS);
+            incrementCounter(COUNTER_CACHE_SUBSET_HITS);
+            log.trace("{}Cache hit - subset of a consistent set [key={}]", LoggerUtils.tab, key);
+            return true;
+        }
+
+        if (context != null && context.inconsistentSets.containsSubsetOf(S)) {
+            incrementCounter(COUNTER_CACHE_HITS);
+            incrementCounter(COUNTER_CACHE_SUPERSET_HITS);
+            log.trace("{}Cache hit - superset of an inconsistent set [key={}]", LoggerUtils.tab, key);
+            return false;
+        }
+
+        incrementCounter(COUNTER_CACHE_MISSES);
+        return null;
+    }
+
+    @Override
+    public synchronized void put(@NonNull CheckKey key, boolean consistent) {
+        Context context = contexts.computeIfAbsent(key.context(), k -> new Context());
+        int[] S = toIds(key.getConstraints());
+
+        size -= context.size();
+        if (consistent) {
+            SetIndex index = context.consistentSets;
+            if (!index.containsSupersetOf(S)) {
+                index.removeSubsetsOf(S); // keeps only maximal sets
+                index.add(S);
+            }
+        } else {
+            SetIndex index = context.inconsistentSets;
+            if (!index.containsSubsetOf(S)) {
+                index.removeSupersetsOf(S); // keeps only minimal sets
+                index.add(S);
+            }
+        }
+        size += context.size();
+
+        evict(context);
+        if (ids.size() >= pruningSize) {
+            pruneIds();
+        }
+    }
+
+    /**
+     * Evicts the least recently used contexts other than the given one, and then the oldest sets
+     * of the given context, until the cache keeps at most maxSize sets.
+     */
+    private void evict(Context current) {
+        Iterator<Context> iterator = contexts.values().iterator();
+        while (size > maxSize && iterator.hasNext()) {
+            Context context = iterator.next();
+            if (context != current) {
+                iterator.remove();
+                size -= context.size();
+                incrementCounter(COUNTER_CACHE_EVICTIONS, context.size());
+            }
+        }
+
+        while (size > maxSize) {
+            SetIndex index = current.consistentSets.size() >= current.inconsistentSets.size()
+                    ? current.consistentSets : current.inconsistentSets;
+            index.removeOldest();
+            size--;
+            incrementCounter(COUNTER_CACHE_EVICTIONS);
+        }
+    }
+
+    /**
+     * @return the number of kept consistent and inconsistent sets
+     */
+    @Override
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Removes the ids of the constraints which no kept set contains.
+     * The next pruning happens when the number of ids has doubled.
+     */
+    private void pruneIds() {
+        ids.values().removeIf(id -> contexts.values().stream().noneMatch(context -> context.containsItem(id)));
+        pruningSize = Math.max(MIN_PRUNING_SIZE, 2 * ids.size());
+    }
+
+    /**
+     * @return the number of constraints with ids
+     */
+    synchronized int numOfIds() {
+        return ids.size();
+    }
+
+    @Override
+    public synchronized void clear() {
+        ids.clear();
+        nextId = 0;
+        pruningSize = MIN_PRUNING_SIZE;
+        contexts.clear();
+        size = 0;
+
+        log.trace("{}Cleared MonotoneConsistencyCache", LoggerUtils.tab);
+    }
+
+    private int[] toIds(Set<Constraint> C) {
+        return C.stream().mapToInt(c -> ids.computeIfAbsent(c, k -> nextId++)).toArray();
+    }
+
+    private int[] knownIds(Set<Constraint> C) {
+        return C.stream().map(ids::get).filter(Objects::nonNull).mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * The sets kept for a context of checks
+     */
+    private static class Context {
+        private final SetIndex consistentSets = new SetIndex(); // maximal consistent sets
+        private final SetIndex inconsistentSets = new SetIndex(); // minimal inconsistent sets
+
+        int size() {
+            return consistentSets.size() + inconsistentSets.size();
+        }
+
+        boolean containsItem(int id) {
+            return consistentSets.containsItem(id) || inconsistentSets.containsItem(id);
+        }
+    }
+}
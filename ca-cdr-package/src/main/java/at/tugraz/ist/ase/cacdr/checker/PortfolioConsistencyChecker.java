@@ -0,0 +1,219 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker;
+
+import at.tugraz.ist.ase.cdrmodel.CDRModel;
+import at.tugraz.ist.ase.common.LoggerUtils;
+import at.tugraz.ist.ase.kb.core.Constraint;
+import at.tugraz.ist.ase.test.ITestCase;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.chocosolver.util.criteria.Criterion;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static at.tugraz.ist.ase.cacdr.eval.CAEvaluator.*;
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A consistency checker which runs each check with differently configured searches in parallel,
+ * and takes the first decided answer.
+ *
+ * Each checker of a {@link CheckerPool} gets one {@link SearchConfiguration}. A check is given to all
+ * checkers at the same time, and as soon as one of them decides the check, the searches of the others
+ * are stopped. The configurations which decided the checks are recorded, so that the configuration
+ * winning most often can be favoured by later checks, e.g., by using it for a sequential
+ * {@link ChocoConsistencyChecker} of the same model.
+ */
+@Slf4j
+public class PortfolioConsistencyChecker implements IConsistencyChecker {
+
+    private CheckerPool pool;
+
+    /**
+     * How an UNKNOWN result, i.e., no search decides the check, is answered by the isConsistent functions.
+     */
+    @Getter @Setter
+    private UnknownPolicy unknownPolicy = UnknownPolicy.INCONSISTENT;
+
+    private final Map<SearchConfiguration, Integer> wins = new EnumMap<>(SearchConfiguration.class);
+
+    /**
+     * The result of the last check
+     */
+    @Getter
+    private ConsistencyResult lastResult = null;
+
+    /**
+     * The configuration deciding the last check, null if no search decides the last check
+     */
+    @Getter
+    private SearchConfiguration lastWinner = null;
+
+    /**
+     * Constructor
+     *
+     * Runs all configurations of {@link SearchConfiguration}.
+     * @param diagModel a {@link CDRModel} which also implements {@link at.tugraz.ist.ase.cdrmodel.IChocoModel}
+     */
+    public PortfolioConsistencyChecker(@NonNull CDRModel diagModel) throws CloneNotSupportedException {
+        this(diagModel, Arrays.asList(SearchConfiguration.values()));
+    }
+
+    /**
+     * Constructor
+     *
+     * Creates a checker on a copy of the given model for each given configuration.
+     * A configuration can be given several times, then its checkers use different seeds.
+     * @param diagModel a {@link CDRModel} which also implements {@link at.tugraz.ist.ase.cdrmodel.IChocoModel}
+     * @param configurations the configurations of the parallel searches
+     */
+    public PortfolioConsistencyChecker(@NonNull CDRModel diagModel, @NonNull List<SearchConfiguration> configurations) throws CloneNotSupportedException {
+        checkArgument(!configurations.isEmpty(), "The portfolio needs at least one search configuration");
+
+        pool = new CheckerPool(diagModel, configurations.size());
+        for (int i = 0; i < configurations.size(); i++) {
+            ChocoConsistencyChecker checker = pool.getCheckers().get(i);
+            checker.setSearchConfiguration(configurations.get(i), i);
+            // a search stopped by another checker is only a lost race
+            checker.setUnknownPolicy(UnknownPolicy.INCONSISTENT);
+        }
+
+        log.debug("{}Created PortfolioConsistencyChecker for {} [configurations={}]", LoggerUtils.tab, diagModel, configurations);
+    }
+
+    @Override
+    public boolean isConsistent(@NonNull Collection<Constraint> C) {
+        return check(checker -> checker.isConsistent(C));
+    }
+
+    @Override
+    public boolean isConsistent(@NonNull Collection<Constraint> C, @NonNull ITestCase testcase) {
+        return check(checker -> checker.isConsistent(C, testcase));
+    }
+
+    /**
+     * consistent(tα ∧ ¬tγ), see {@link ChocoConsistencyChecker#isConsistent(ITestCase, ITestCase)}
+     */
+    public boolean isConsistent(@NonNull ITestCase testcase, @NonNull ITestCase neg_testcase) {
+        return check(checker -> checker.isConsistent(testcase, neg_testcase));
+    }
+
+    /**
+     * consistent(C - {cstr} ∪ {¬cstr}), see {@link ChocoConsistencyChecker#isConsistent(Collection, Constraint)}
+     */
+    public boolean isConsistent(@NonNull Collection<Constraint> C, @NonNull Constraint cstr) {
+        return check(checker -> checker.isConsistent(C, cstr));
+    }
+
+    /**
+     * @return how often each configuration decided a check first
+     */
+    public Map<SearchConfiguration, Integer> getWins() {
+        return Collections.unmodifiableMap(wins);
+    }
+
+    /**
+     * @return the configuration which decided most checks first, or {@link SearchConfiguration#DEFAULT}
+     * if no check is decided yet
+     */
+    public SearchConfiguration getWinningConfiguration() {
+        return wins.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey)
+                .orElse(SearchConfiguration.DEFAULT);
+    }
+
+    /**
+     * @return the checkers of the portfolio, e.g., to set limits, stop criteria, or pin a background
+     */
+    public List<ChocoConsistencyChecker> getCheckers() {
+        return pool.getCheckers();
+    }
+
+    @Override
+    public void reset() {
+        pool.getCheckers().forEach(ChocoConsistencyChecker::reset);
+    }
+
+    @Override
+    public void dispose() {
+        pool.dispose();
+        pool = null;
+        wins.clear();
+    }
+
+    /**
+     * Gives the check to all checkers of the pool. The first checker deciding the check stops the
+     * searches of the others, which then answer UNKNOWN. The stop criterion of each checker
+     * still stops its search during the check.
+     * @param check the check to run with a checker
+     * @return true if the check is consistent, and false otherwise
+     * @throws UnknownConsistencyException if no search decides the check and the policy is ABORT
+     */
+    private boolean check(Function<ChocoConsistencyChecker, Boolean> check) {
+        log.debug("{}Checking consistency with a portfolio [size={}] >>>", LoggerUtils.tab, pool.size());
+        LoggerUtils.indent();
+
+        AtomicReference<ChocoConsistencyChecker> winner = new AtomicReference<>();
+        Criterion lostRace = () -> winner.get() != null;
+        Map<ChocoConsistencyChecker, Criterion> ownStopCriteria = new IdentityHashMap<>();
+        for (ChocoConsistencyChecker checker : pool.getCheckers()) {
+            Criterion own = checker.getStopCriterion();
+            ownStopCriteria.put(checker, own);
+            checker.setStopCriterion(own == null ? lostRace : () -> lostRace.isMet() || own.isMet());
+        }
+
+        List<Function<ChocoConsistencyChecker, Void>> tasks = new ArrayList<>(pool.size());
+        for (int i = 0; i < pool.size(); i++) {
+            tasks.add(checker -> {
+                if (winner.get() == null) {
+                    check.apply(checker);
+                    if (checker.getLastResult() != ConsistencyResult.UNKNOWN) {
+                        winner.compareAndSet(null, checker);
+                    }
+                }
+                return null;
+            });
+        }
+        try {
+            pool.invokeAll(tasks);
+        } finally {
+            ownStopCriteria.forEach(ChocoConsistencyChecker::setStopCriterion);
+        }
+        incrementCounter(COUNTER_PORTFOLIO_CHECKS);
+
+        ChocoConsistencyChecker decider = winner.get();
+        if (decider != null) {
+            lastResult = decider.getLastResult();
+            lastWinner = decider.getSearchConfiguration();
+            wins.merge(lastWinner, 1, Integer::sum);
+        } else {
+            lastResult = ConsistencyResult.UNKNOWN;
+            lastWinner = null;
+        }
+
+        LoggerUtils.outdent();
+        log.debug("{}<<< Checked with a portfolio [consistency={}, winner={}]", LoggerUtils.tab, lastResult, lastWinner);
+
+        return switch (lastResult) {
+            case CONSISTENT -> true;
+            case INCONSISTENT -> false;
+            case UNKNOWN -> switch (unknownPolicy) {
+                case CONSISTENT -> true;
+                case INCONSISTENT -> false;
+                case ABORT -> throw new UnknownConsistencyException("No search of the portfolio decided the check");
+            };
+        };
+    }
+}
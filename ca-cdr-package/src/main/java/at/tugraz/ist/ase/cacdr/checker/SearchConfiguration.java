@@ -0,0 +1,81 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.search.limits.FailCounter;
+import org.chocosolver.solver.search.strategy.Search;
+import org.chocosolver.solver.variables.IntVar;
+
+/**
+ * Search configurations of {@link ChocoConsistencyChecker}, i.e., the search strategy and
+ * the restarts of the Choco solver. Different configurations are run in parallel
+ * by {@link PortfolioConsistencyChecker}.
+ */
+public enum SearchConfiguration {
+    /**
+     * The default search of Choco.
+     */
+    DEFAULT,
+    /**
+     * dom/wdeg with last conflicts, restarted following the Luby sequence.
+     */
+    DOM_OVER_WDEG_LUBY,
+    /**
+     * Failure rate-based search.
+     */
+    FAILURE_RATE_BASED,
+    /**
+     * Conflict history-based search, restarted following the Luby sequence.
+     */
+    CONFLICT_HISTORY_LUBY,
+    /**
+     * Random variable and value selection with the given seed, restarted following the Luby sequence.
+     */
+    RANDOM_LUBY,
+    /**
+     * Smallest domain first, trying the lower bound first.
+     */
+    MIN_DOM_LB;
+
+    private static final long LUBY_SCALE_FACTOR = 500; // fails
+    private static final int MAX_RESTARTS = 1000;
+
+    /**
+     * Sets the search of the given solver to this configuration, replacing the search and
+     * the restarts of a previous configuration.
+     * @param solver a Choco solver
+     * @param seed the seed of the random configurations
+     */
+    public void configure(Solver solver, long seed) {
+        Model model = solver.getModel();
+        IntVar[] vars = model.retrieveIntVars(true);
+
+        // removes the restarts of a previous configuration
+        solver.setDFS();
+        switch (this) {
+            case DEFAULT -> solver.setSearch(Search.defaultSearch(model));
+            case DOM_OVER_WDEG_LUBY -> {
+                solver.setSearch(Search.lastConflict(Search.domOverWDegSearch(vars)));
+                solver.setLubyRestart(LUBY_SCALE_FACTOR, new FailCounter(model, 0), MAX_RESTARTS);
+            }
+            case FAILURE_RATE_BASED -> solver.setSearch(Search.failureRateBasedSearch(vars));
+            case CONFLICT_HISTORY_LUBY -> {
+                solver.setSearch(Search.conflictHistorySearch(vars));
+                solver.setLubyRestart(LUBY_SCALE_FACTOR, new FailCounter(model, 0), MAX_RESTARTS);
+            }
+            case RANDOM_LUBY -> {
+                solver.setSearch(Search.randomSearch(vars, seed));
+                solver.setLubyRestart(LUBY_SCALE_FACTOR, new FailCounter(model, 0), MAX_RESTARTS);
+            }
+            case MIN_DOM_LB -> solver.setSearch(Search.minDomLBSearch(vars));
+        }
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker;
+
+import java.util.*;
+
+/**
+ * An index of sets of integer items which answers subset and superset queries
+ * without scanning all stored sets.
+ *
+ * For each item, the index keeps a posting list, i.e., the ids of the stored sets
+ * containing the item.
+ * - S is a subset of a stored set if the posting lists of all items in S intersect.
+ * - S is a superset of a stored set T if, counting over the posting lists of the items in S,
+ * the counter of T reaches |T|.
+ * Both queries only touch the posting lists of the items in S.
+ *
+ * Ids are given in the order of insertion. Removed ids are compacted once they
+ * outnumber the stored sets, so that the index doesn't grow with the removals.
+ */
+class SetIndex {
+
+    private static final int MIN_COMPACTION_SIZE = 64; // the number of ids from which removed ids are compacted
+
+    private final List<int[]> sets = new ArrayList<>(); // id -> set of items, null if removed
+    private final Map<Integer, BitSet> postings = new HashMap<>(); // item -> ids of the sets containing the item
+    private final BitSet live = new BitSet(); // ids of the stored sets
+    private final BitSet empties = new BitSet(); // ids of the stored empty sets
+
+    /**
+     * @return true if S is a subset of (or equals to) a stored set
+     */
+    boolean containsSupersetOf(int[] S) {
+        return !supersetsOf(S).isEmpty();
+    }
+
+    /**
+     * @return true if S is a superset of (or equals to) a stored set
+     */
+    boolean containsSubsetOf(int[] S) {
+        return !subsetsOf(S, true).isEmpty();
+    }
+
+    /**
+     * Removes the stored sets which are subsets of S.
+     */
+    void removeSubsetsOf(int[] S) {
+        subsetsOf(S, false).forEach(this::remove);
+        compactIfNeeded();
+    }
+
+    /**
+     * Removes the stored sets which are supersets of S.
+     */
+    void removeSupersetsOf(int[] S) {
+        supersetsOf(S).stream().forEach(this::remove);
+        compactIfNeeded();
+    }
+
+    /**
+     * Removes the least recently added set.
+     * @return false if there is no stored set
+     */
+    boolean removeOldest() {
+        int id = live.nextSetBit(0);
+        if (id < 0) {
+            return false;
+        }
+
+        remove(id);
+        compactIfNeeded();
+        return true;
+    }
+
+    void add(int[] S) {
+        int id = sets.size();
+        sets.add(S);
+        live.set(id);
+
+        if (S.length == 0) {
+            empties.set(id);
+        }
+        for (int item : S) {
+            postings.computeIfAbsent(item, k -> new BitSet()).set(id);
+        }
+    }
+
+    int size() {
+        return live.cardinality();
+    }
+
+    /**
+     * @return true if a stored set contains the given item
+     */
+    boolean containsItem(int item) {
+        return postings.containsKey(item);
+    }
+
+    void clear() {
+        sets.clear();
+        postings.clear();
+        live.clear();
+        empties.clear();
+    }
+
+    /**
+     * Intersects the posting lists of the items in S, starting from the shortest one.
+     * @return ids of the stored sets which are supersets of S
+     */
+    private BitSet supersetsOf(int[] S) {
+        if (S.length == 0) {
+            return (BitSet) live.clone();
+        }
+
+        List<BitSet> lists = new ArrayList<>(S.length);
+        for (int item : S) {
+            BitSet list = postings.get(item);
+            if (list == null || list.isEmpty()) {
+                return new BitSet(); // no stored set contains this item
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(BitSet::cardinality));
+
+        BitSet result = (BitSet) lists.get(0).clone();
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.and(lists.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Counts, for each stored set, how many of its items belong to S.
+     * @param onlyOne true - stops at the first found subset
+     * @return ids of the stored sets which are subsets of S
+     */
+    private List<Integer> subsetsOf(int[] S, boolean onlyOne) {
+        List<Integer> result = new ArrayList<>();
+        empties.stream().forEach(result::add);
+        if (onlyOne && !result.isEmpty()) {
+            return result;
+        }
+
+        Map<Integer, Integer> counters = new HashMap<>();
+        for (int item : S) {
+            BitSet list = postings.get(item);
+            if (list == null) {
+                continue;
+            }
+
+            for (int id = list.nextSetBit(0); id >= 0; id = list.nextSetBit(id + 1)) {
+                int count = counters.merge(id, 1, Integer::sum);
+                if (count == sets.get(id).length) {
+                    result.add(id);
+
+                    if (onlyOne) {
+                        return result;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private void remove(int id) {
+        int[] S = sets.get(id);
+        for (int item : S) {
+            BitSet list = postings.get(item);
+            list.clear(id);
+            if (list.isEmpty()) {
+                postings.remove(item);
+            }
+        }
+        sets.set(id, null);
+        live.clear(id);
+        empties.clear(id);
+    }
+
+    /**
+     * Gives new ids to the stored sets, in the same order, if the removed ids outnumber the stored sets.
+     */
+    private void compactIfNeeded() {
+        if (sets.size() < MIN_COMPACTION_SIZE || sets.size() - size() <= size()) {
+            return;
+        }
+
+        List<int[]> stored = new ArrayList<>(size());
+        live.stream().forEach(id -> stored.add(sets.get(id)));
+        clear();
+        stored.forEach(this::add);
+    }
+
+    /**
+     * @return the number of ids, including the removed ones
+     */
+    int capacity() {
+        return sets.size();
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker;
+
+import at.tugraz.ist.ase.common.LoggerUtils;
+import at.tugraz.ist.ase.test.Assignment;
+import at.tugraz.ist.ase.test.ITestCase;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+
+/**
+ * The redundancy relation of a list of test cases, i.e., for each pair (tα, tγ), whether tγ is redundant
+ * given tα, which is the case if consistent(tα ∧ ¬tγ) is false (see {@link IConsistencyChecker#isConsistent(ITestCase, ITestCase)}).
+ * The relation is stored as one bitset per test case tα, whose bits are the test cases tγ redundant given tα.
+ *
+ * Most pairs are decided without a check:
+ * + tγ is redundant given tα if all assignments of tγ are assignments of tα,
+ * + tγ isn't redundant given a consistent tα if tα assigns another value to a variable of tγ,
+ *   where tα is known to be consistent as soon as one of its checks is consistent,
+ * + the relation is transitive: if tβ is redundant given tα, all test cases redundant given tβ are
+ *   redundant given tα, and if tα is redundant given tβ, all test cases not redundant given tβ aren't
+ *   redundant given tα.
+ *
+ * The rows of the matrix are computed in parallel by the checkers of a {@link CheckerPool},
+ * or one by one by a single checker.
+ */
+@Slf4j
+public class TestCaseRedundancyMatrix {
+
+    @Getter
+    private final List<ITestCase> testcases;
+    private final BitSet[] redundant; // α -> the test cases redundant given tα
+
+    /**
+     * The number of pairs decided by checks, by the assignments, and by the transitivity
+     */
+    @Getter
+    private int numOfChecks = 0;
+    @Getter
+    private int numOfAssignmentDecisions = 0;
+    @Getter
+    private int numOfTransitiveDecisions = 0;
+
+    // the state of the computation
+    private final Map<Assignment, BitSet> holders = new HashMap<>(); // assignment -> test cases having it
+    private final Map<String, BitSet> variableHolders = new HashMap<>(); // variable -> test cases assigning it
+    private final AtomicReferenceArray<BitSet> finishedRows;
+    private final AtomicInteger checks = new AtomicInteger();
+    private final AtomicInteger assignmentDecisions = new AtomicInteger();
+    private final AtomicInteger transitiveDecisions = new AtomicInteger();
+
+    private TestCaseRedundancyMatrix(List<ITestCase> testcases) {
+        this.testcases = Collections.unmodifiableList(new ArrayList<>(testcases));
+        redundant = new BitSet[testcases.size()];
+        finishedRows = new AtomicReferenceArray<>(testcases.size());
+
+        for (int i = 0; i < testcases.size(); i++) {
+            for (Assignment assignment : testcases.get(i).getAssignments()) {
+                holders.computeIfAbsent(assignment, k -> new BitSet()).set(i);
+                variableHolders.computeIfAbsent(assignment.getVariable(), k -> new BitSet()).set(i);
+            }
+        }
+    }
+
+    /**
+     * Computes the redundancy relation of the given test cases with a single checker.
+     * @param checker a checker of a model containing the test cases
+     * @param testcases the test cases
+     */
+    public static TestCaseRedundancyMatrix compute(@NonNull IConsistencyChecker checker, @NonNull List<ITestCase> testcases) {
+        TestCaseRedundancyMatrix matrix = new TestCaseRedundancyMatrix(testcases);
+        log.debug("{}Computing redundancy matrix [testcases={}] >>>", LoggerUtils.tab, testcases.size());
+        LoggerUtils.indent();
+
+        for (int alpha = 0; alpha < testcases.size(); alpha++) {
+            matrix.computeRow(checker, alpha);
+        }
+
+        matrix.finish();
+        return matrix;
+    }
+
+    /**
+     * Computes the redundancy relation of the given test cases, each row with a checker of the pool.
+     * @param pool a pool of checkers of a model containing the test cases
+     * @param testcases the test cases
+     */
+    public static TestCaseRedundancyMatrix compute(@NonNull CheckerPool pool, @NonNull List<ITestCase> testcases) {
+        TestCaseRedundancyMatrix matrix = new TestCaseRedundancyMatrix(testcases);
+        log.debug("{}Computing redundancy matrix [testcases={}, checkers={}] >>>", LoggerUtils.tab, testcases.size(), pool.size());
+        LoggerUtils.indent();
+
+        List<Function<ChocoConsistencyChecker, Void>> tasks = IntStream.range(0, testcases.size())
+                .mapToObj(alpha -> (Function<ChocoConsistencyChecker, Void>) checker -> matrix.computeRow(checker, alpha))
+                .toList();
+        pool.invokeAll(tasks);
+
+        matrix.finish();
+        return matrix;
+    }
+
+    private void finish() {
+        for (int alpha = 0; alpha < testcases.size(); alpha++) {
+            redundant[alpha] = finishedRows.get(alpha);
+        }
+        holders.clear();
+        variableHolders.clear();
+        numOfChecks = checks.get();
+        numOfAssignmentDecisions = assignmentDecisions.get();
+        numOfTransitiveDecisions = transitiveDecisions.get();
+
+        LoggerUtils.outdent();
+        log.debug("{}<<< Computed redundancy matrix [checks={}, by assignments={}, by transitivity={}]", LoggerUtils.tab,
+                numOfChecks, numOfAssignmentDecisions, numOfTransitiveDecisions);
+    }
+
+    /**
+     * Computes the test cases redundant given tα.
+     */
+    private Void computeRow(IConsistencyChecker checker, int alpha) {
+        int n = testcases.size();
+        BitSet row = new BitSet(n);
+        BitSet decided = new BitSet(n);
+        List<Assignment> assignments = testcases.get(alpha).getAssignments();
+
+        // tα itself, and the test cases whose assignments are all assignments of tα
+        row.set(alpha);
+        Set<Assignment> assignmentSet = new HashSet<>(assignments);
+        BitSet others = new BitSet(n);
+        for (Assignment assignment : assignments) {
+            others.or(holders.get(assignment));
+        }
+        for (int gamma = others.nextSetBit(0); gamma >= 0; gamma = others.nextSetBit(gamma + 1)) {
+            if (gamma != alpha && assignmentSet.containsAll(testcases.get(gamma).getAssignments())) {
+                row.set(gamma);
+                assignmentDecisions.incrementAndGet();
+            }
+        }
+        decided.or(row);
+
+        // the test cases assigning another value to a variable of tα, which are decided once tα is known to be consistent
+        BitSet conflicting = new BitSet(n);
+        for (Assignment assignment : assignments) {
+            BitSet otherValues = (BitSet) variableHolders.get(assignment.getVariable()).clone();
+            otherValues.andNot(holders.get(assignment));
+            conflicting.or(otherValues);
+        }
+        boolean consistent = false;
+        BitSet scratch = new BitSet(n); // reused by the transitive decisions
+
+        for (int gamma = 0; gamma < n; gamma++) {
+            if (decided.get(gamma)) {
+                if (row.get(gamma)) {
+                    merge(row, decided, scratch, gamma);
+                }
+                continue;
+            }
+
+            // tα is redundant given a finished tγ
+            BitSet finished = finishedRows.get(gamma);
+            if (finished != null && finished.get(alpha)) {
+                // the undecided test cases which are not redundant given tγ
+                scratch.set(0, n);
+                scratch.andNot(finished);
+                scratch.andNot(decided);
+                decided.or(scratch);
+                transitiveDecisions.addAndGet(scratch.cardinality());
+                if (decided.get(gamma)) {
+                    continue;
+                }
+            }
+
+            if (consistent && conflicting.get(gamma)) {
+                decided.set(gamma);
+                assignmentDecisions.incrementAndGet();
+                continue;
+            }
+
+            checks.incrementAndGet();
+            if (checker.isConsistent(testcases.get(alpha), testcases.get(gamma))) {
+                consistent = true;
+            } else {
+                row.set(gamma);
+                merge(row, decided, scratch, gamma);
+            }
+            decided.set(gamma);
+        }
+
+        finishedRows.set(alpha, row);
+        return null;
+    }
+
+    /**
+     * tγ is redundant given tα, hence all test cases redundant given a finished tγ are also redundant given tα.
+     */
+    private void merge(BitSet row, BitSet decided, BitSet scratch, int gamma) {
+        BitSet finished = finishedRows.get(gamma);
+        if (finished == null) {
+            return;
+        }
+
+        scratch.clear();
+        scratch.or(finished);
+        scratch.andNot(decided);
+        row.or(finished);
+        decided.or(finished);
+        transitiveDecisions.addAndGet(scratch.cardinality());
+    }
+
+    /**
+     * @return true if tγ is redundant given tα, i.e., consistent(tα ∧ ¬tγ) is false
+     */
+    public boolean isRedundant(int alpha, int gamma) {
+        checkElementIndex(alpha, testcases.size());
+        checkElementIndex(gamma, testcases.size());
+
+        return redundant[alpha].get(gamma);
+    }
+
+    /**
+     * @return the indexes of the test cases redundant given tα, including tα itself
+     */
+    public BitSet getRedundant(int alpha) {
+        checkElementIndex(alpha, testcases.size());
+
+        return (BitSet) redundant[alpha].clone();
+    }
+
+    /**
+     * Removes the redundant test cases in the order of the test cases, i.e., a test case is removed
+     * if it's redundant given another test case which is not removed.
+     * @return the remaining test cases
+     */
+    public List<ITestCase> getNonRedundantTestCases() {
+        int n = testcases.size();
+        BitSet removed = new BitSet(n);
+        for (int gamma = 0; gamma < n; gamma++) {
+            for (int alpha = 0; alpha < n; alpha++) {
+                if (alpha != gamma && !removed.get(alpha) && redundant[alpha].get(gamma)) {
+                    removed.set(gamma);
+                    break;
+                }
+            }
+        }
+
+        List<ITestCase> TC = new ArrayList<>(n - removed.cardinality());
+        for (int i = removed.nextClearBit(0); i < n; i = removed.nextClearBit(i + 1)) {
+            TC.add(testcases.get(i));
+        }
+        return TC;
+    }
+
+    /**
+     * @return the number of test cases
+     */
+    public int size() {
+        return testcases.size();
+    }
+}
@@ -0,0 +1,21 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker;
+
+/**
+ * An exception thrown by a consistency checker with the {@link UnknownPolicy#ABORT} policy
+ * when the result of a check is {@link ConsistencyResult#UNKNOWN}.
+ */
+public class UnknownConsistencyException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public UnknownConsistencyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,27 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker;
+
+/**
+ * Policies of a consistency checker to answer a check whose result is {@link ConsistencyResult#UNKNOWN}.
+ */
+public enum UnknownPolicy {
+    /**
+     * Treats the check as consistent.
+     */
+    CONSISTENT,
+    /**
+     * Treats the check as inconsistent.
+     */
+    INCONSISTENT,
+    /**
+     * Throws an {@link UnknownConsistencyException}, which stops the running algorithm.
+     */
+    ABORT
+}
@@ -0,0 +1,222 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker.bdd;
+
+import lombok.Getter;
+
+import java.util.*;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A store of reduced ordered binary decision diagrams (BDDs) sharing their nodes.
+ *
+ * Variables are identified by their levels in the order, from 0 (the top) to numOfLevels - 1.
+ * A node is identified by an int, where {@link #FALSE} and {@link #TRUE} are the terminals.
+ * Nodes are never removed, hence the store should only be used to build a few BDDs.
+ */
+public class Bdd {
+
+    public static final int FALSE = 0;
+    public static final int TRUE = 1;
+
+    private static final int AND = 0;
+    private static final int OR = 1;
+
+    @Getter
+    private final int numOfLevels;
+
+    private int[] levels = new int[1024];
+    private int[] lows = new int[1024];
+    private int[] highs = new int[1024];
+    private int size = 0;
+
+    private final List<Map<Long, Integer>> uniqueTables = new ArrayList<>(); // per level, (low, high) -> node
+    private final Map<Long, Integer> applyCache = new HashMap<>();
+    private final Map<Integer, Integer> notCache = new HashMap<>();
+
+    // satisfiability checks
+    private int[] visited = new int[1024]; // the stamp of the last check, in which the node cannot reach TRUE
+    private int stamp = 0;
+
+    public Bdd(int numOfLevels) {
+        this.numOfLevels = numOfLevels;
+        for (int i = 0; i < numOfLevels; i++) {
+            uniqueTables.add(new HashMap<>());
+        }
+
+        // the terminals are below all variables
+        addNode(numOfLevels, FALSE, FALSE);
+        addNode(numOfLevels, TRUE, TRUE);
+    }
+
+    /**
+     * @return the number of nodes, including the terminals
+     */
+    public int size() {
+        return size;
+    }
+
+    public int getLevel(int node) {
+        return levels[node];
+    }
+
+    public int getLow(int node) {
+        return lows[node];
+    }
+
+    public int getHigh(int node) {
+        return highs[node];
+    }
+
+    /**
+     * Gets the node (level ? high : low), which is created if not existing yet.
+     * @param level the level of the node, which is above the levels of low and high
+     * @param low the node if the variable is false
+     * @param high the node if the variable is true
+     * @return the node
+     */
+    public int mk(int level, int low, int high) {
+        checkArgument(level >= 0 && level < numOfLevels, "Unknown level %s", level);
+        checkArgument(level < levels[low] && level < levels[high], "The children must be below the level %s", level);
+
+        if (low == high) {
+            return low;
+        }
+        return uniqueTables.get(level).computeIfAbsent(pair(low, high), k -> addNode(level, low, high));
+    }
+
+    /**
+     * @return the BDD of the variable of the given level if positive, or of its negation otherwise
+     */
+    public int literal(int level, boolean positive) {
+        return positive ? mk(level, FALSE, TRUE) : mk(level, TRUE, FALSE);
+    }
+
+    public int and(int u, int v) {
+        applyCache.clear();
+        return apply(AND, u, v);
+    }
+
+    public int or(int u, int v) {
+        applyCache.clear();
+        return apply(OR, u, v);
+    }
+
+    public int not(int u) {
+        if (u == FALSE || u == TRUE) {
+            return 1 - u;
+        }
+        Integer cached = notCache.get(u);
+        if (cached != null) {
+            return cached;
+        }
+        int result = mk(levels[u], not(lows[u]), not(highs[u]));
+        notCache.put(u, result);
+        return result;
+    }
+
+    /**
+     * Checks whether there is a path from the given node to {@link #TRUE}, which respects the given values.
+     * Doesn't create any node, and visits each node at most once.
+     * @param u a node
+     * @param values the value of each level: 1 (true), 0 (false), or -1 (free)
+     * @return true if the BDD is satisfiable under the given values, and false otherwise
+     */
+    public boolean isSatisfiable(int u, int[] values) {
+        checkArgument(values.length == numOfLevels, "A value for each level is required");
+
+        if (++stamp == Integer.MAX_VALUE) {
+            Arrays.fill(visited, 0);
+            stamp = 1;
+        }
+        return reachesTrue(u, values);
+    }
+
+    /**
+     * @return the number of nodes of the given BDD, including the terminals
+     */
+    public int count(int u) {
+        Set<Integer> nodes = new HashSet<>();
+        Deque<Integer> stack = new ArrayDeque<>(List.of(u));
+        while (!stack.isEmpty()) {
+            int node = stack.pop();
+            if (nodes.add(node) && node > TRUE) {
+                stack.push(lows[node]);
+                stack.push(highs[node]);
+            }
+        }
+        return nodes.size();
+    }
+
+    private boolean reachesTrue(int u, int[] values) {
+        if (u == TRUE) {
+            return true;
+        }
+        if (u == FALSE || visited[u] == stamp) {
+            return false;
+        }
+
+        int value = values[levels[u]];
+        boolean result = (value != 1 && reachesTrue(lows[u], values))
+                || (value != 0 && reachesTrue(highs[u], values));
+        if (!result) {
+            visited[u] = stamp;
+        }
+        return result;
+    }
+
+    private int apply(int op, int u, int v) {
+        // terminal cases
+        if (op == AND) {
+            if (u == FALSE || v == FALSE) return FALSE;
+            if (u == TRUE) return v;
+            if (v == TRUE || u == v) return u;
+        } else {
+            if (u == TRUE || v == TRUE) return TRUE;
+            if (u == FALSE) return v;
+            if (v == FALSE || u == v) return u;
+        }
+
+        // both operators are commutative
+        long key = u < v ? pair(u, v) : pair(v, u);
+        Integer cached = applyCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        int level = Math.min(levels[u], levels[v]);
+        int uLow = levels[u] == level ? lows[u] : u;
+        int uHigh = levels[u] == level ? highs[u] : u;
+        int vLow = levels[v] == level ? lows[v] : v;
+        int vHigh = levels[v] == level ? highs[v] : v;
+
+        int result = mk(level, apply(op, uLow, vLow), apply(op, uHigh, vHigh));
+        applyCache.put(key, result);
+        return result;
+    }
+
+    private int addNode(int level, int low, int high) {
+        if (size == levels.length) {
+            int capacity = levels.length * 2;
+            levels = Arrays.copyOf(levels, capacity);
+            lows = Arrays.copyOf(lows, capacity);
+            highs = Arrays.copyOf(highs, capacity);
+            visited = Arrays.copyOf(visited, capacity);
+        }
+        levels[size] = level;
+        lows[size] = low;
+        highs[size] = high;
+        return size++;
+    }
+
+    private static long pair(int a, int b) {
+        return ((long) a << 32) | (b & 0xFFFFFFFFL);
+    }
+}
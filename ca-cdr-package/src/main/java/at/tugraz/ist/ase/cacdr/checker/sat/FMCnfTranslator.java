@@ -0,0 +1,153 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker.sat;
+
+import at.tugraz.ist.ase.cdrmodel.fm.FMDebuggingModel;
+import at.tugraz.ist.ase.fm.core.BasicRelationship;
+import at.tugraz.ist.ase.fm.core.FeatureModel;
+import at.tugraz.ist.ase.fm.core.Relationship;
+import at.tugraz.ist.ase.fm.core.ThreeCNFConstraint;
+import at.tugraz.ist.ase.kb.core.Constraint;
+import at.tugraz.ist.ase.test.Assignment;
+import at.tugraz.ist.ase.test.TestCase;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.*;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Translates the constraints of a {@link FMDebuggingModel} into clauses,
+ * with the same semantics as {@link at.tugraz.ist.ase.kb.fm.FMKB}.
+ *
+ * The i-th feature of the feature model is the variable i + 1, and a clause is
+ * an array of literals as in the DIMACS format.
+ */
+public class FMCnfTranslator {
+
+    private final Map<String, Integer> variables = new HashMap<>(); // feature name -> variable
+
+    /**
+     * The clauses of each constraint, in the order of the constraints of the feature model
+     */
+    @Getter
+    private final Map<Constraint, List<int[]>> clauses = new LinkedHashMap<>();
+
+    public FMCnfTranslator(@NonNull FMDebuggingModel diagModel) {
+        FeatureModel featureModel = diagModel.getFeatureModel();
+
+        for (int i = 0; i < featureModel.getNumOfFeatures(); i++) {
+            variables.put(featureModel.getFeature(i).getName(), i + 1);
+        }
+
+        if (diagModel.isRootConstraints()) {
+            // {f0 = true}
+            String f0 = featureModel.getFeature(0).getName();
+            clauses.put(new Constraint(f0 + " = true"), List.of(new int[]{getVariable(f0)}));
+        }
+        for (Relationship relationship : featureModel.getRelationships()) {
+            clauses.put(new Constraint(relationship.getConfRule()), translate(relationship));
+        }
+        for (Relationship relationship : featureModel.getConstraints()) {
+            clauses.put(new Constraint(relationship.getConfRule()), translate(relationship));
+        }
+    }
+
+    /**
+     * @return the number of variables, i.e., the number of features
+     */
+    public int getNumOfVariables() {
+        return variables.size();
+    }
+
+    public int getVariable(@NonNull String feature) {
+        Integer v = variables.get(feature);
+        checkArgument(v != null, "Feature %s not found in the model", feature);
+        return v;
+    }
+
+    /**
+     * @return the clauses of the given constraint
+     */
+    public List<int[]> getClauses(@NonNull Constraint c) {
+        List<int[]> cnf = clauses.get(c);
+        checkArgument(cnf != null, "The constraint %s isn't a constraint of the feature model", c);
+        return cnf;
+    }
+
+    /**
+     * @return the literals of the assignments of the given test case
+     */
+    public int[] getLiterals(@NonNull TestCase testcase) {
+        int[] literals = new int[testcase.getAssignments().size()];
+        int i = 0;
+        for (Assignment assignment : testcase.getAssignments()) {
+            int v = getVariable(assignment.getVariable());
+            literals[i++] = assignment.getValue().equals("true") ? v : -v;
+        }
+        return literals;
+    }
+
+    /**
+     * Translates a relationship or a cross-tree constraint into clauses.
+     */
+    private List<int[]> translate(Relationship relationship) {
+        List<int[]> cnf = new ArrayList<>();
+
+        if (relationship instanceof ThreeCNFConstraint threeCNFConstraint) {
+            // l1 ∨ l2 ∨ l3
+            cnf.add(threeCNFConstraint.getClauses().stream()
+                    .mapToInt(clause -> clause.isPositive() ? getVariable(clause.getLiteral()) : -getVariable(clause.getLiteral()))
+                    .toArray());
+            return cnf;
+        }
+
+        BasicRelationship basicRelationship = (BasicRelationship) relationship;
+        int left = getVariable(basicRelationship.getLeftSide().getName());
+        int[] rights = basicRelationship.getRightSide().stream().mapToInt(f -> getVariable(f.getName())).toArray();
+
+        switch (relationship.getType()) {
+            case MANDATORY -> {
+                // left <=> right
+                cnf.add(new int[]{-left, rights[0]});
+                cnf.add(new int[]{left, -rights[0]});
+            }
+            // left => right
+            case OPTIONAL, REQUIRES -> cnf.add(new int[]{-left, rights[0]});
+            case OR -> {
+                // left <=> (r1 ∨ ... ∨ rn)
+                cnf.add(orOf(-left, rights));
+                for (int right : rights) {
+                    cnf.add(new int[]{left, -right});
+                }
+            }
+            case ALTERNATIVE -> {
+                // (¬left ∧ ¬r1 ∧ ... ∧ ¬rn) ∨ (left ∧ r1 + ... + rn = 1)
+                cnf.add(orOf(-left, rights));
+                for (int i = 0; i < rights.length; i++) {
+                    cnf.add(new int[]{left, -rights[i]});
+                    for (int j = i + 1; j < rights.length; j++) {
+                        cnf.add(new int[]{-rights[i], -rights[j]});
+                    }
+                }
+            }
+            case EXCLUDES -> cnf.add(new int[]{-left, -rights[0]});
+            default -> throw new IllegalStateException("Unexpected value: " + relationship.getType());
+        }
+        return cnf;
+    }
+
+    private static int[] orOf(int first, int[] others) {
+        int[] clause = new int[others.length + 1];
+        clause[0] = first;
+        System.arraycopy(others, 0, clause, 1, others.length);
+        return clause;
+    }
+}
@@ -0,0 +1,635 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker.sat;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A small incremental CDCL SAT solver.
+ *
+ * Supports solving under assumptions, i.e., literals which hold only for one call of {@link #solve(int...)}.
+ * Clauses learned by a call are implied by the clauses of the solver, hence they are kept for the next calls.
+ * Learned clauses are halved when there are too many of them.
+ *
+ * Variables are created by {@link #newVariable()}, and numbered from 1. As in the DIMACS format,
+ * a literal is a positive (the variable is true) or negative (the variable is false) variable number.
+ * Each variable is decided to false first, unless it was true in the last assignment.
+ *
+ * The implementation follows MiniSat: two watched literals, first-UIP learning with non-chronological
+ * backtracking, VSIDS branching with phase saving, and Luby restarts.
+ */
+public class SatSolver {
+
+    private static final int UNDEF = -1;
+    private static final double VAR_DECAY = 0.95;
+    private static final int RESTART_BASE = 100;
+
+    private static final class Clause {
+        final int[] lits; // lits[0] and lits[1] are watched
+        boolean deleted = false;
+
+        Clause(int[] lits) {
+            this.lits = lits;
+        }
+    }
+
+    @Getter
+    private int numVariables = 0;
+
+    // per variable, index 0 is unused
+    private int[] values = new int[1]; // UNDEF, 0 (false) or 1 (true)
+    private int[] levels = new int[1];
+    private Clause[] reasons = new Clause[1];
+    private boolean[] phases = new boolean[1]; // the last value
+    private boolean[] seen = new boolean[1];
+    private double[] activities = new double[1];
+    private double varInc = 1;
+    private final VariableHeap heap = new VariableHeap();
+
+    // per literal, literal 2v means v is true, literal 2v+1 means v is false
+    private final List<List<Clause>> watches = new ArrayList<>(List.of(new ArrayList<>(), new ArrayList<>()));
+
+    private final List<Clause> clauses = new ArrayList<>();
+    private final List<Clause> learnedClauses = new ArrayList<>();
+    private double maxLearnedClauses = 1000;
+
+    private int[] trail = new int[1];
+    private int trailSize = 0;
+    private int propagationHead = 0;
+    private int[] trailLimits = new int[1];
+    private int decisionLevel = 0;
+
+    private boolean ok = true; // false if the clauses are inconsistent without any assumption
+
+    @Getter
+    private long numConflicts = 0;
+
+    private int[] conflict = new int[0]; // the refuted assumptions of the last call of solve
+
+    /**
+     * Creates a new variable.
+     * @return the number of the variable
+     */
+    public int newVariable() {
+        int v = ++numVariables;
+        if (v >= values.length) {
+            int capacity = values.length * 2;
+            values = Arrays.copyOf(values, capacity);
+            levels = Arrays.copyOf(levels, capacity);
+            reasons = Arrays.copyOf(reasons, capacity);
+            phases = Arrays.copyOf(phases, capacity);
+            seen = Arrays.copyOf(seen, capacity);
+            activities = Arrays.copyOf(activities, capacity);
+            trail = Arrays.copyOf(trail, capacity);
+        }
+        values[v] = UNDEF;
+        watches.add(new ArrayList<>());
+        watches.add(new ArrayList<>());
+        heap.insert(v);
+        return v;
+    }
+
+    /**
+     * Adds a clause, i.e., a disjunction of the given literals.
+     * @param literals literals of existing variables
+     * @return false if the clauses became inconsistent, and true otherwise
+     */
+    public boolean addClause(int... literals) {
+        cancelUntil(0);
+        if (!ok) {
+            return false;
+        }
+
+        int[] lits = new int[literals.length];
+        int size = 0;
+        for (int literal : literals) {
+            int lit = toLit(literal);
+            int value = value(lit);
+            if (value == 1 || contains(lits, size, lit ^ 1)) {
+                return true; // satisfied at the root, or a tautology
+            }
+            if (value == UNDEF && !contains(lits, size, lit)) {
+                lits[size++] = lit;
+            }
+        }
+
+        if (size == 0) {
+            ok = false;
+        } else if (size == 1) {
+            assign(lits[0], null);
+            ok = propagate() == null;
+        } else {
+            Clause clause = new Clause(Arrays.copyOf(lits, size));
+            clauses.add(clause);
+            watch(clause);
+        }
+        return ok;
+    }
+
+    /**
+     * Checks whether the clauses are satisfiable when all given literals hold.
+     * @param assumptions literals of existing variables
+     * @return true if satisfiable, and false otherwise
+     */
+    public boolean solve(int... assumptions) {
+        conflict = new int[0];
+        if (!ok) {
+            return false;
+        }
+
+        int[] lits = new int[assumptions.length];
+        for (int i = 0; i < assumptions.length; i++) {
+            lits[i] = toLit(assumptions[i]);
+        }
+
+        try {
+            Boolean result = null;
+            for (int restarts = 0; result == null; restarts++) {
+                result = search(lits, (long) (luby(restarts) * RESTART_BASE));
+            }
+            return result;
+        } finally {
+            cancelUntil(0);
+        }
+    }
+
+    /**
+     * Gets the assumptions of the last call of {@link #solve(int...)} which cannot hold together,
+     * if the call returned false. These assumptions are usually far fewer than all assumptions,
+     * but not necessarily a minimal subset.
+     * @return a subset of the assumptions, which is empty if the clauses are unsatisfiable
+     * without any assumption, or if the last call returned true
+     */
+    public int[] getConflict() {
+        return conflict.clone();
+    }
+
+    /**
+     * @return the number of learned clauses which are kept
+     */
+    public int getNumLearnedClauses() {
+        return learnedClauses.size();
+    }
+
+    /**
+     * @return the number of clauses, without learned clauses
+     */
+    public int getNumClauses() {
+        return clauses.size();
+    }
+
+    /**
+     * Searches until a solution is found, the assumptions are refuted, or the given number of conflicts is reached.
+     * @return true/false if satisfiable/unsatisfiable, or null if the search should be restarted
+     */
+    private Boolean search(int[] assumptions, long maxConflicts) {
+        long conflicts = 0;
+        while (true) {
+            Clause conflict = propagate();
+            if (conflict != null) {
+                numConflicts++;
+                conflicts++;
+                if (decisionLevel == 0) {
+                    ok = false;
+                    return false;
+                }
+
+                int[] learned = analyze(conflict);
+                cancelUntil(backtrackLevel(learned));
+                if (learned.length == 1) {
+                    assign(learned[0], null);
+                } else {
+                    Clause clause = new Clause(learned);
+                    learnedClauses.add(clause);
+                    watch(clause);
+                    assign(learned[0], clause);
+                }
+                varInc /= VAR_DECAY;
+            } else {
+                if (conflicts >= maxConflicts) {
+                    cancelUntil(0);
+                    return null;
+                }
+                if (learnedClauses.size() - trailSize >= maxLearnedClauses) {
+                    reduceLearnedClauses();
+                }
+
+                int next = UNDEF;
+                while (decisionLevel < assumptions.length) {
+                    int p = assumptions[decisionLevel];
+                    int value = value(p);
+                    if (value == 1) {
+                        newDecisionLevel(); // a dummy level, keeps the assumptions aligned to the levels
+                    } else if (value == 0) {
+                        analyzeFinal(p);
+                        return false; // the assumptions are refuted
+                    } else {
+                        next = p;
+                        break;
+                    }
+                }
+
+                if (next == UNDEF) {
+                    next = pickBranchLiteral();
+                    if (next == UNDEF) {
+                        return true; // all variables are assigned
+                    }
+                }
+                newDecisionLevel();
+                assign(next, null);
+            }
+        }
+    }
+
+    /**
+     * Propagates all enqueued assignments.
+     * @return a conflicting clause, or null if there is no conflict
+     */
+    private Clause propagate() {
+        Clause conflict = null;
+        while (propagationHead < trailSize) {
+            int falseLit = trail[propagationHead++] ^ 1;
+            List<Clause> ws = watches.get(falseLit);
+
+            int i = 0, j = 0;
+            int size = ws.size();
+            while (i < size) {
+                Clause clause = ws.get(i++);
+                if (clause.deleted) {
+                    continue;
+                }
+
+                int[] lits = clause.lits;
+                if (lits[0] == falseLit) {
+                    lits[0] = lits[1];
+                    lits[1] = falseLit;
+                }
+
+                if (value(lits[0]) == 1) {
+                    ws.set(j++, clause);
+                    continue;
+                }
+
+                boolean moved = false;
+                for (int k = 2; k < lits.length; k++) {
+                    if (value(lits[k]) != 0) {
+                        lits[1] = lits[k];
+                        lits[k] = falseLit;
+                        watches.get(lits[1]).add(clause);
+                        moved = true;
+                        break;
+                    }
+                }
+                if (moved) {
+                    continue;
+                }
+
+                ws.set(j++, clause);
+                if (value(lits[0]) == 0) {
+                    conflict = clause;
+                    propagationHead = trailSize;
+                    while (i < size) {
+                        ws.set(j++, ws.get(i++));
+                    }
+                } else {
+                    assign(lits[0], clause);
+                }
+            }
+            ws.subList(j, size).clear();
+        }
+        return conflict;
+    }
+
+    /**
+     * First-UIP conflict analysis.
+     * @return the learned clause, whose first literal is asserted after backtracking
+     */
+    private int[] analyze(Clause conflict) {
+        List<Integer> learned = new ArrayList<>();
+        learned.add(UNDEF); // the asserting literal
+
+        int pathCount = 0;
+        int p = UNDEF;
+        int index = trailSize - 1;
+        Clause reason = conflict;
+        do {
+            int[] lits = reason.lits;
+            for (int k = (p == UNDEF) ? 0 : 1; k < lits.length; k++) {
+                int q = lits[k];
+                int v = q >> 1;
+                if (!seen[v] && levels[v] > 0) {
+                    bumpActivity(v);
+                    seen[v] = true;
+                    if (levels[v] >= decisionLevel) {
+                        pathCount++;
+                    } else {
+                        learned.add(q);
+                    }
+                }
+            }
+
+            while (!seen[trail[index] >> 1]) {
+                index--;
+            }
+            p = trail[index--];
+            reason = reasons[p >> 1];
+            seen[p >> 1] = false;
+            pathCount--;
+        } while (pathCount > 0);
+        learned.set(0, p ^ 1);
+
+        // removes literals implied by the other literals of the clause
+        int[] lits = new int[learned.size()];
+        int size = 0;
+        for (int k = 0; k < learned.size(); k++) {
+            int q = learned.get(k);
+            if (k == 0 || !isRedundant(q)) {
+                lits[size++] = q;
+            }
+        }
+        for (int q : learned.subList(1, learned.size())) {
+            seen[q >> 1] = false;
+        }
+        return Arrays.copyOf(lits, size);
+    }
+
+    /**
+     * Collects the assumptions which imply the negation of the given assumption.
+     * All decisions on the trail are assumptions, since the assumptions are decided first.
+     */
+    private void analyzeFinal(int p) {
+        List<Integer> assumptions = new ArrayList<>();
+        assumptions.add(p);
+
+        seen[p >> 1] = true;
+        for (int i = trailSize - 1; decisionLevel > 0 && i >= trailLimits[0]; i--) {
+            int v = trail[i] >> 1;
+            if (seen[v]) {
+                Clause reason = reasons[v];
+                if (reason == null) {
+                    assumptions.add(trail[i]);
+                } else {
+                    for (int k = 1; k < reason.lits.length; k++) {
+                        if (levels[reason.lits[k] >> 1] > 0) {
+                            seen[reason.lits[k] >> 1] = true;
+                        }
+                    }
+                }
+                seen[v] = false;
+            }
+        }
+        seen[p >> 1] = false;
+
+        conflict = assumptions.stream().mapToInt(lit -> (lit & 1) == 0 ? lit >> 1 : -(lit >> 1)).toArray();
+    }
+
+    private boolean isRedundant(int lit) {
+        Clause reason = reasons[lit >> 1];
+        if (reason == null) {
+            return false;
+        }
+        for (int k = 1; k < reason.lits.length; k++) {
+            int v = reason.lits[k] >> 1;
+            if (!seen[v] && levels[v] > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Moves the literal of the highest level (except the asserting one) to the second position.
+     * @return the level to backtrack
+     */
+    private int backtrackLevel(int[] learned) {
+        if (learned.length == 1) {
+            return 0;
+        }
+        int max = 1;
+        for (int k = 2; k < learned.length; k++) {
+            if (levels[learned[k] >> 1] > levels[learned[max] >> 1]) {
+                max = k;
+            }
+        }
+        int lit = learned[max];
+        learned[max] = learned[1];
+        learned[1] = lit;
+        return levels[lit >> 1];
+    }
+
+    /**
+     * Deletes the longer half of the learned clauses, except the ones which are reasons of the current assignment.
+     */
+    private void reduceLearnedClauses() {
+        learnedClauses.sort(Comparator.comparingInt(c -> c.lits.length));
+        int half = learnedClauses.size() / 2;
+        List<Clause> kept = new ArrayList<>(learnedClauses.subList(0, half));
+        for (Clause clause : learnedClauses.subList(half, learnedClauses.size())) {
+            if (clause.lits.length > 2 && !isLocked(clause)) {
+                clause.deleted = true;
+            } else {
+                kept.add(clause);
+            }
+        }
+        learnedClauses.clear();
+        learnedClauses.addAll(kept);
+
+        for (List<Clause> ws : watches) {
+            ws.removeIf(c -> c.deleted);
+        }
+        maxLearnedClauses *= 1.1;
+    }
+
+    private boolean isLocked(Clause clause) {
+        int v = clause.lits[0] >> 1;
+        return reasons[v] == clause && value(clause.lits[0]) == 1;
+    }
+
+    private int pickBranchLiteral() {
+        while (!heap.isEmpty()) {
+            int v = heap.removeMax();
+            if (values[v] == UNDEF) {
+                return phases[v] ? 2 * v : 2 * v + 1;
+            }
+        }
+        return UNDEF;
+    }
+
+    private void bumpActivity(int v) {
+        activities[v] += varInc;
+        if (activities[v] > 1e100) {
+            for (int i = 1; i <= numVariables; i++) {
+                activities[i] *= 1e-100;
+            }
+            varInc *= 1e-100;
+        }
+        heap.increased(v);
+    }
+
+    private void newDecisionLevel() {
+        if (decisionLevel == trailLimits.length) {
+            trailLimits = Arrays.copyOf(trailLimits, trailLimits.length * 2);
+        }
+        trailLimits[decisionLevel++] = trailSize;
+    }
+
+    private void assign(int lit, Clause reason) {
+        int v = lit >> 1;
+        values[v] = (lit & 1) ^ 1;
+        levels[v] = decisionLevel;
+        reasons[v] = reason;
+        trail[trailSize++] = lit;
+    }
+
+    private void cancelUntil(int level) {
+        if (decisionLevel <= level) {
+            return;
+        }
+        for (int i = trailSize - 1; i >= trailLimits[level]; i--) {
+            int v = trail[i] >> 1;
+            phases[v] = values[v] == 1;
+            values[v] = UNDEF;
+            reasons[v] = null;
+            heap.insert(v);
+        }
+        trailSize = trailLimits[level];
+        propagationHead = trailSize;
+        decisionLevel = level;
+    }
+
+    private void watch(Clause clause) {
+        watches.get(clause.lits[0]).add(clause);
+        watches.get(clause.lits[1]).add(clause);
+    }
+
+    /**
+     * @return 1 if the literal is true, 0 if false, and UNDEF if unassigned
+     */
+    private int value(int lit) {
+        int value = values[lit >> 1];
+        return value == UNDEF ? UNDEF : value ^ (lit & 1);
+    }
+
+    private int toLit(int literal) {
+        int v = Math.abs(literal);
+        checkArgument(literal != 0 && v <= numVariables, "Unknown variable of literal %s", literal);
+        return literal > 0 ? 2 * v : 2 * v + 1;
+    }
+
+    private static boolean contains(int[] lits, int size, int lit) {
+        for (int i = 0; i < size; i++) {
+            if (lits[i] == lit) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the i-th element of the Luby sequence 1, 1, 2, 1, 1, 2, 4, ...
+     */
+    private static double luby(int i) {
+        int size = 1, seq = 0;
+        while (size < i + 1) {
+            seq++;
+            size = 2 * size + 1;
+        }
+        while (size - 1 != i) {
+            size = (size - 1) >> 1;
+            seq--;
+            i = i % size;
+        }
+        return Math.pow(2, seq);
+    }
+
+    /**
+     * A binary max-heap of variables ordered by their activities.
+     */
+    private final class VariableHeap {
+        private int[] heap = new int[1];
+        private int[] indices = new int[1]; // the position of a variable in the heap, or -1
+        private int size = 0;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void insert(int v) {
+            if (v >= indices.length) {
+                int old = indices.length;
+                indices = Arrays.copyOf(indices, Math.max(v + 1, old * 2));
+                Arrays.fill(indices, old, indices.length, -1);
+                heap = Arrays.copyOf(heap, indices.length);
+            }
+            if (indices[v] >= 0 && indices[v] < size && heap[indices[v]] == v) {
+                return;
+            }
+            heap[size] = v;
+            indices[v] = size;
+            up(size++);
+        }
+
+        int removeMax() {
+            int v = heap[0];
+            heap[0] = heap[--size];
+            indices[heap[0]] = 0;
+            indices[v] = -1;
+            if (size > 0) {
+                down(0);
+            }
+            return v;
+        }
+
+        void increased(int v) {
+            if (v < indices.length && indices[v] >= 0) {
+                up(indices[v]);
+            }
+        }
+
+        private void up(int i) {
+            int v = heap[i];
+            while (i > 0) {
+                int parent = (i - 1) >> 1;
+                if (activities[heap[parent]] >= activities[v]) {
+                    break;
+                }
+                heap[i] = heap[parent];
+                indices[heap[i]] = i;
+                i = parent;
+            }
+            heap[i] = v;
+            indices[v] = i;
+        }
+
+        private void down(int i) {
+            int v = heap[i];
+            while (2 * i + 1 < size) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && activities[heap[child + 1]] > activities[heap[child]]) {
+                    child++;
+                }
+                if (activities[heap[child]] <= activities[v]) {
+                    break;
+                }
+                heap[i] = heap[child];
+                indices[heap[i]] = i;
+                i = child;
+            }
+            heap[i] = v;
+            indices[v] = i;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker.trace;
+
+import at.tugraz.ist.ase.cacdr.checker.ConsistencyResult;
+import at.tugraz.ist.ase.cacdr.checker.IConsistencyChecker;
+import at.tugraz.ist.ase.cdrmodel.CDRModel;
+import at.tugraz.ist.ase.cdrmodel.IDebuggingModel;
+import at.tugraz.ist.ase.common.LoggerUtils;
+import at.tugraz.ist.ase.kb.core.Constraint;
+import at.tugraz.ist.ase.test.ITestCase;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.util.*;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * A sequence of consistency checks recorded by a {@link CheckTraceRecorder}.
+ *
+ * The checks can be replayed against any {@link IConsistencyChecker} of a model containing
+ * the recorded constraints and test cases, which are identified by their textual representation.
+ * Replaying a trace gives the time of the checker for the same workload, and whether the checker
+ * gives the same results as the recording one.
+ */
+@Slf4j
+@Getter
+public class CheckTrace {
+
+    static final String FORMAT = "CHECKTRACE-2";
+
+    /**
+     * Kinds of checks, one for each isConsistent function of {@link IConsistencyChecker}
+     */
+    public enum Kind {
+        CONSTRAINTS,                // consistent(C)
+        CONSTRAINTS_TESTCASE,       // consistent(C ∪ tc)
+        TESTCASE_NEG_TESTCASE,      // consistent(tα ∧ ¬tγ)
+        CONSTRAINTS_NEG_CONSTRAINT  // consistent(C - {cstr} ∪ {¬cstr})
+    }
+
+    /**
+     * A recorded check
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Check {
+        private final Kind kind;
+        private final int[] constraints; // ids of the constraints
+        private final int first; // id of the test case or of the negated constraint, -1 if none
+        private final int second; // id of the negated test case, -1 if none
+        private final ConsistencyResult result;
+        private final long time; // in nanoseconds
+    }
+
+    private final List<String> constraints = new ArrayList<>(); // id -> constraint
+    private final List<String> testcases = new ArrayList<>(); // id -> test case
+    private final List<Check> checks = new ArrayList<>();
+
+    private CheckTrace() {}
+
+    /**
+     * Loads a trace from a file written by a {@link CheckTraceRecorder}.
+     * @param file the trace file
+     * @return the loaded trace
+     * @throws IOException if the file cannot be read, or isn't a trace file
+     */
+    public static CheckTrace load(@NonNull File file) throws IOException {
+        CheckTrace trace = new CheckTrace();
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (!CheckWriter.readHeader(in, FORMAT)) {
+                throw new IOException("The file " + file + " isn't a trace of consistency checks");
+            }
+
+            int tag;
+            while ((tag = in.read()) != -1) {
+                switch (tag) {
+                    case CheckWriter.CONSTRAINT -> trace.constraints.add(CheckWriter.readText(in));
+                    case CheckWriter.TESTCASE -> trace.testcases.add(CheckWriter.readText(in));
+                    case CheckWriter.CHECK -> {
+                        Kind kind = Kind.values()[in.readByte()];
+                        int[] ids = new int[in.readInt()];
+                        for (int i = 0; i < ids.length; i++) {
+                            ids[i] = in.readInt();
+                        }
+                        int first = in.readInt();
+                        int second = in.readInt();
+                        ConsistencyResult result = ConsistencyResult.values()[in.readByte()];
+                        trace.checks.add(new Check(kind, ids, first, second, result, in.readLong()));
+                    }
+                    default -> throw new IOException("Unknown entry " + tag + " in the trace " + file);
+                }
+            }
+        }
+
+        log.debug("{}Loaded trace from {} [checks={}, constraints={}, testcases={}]", LoggerUtils.tab,
+                file, trace.checks.size(), trace.constraints.size(), trace.testcases.size());
+        return trace;
+    }
+
+    /**
+     * Replays all checks of the trace against the given checker, in the recorded order.
+     * @param checker the checker to replay against
+     * @param diagModel the model of the checker, which contains all recorded constraints and test cases
+     * @return the times and the mismatching results of the replay
+     */
+    public CheckTraceReport replay(@NonNull IConsistencyChecker checker, @NonNull CDRModel diagModel) {
+        log.debug("{}Replaying trace [checks={}] >>>", LoggerUtils.tab, checks.size());
+        LoggerUtils.indent();
+
+        Map<String, Constraint> modelConstraints = new HashMap<>();
+        for (Constraint c : diagModel.getAllConstraints()) {
+            modelConstraints.put(c.toString(), c);
+        }
+        List<Constraint> C = new ArrayList<>(constraints.size());
+        for (String c : constraints) {
+            checkArgument(modelConstraints.containsKey(c), "The constraint %s isn't a constraint of the model", c);
+            C.add(modelConstraints.get(c));
+        }
+        List<ITestCase> TC = new ArrayList<>(testcases.size());
+        if (!testcases.isEmpty()) {
+            checkState(diagModel instanceof IDebuggingModel, "Cannot replay checks with test cases if the model is not debugging model");
+            for (String tc : testcases) {
+                ITestCase testcase = ((IDebuggingModel) diagModel).getTestCase(tc);
+                checkArgument(testcase != null, "The test case %s isn't a test case of the model", tc);
+                TC.add(testcase);
+            }
+        }
+
+        CheckTraceReport report = new CheckTraceReport();
+        for (int i = 0; i < checks.size(); i++) {
+            Check check = checks.get(i);
+            List<Constraint> S = Arrays.stream(check.constraints).mapToObj(C::get).toList();
+
+            long start = System.nanoTime();
+            boolean consistent = switch (check.kind) {
+                case CONSTRAINTS -> checker.isConsistent(S);
+                case CONSTRAINTS_TESTCASE -> checker.isConsistent(S, TC.get(check.first));
+                case TESTCASE_NEG_TESTCASE -> checker.isConsistent(TC.get(check.first), TC.get(check.second));
+                case CONSTRAINTS_NEG_CONSTRAINT -> checker.isConsistent(S, C.get(check.first));
+            };
+            report.add(i, check, consistent, System.nanoTime() - start);
+        }
+
+        LoggerUtils.outdent();
+        log.debug("{}<<< Replayed trace [mismatches={}]", LoggerUtils.tab, report.getMismatches());
+
+        return report;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker.trace;
+
+import at.tugraz.ist.ase.cacdr.checker.ConsistencyResult;
+import at.tugraz.ist.ase.common.LoggerUtils;
+import at.tugraz.ist.ase.kb.core.Constraint;
+import at.tugraz.ist.ase.test.ITestCase;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.util.Collection;
+
+/**
+ * Records consistency checks to a file, which can be loaded and replayed by {@link CheckTrace}.
+ *
+ * A check is written by a {@link CheckWriter}, followed by its result and its time.
+ * The recorder can be shared by the checkers of several threads.
+ */
+@Slf4j
+public class CheckTraceRecorder implements Closeable {
+
+    private final File file;
+    private final DataOutputStream out;
+    private final CheckWriter writer;
+
+    /**
+     * The number of recorded checks
+     */
+    @Getter
+    private int numOfChecks = 0;
+
+    private boolean failed = false; // stops recording after the first write error
+
+    /**
+     * Creates a new trace file, overwriting an existing one.
+     * @param file the trace file
+     */
+    public CheckTraceRecorder(@NonNull File file) throws IOException {
+        this.file = file;
+        out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        CheckWriter.writeText(out, CheckTrace.FORMAT);
+        writer = new CheckWriter(out);
+
+        log.debug("{}Created CheckTraceRecorder for {}", LoggerUtils.tab, file);
+    }
+
+    /**
+     * Records consistent(C)
+     */
+    public synchronized void record(@NonNull Collection<Constraint> C, ConsistencyResult result, long time) {
+        write(CheckTrace.Kind.CONSTRAINTS, C, null, null, null, result, time);
+    }
+
+    /**
+     * Records consistent(C ∪ testcase)
+     */
+    public synchronized void record(@NonNull Collection<Constraint> C, @NonNull ITestCase testcase, ConsistencyResult result, long time) {
+        write(CheckTrace.Kind.CONSTRAINTS_TESTCASE, C, null, testcase, null, result, time);
+    }
+
+    /**
+     * Records consistent(tα ∧ ¬tγ)
+     */
+    public synchronized void record(@NonNull ITestCase testcase, @NonNull ITestCase neg_testcase, ConsistencyResult result, long time) {
+        write(CheckTrace.Kind.TESTCASE_NEG_TESTCASE, null, null, testcase, neg_testcase, result, time);
+    }
+
+    /**
+     * Records consistent(C - {cstr} ∪ {¬cstr})
+     */
+    public synchronized void record(@NonNull Collection<Constraint> C, @NonNull Constraint cstr, ConsistencyResult result, long time) {
+        write(CheckTrace.Kind.CONSTRAINTS_NEG_CONSTRAINT, C, cstr, null, null, result, time);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+
+        log.debug("{}Recorded {} checks to {}", LoggerUtils.tab, numOfChecks, file);
+    }
+
+    /**
+     * @param C the constraints of the check, null if the check has no constraints
+     * @param cstr the negated constraint of the check, null if none
+     * @param testcase the test case of the check, null if none
+     * @param neg_testcase the negated test case of the check, null if none
+     * @param result the result of the check, null is written as {@link ConsistencyResult#UNKNOWN}
+     * @param time the time of the check in nanoseconds
+     */
+    private void write(CheckTrace.Kind kind, Collection<Constraint> C, Constraint cstr, ITestCase testcase, ITestCase neg_testcase,
+                       ConsistencyResult result, long time) {
+        if (failed) {
+            return;
+        }
+
+        try {
+            writer.writeCheck(kind, C, cstr, testcase, neg_testcase);
+            out.writeByte((result != null ? result : ConsistencyResult.UNKNOWN).ordinal());
+            out.writeLong(time);
+
+            numOfChecks++;
+        } catch (IOException ex) {
+            failed = true;
+            log.warn("{}Cannot record checks to {}: {}", LoggerUtils.tab, file, ex.getMessage());
+        }
+    }
+}
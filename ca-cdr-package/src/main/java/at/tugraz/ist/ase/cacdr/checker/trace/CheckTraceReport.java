@@ -0,0 +1,63 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker.trace;
+
+import at.tugraz.ist.ase.cacdr.checker.ConsistencyResult;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The result of replaying a {@link CheckTrace}.
+ */
+@Getter
+public class CheckTraceReport {
+
+    private int numOfChecks = 0;
+    private long recordedTime = 0; // in nanoseconds
+    private long replayedTime = 0; // in nanoseconds
+
+    /**
+     * The number of checks which weren't decided when being recorded, hence cannot mismatch
+     */
+    private int numOfUndecidedChecks = 0;
+
+    private final List<Integer> mismatches = new ArrayList<>(); // indexes of the checks giving different results
+
+    void add(int index, CheckTrace.Check check, boolean consistent, long time) {
+        numOfChecks++;
+        recordedTime += check.getTime();
+        replayedTime += time;
+
+        if (check.getResult() == ConsistencyResult.UNKNOWN) {
+            numOfUndecidedChecks++;
+        } else if (check.getResult() != ConsistencyResult.of(consistent)) {
+            mismatches.add(index);
+        }
+    }
+
+    public List<Integer> getMismatches() {
+        return Collections.unmodifiableList(mismatches);
+    }
+
+    /**
+     * @return true if the replaying checker gives the same result for all decided checks
+     */
+    public boolean isIdentical() {
+        return mismatches.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("checks=%d, recorded=%.3fms, replayed=%.3fms, undecided=%d, mismatches=%d",
+                numOfChecks, recordedTime / 1e6, replayedTime / 1e6, numOfUndecidedChecks, mismatches.size());
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker.trace;
+
+import at.tugraz.ist.ase.kb.core.Constraint;
+import at.tugraz.ist.ase.test.ITestCase;
+import lombok.NonNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes consistency checks as the entries shared by the trace files of {@link CheckTraceRecorder}
+ * and the protocol of the check workers.
+ *
+ * A constraint or a test case is defined once, as its tag and its textual representation,
+ * and is referred to by its id (the order of definition) afterwards. A check is written as its tag,
+ * its kind, the ids of its constraints, the id of its test case or negated constraint (-1 if none),
+ * and the id of its negated test case (-1 if none). Texts are written as their length and their UTF-8 bytes.
+ * A writer is used by one thread at a time.
+ */
+public final class CheckWriter {
+
+    public static final byte CONSTRAINT = 0;
+    public static final byte TESTCASE = 1;
+    public static final byte CHECK = 2;
+
+    private final DataOutput out;
+
+    private final Map<Constraint, Integer> constraintIds = new HashMap<>();
+    private final Map<String, Integer> testcaseIds = new HashMap<>();
+
+    /**
+     * @param out the output of the entries
+     */
+    public CheckWriter(@NonNull DataOutput out) {
+        this.out = out;
+    }
+
+    /**
+     * Writes a check, after defining its new constraints and test cases.
+     * @param C the constraints of the check, null if none
+     * @param cstr the negated constraint, null if none
+     * @param testcase the test case, null if none
+     * @param neg_testcase the negated test case, null if none
+     */
+    public void writeCheck(@NonNull CheckTrace.Kind kind, Collection<Constraint> C, Constraint cstr,
+                           ITestCase testcase, ITestCase neg_testcase) throws IOException {
+        int[] ids = new int[C != null ? C.size() : 0];
+        if (C != null) {
+            int i = 0;
+            for (Constraint c : C) {
+                ids[i++] = constraintId(c);
+            }
+        }
+        int first = cstr != null ? constraintId(cstr) : (testcase != null ? testcaseId(testcase) : -1);
+        int second = neg_testcase != null ? testcaseId(neg_testcase) : -1;
+
+        out.writeByte(CHECK);
+        out.writeByte(kind.ordinal());
+        out.writeInt(ids.length);
+        for (int id : ids) {
+            out.writeInt(id);
+        }
+        out.writeInt(first);
+        out.writeInt(second);
+    }
+
+    private int constraintId(Constraint c) throws IOException {
+        Integer id = constraintIds.get(c);
+        if (id == null) {
+            id = constraintIds.size();
+            out.writeByte(CONSTRAINT);
+            writeText(out, c.toString());
+            constraintIds.put(c, id);
+        }
+        return id;
+    }
+
+    private int testcaseId(ITestCase testcase) throws IOException {
+        String key = testcase.toString();
+        Integer id = testcaseIds.get(key);
+        if (id == null) {
+            id = testcaseIds.size();
+            out.writeByte(TESTCASE);
+            writeText(out, key);
+            testcaseIds.put(key, id);
+        }
+        return id;
+    }
+
+    /**
+     * Writes a text as its length and its UTF-8 bytes, since writeUTF fails for texts longer than 64KB.
+     */
+    public static void writeText(@NonNull DataOutput out, @NonNull String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a text written by {@link #writeText(DataOutput, String)}.
+     */
+    public static String readText(@NonNull DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Invalid text length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads a header written by {@link #writeText(DataOutput, String)}, without reading more than the expected text.
+     * @return false if the input starts with another text
+     */
+    public static boolean readHeader(@NonNull DataInput in, @NonNull String header) throws IOException {
+        byte[] expected = header.getBytes(StandardCharsets.UTF_8);
+        if (in.readInt() != expected.length) {
+            return false;
+        }
+        byte[] bytes = new byte[expected.length];
+        in.readFully(bytes);
+        return Arrays.equals(expected, bytes);
+    }
+}
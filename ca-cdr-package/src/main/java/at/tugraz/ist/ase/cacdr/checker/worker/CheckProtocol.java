@@ -0,0 +1,31 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker.worker;
+
+import at.tugraz.ist.ase.cacdr.checker.trace.CheckWriter;
+
+/**
+ * The protocol between a {@link WorkerPoolConsistencyChecker} and its {@link CheckWorker}s.
+ *
+ * A worker starts with writing {@link #HELLO} as soon as its model is ready. Then, the checker sends
+ * the entries of a {@link CheckWriter}, which defines a constraint or a test case once per worker,
+ * and finally {@link #QUIT}.
+ * The worker answers each check with the ordinal of its {@link at.tugraz.ist.ase.cacdr.checker.ConsistencyResult}.
+ */
+final class CheckProtocol {
+
+    static final String HELLO = "CHECKWORKER-2";
+
+    static final byte CONSTRAINT = CheckWriter.CONSTRAINT;
+    static final byte TESTCASE = CheckWriter.TESTCASE;
+    static final byte CHECK = CheckWriter.CHECK;
+    static final byte QUIT = 3;
+
+    private CheckProtocol() {}
+}
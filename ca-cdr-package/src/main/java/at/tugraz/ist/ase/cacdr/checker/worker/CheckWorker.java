@@ -0,0 +1,168 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker.worker;
+
+import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.checker.ConsistencyResult;
+import at.tugraz.ist.ase.cacdr.checker.trace.CheckTrace;
+import at.tugraz.ist.ase.cacdr.checker.trace.CheckWriter;
+import at.tugraz.ist.ase.cdrmodel.CDRModel;
+import at.tugraz.ist.ase.cdrmodel.IDebuggingModel;
+import at.tugraz.ist.ase.common.LoggerUtils;
+import at.tugraz.ist.ase.kb.core.Constraint;
+import at.tugraz.ist.ase.test.ITestCase;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.Callable;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Answers the checks of a {@link WorkerPoolConsistencyChecker} with a {@link ChocoConsistencyChecker}
+ * on its own copy of a {@link CDRModel}, see {@link CheckProtocol}.
+ *
+ * A worker runs either in its own process, started by {@link #main(String[])}, or in a thread
+ * of the process of the checker, see {@link WorkerPoolConsistencyChecker#inProcess(CDRModel, int)}.
+ */
+@Slf4j
+public class CheckWorker {
+
+    private final CDRModel diagModel;
+    private final ChocoConsistencyChecker checker;
+
+    private final Map<String, Constraint> modelConstraints = new HashMap<>();
+    private final List<Constraint> constraints = new ArrayList<>(); // id -> constraint, null if unknown
+    private final List<ITestCase> testcases = new ArrayList<>(); // id -> test case, null if unknown
+
+    /**
+     * Constructor
+     * @param diagModel an initialized {@link CDRModel}, which also implements {@link at.tugraz.ist.ase.cdrmodel.IChocoModel}
+     */
+    public CheckWorker(@NonNull CDRModel diagModel) {
+        this.diagModel = diagModel;
+        checker = new ChocoConsistencyChecker(diagModel);
+
+        for (Constraint c : diagModel.getAllConstraints()) {
+            modelConstraints.put(c.toString(), c);
+        }
+
+        log.debug("{}Created CheckWorker for {}", LoggerUtils.tab, diagModel);
+    }
+
+    /**
+     * Answers the checks read from the given input, until the input is closed or the checker quits.
+     * @param input the stream of the entries sent by the checker
+     * @param output the stream of the answers
+     */
+    public void serve(@NonNull InputStream input, @NonNull OutputStream output) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(input));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output));
+
+        CheckWriter.writeText(out, CheckProtocol.HELLO);
+        out.flush();
+
+        int tag;
+        while ((tag = in.read()) != -1 && tag != CheckProtocol.QUIT) {
+            switch (tag) {
+                case CheckProtocol.CONSTRAINT -> constraints.add(modelConstraints.get(CheckWriter.readText(in)));
+                case CheckProtocol.TESTCASE -> {
+                    String testcase = CheckWriter.readText(in);
+                    testcases.add(diagModel instanceof IDebuggingModel debuggingModel ? debuggingModel.getTestCase(testcase) : null);
+                }
+                case CheckProtocol.CHECK -> {
+                    CheckTrace.Kind kind = CheckTrace.Kind.values()[in.readByte()];
+                    int[] ids = new int[in.readInt()];
+                    for (int i = 0; i < ids.length; i++) {
+                        ids[i] = in.readInt();
+                    }
+                    int first = in.readInt();
+                    int second = in.readInt();
+
+                    out.writeByte(check(kind, ids, first, second).ordinal());
+                    out.flush();
+                }
+                default -> throw new IOException("Unknown entry " + tag + " from the checker");
+            }
+        }
+        out.flush();
+
+        checker.dispose();
+        log.debug("{}CheckWorker stopped", LoggerUtils.tab);
+    }
+
+    /**
+     * @return the result of the check, or UNKNOWN if the check refers to an unknown constraint or
+     * test case, or fails
+     */
+    private ConsistencyResult check(CheckTrace.Kind kind, int[] ids, int first, int second) {
+        try {
+            List<Constraint> C = new ArrayList<>(ids.length);
+            for (int id : ids) {
+                C.add(constraint(id));
+            }
+
+            switch (kind) {
+                case CONSTRAINTS -> checker.isConsistent(C);
+                case CONSTRAINTS_TESTCASE -> checker.isConsistent(C, testcase(first));
+                case TESTCASE_NEG_TESTCASE -> checker.isConsistent(testcase(first), testcase(second));
+                case CONSTRAINTS_NEG_CONSTRAINT -> checker.isConsistent(C, constraint(first));
+            }
+            return checker.getLastResult();
+        } catch (RuntimeException ex) {
+            log.error("{}Cannot check the consistency: {}", LoggerUtils.tab, ex.getMessage());
+            return ConsistencyResult.UNKNOWN;
+        }
+    }
+
+    private Constraint constraint(int id) {
+        Constraint c = constraints.get(id);
+        checkArgument(c != null, "The constraint %s isn't a constraint of the model", id);
+        return c;
+    }
+
+    private ITestCase testcase(int id) {
+        ITestCase testcase = testcases.get(id);
+        checkArgument(testcase != null, "The test case %s isn't a test case of the model", id);
+        return testcase;
+    }
+
+    /**
+     * Runs a worker process, which reads the checks from the standard input,
+     * and writes the answers to the standard output. Logs are written to the standard error.
+     *
+     * @param args the name of a class creating the model of the worker, i.e., a {@link CDRModel}
+     *             with a public no-argument constructor, or a {@link Callable} returning an initialized {@link CDRModel}
+     */
+    public static void main(String[] args) throws Exception {
+        checkArgument(args.length == 1, "Usage: CheckWorker <class of the model>");
+
+        // the standard output only carries the answers
+        PrintStream output = System.out;
+        System.setOut(System.err);
+
+        new CheckWorker(createModel(args[0])).serve(System.in, output);
+    }
+
+    static CDRModel createModel(String className) throws Exception {
+        Object object = Class.forName(className).getConstructor().newInstance();
+
+        if (object instanceof CDRModel diagModel) {
+            diagModel.initialize();
+            return diagModel;
+        }
+        checkState(object instanceof Callable, "The class %s is neither a CDRModel nor a Callable", className);
+        Object diagModel = ((Callable<?>) object).call();
+        checkState(diagModel instanceof CDRModel, "The class %s doesn't create a CDRModel", className);
+        return (CDRModel) diagModel;
+    }
+}
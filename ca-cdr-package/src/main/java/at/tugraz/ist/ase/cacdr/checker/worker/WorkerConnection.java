@@ -0,0 +1,104 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker.worker;
+
+import at.tugraz.ist.ase.cacdr.checker.ConsistencyResult;
+import at.tugraz.ist.ase.cacdr.checker.trace.CheckTrace;
+import at.tugraz.ist.ase.cacdr.checker.trace.CheckWriter;
+import at.tugraz.ist.ase.kb.core.Constraint;
+import at.tugraz.ist.ase.test.ITestCase;
+import lombok.Getter;
+
+import java.io.*;
+import java.util.Collection;
+
+/**
+ * The checker's end of the connection to a {@link CheckWorker}, see {@link CheckProtocol}.
+ * A connection is used by one thread at a time.
+ */
+class WorkerConnection implements Closeable {
+
+    private final String name;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+    private final CheckWriter writer;
+    private final Closeable worker; // stops the worker process or thread
+
+    /**
+     * The number of checks answered by the worker
+     */
+    @Getter
+    private int numOfChecks = 0;
+
+    /**
+     * Connects to a started worker, and waits until its model is ready.
+     * @param name the name of the worker, used in messages
+     * @param input the answers of the worker
+     * @param output the entries sent to the worker
+     * @param worker stops the worker when the connection is closed
+     * @throws IOException if the worker doesn't start
+     */
+    WorkerConnection(String name, InputStream input, OutputStream output, Closeable worker) throws IOException {
+        this.name = name;
+        this.in = new DataInputStream(new BufferedInputStream(input));
+        this.out = new DataOutputStream(new BufferedOutputStream(output));
+        this.writer = new CheckWriter(out);
+        this.worker = worker;
+
+        boolean hello;
+        try {
+            hello = CheckWriter.readHeader(in, CheckProtocol.HELLO);
+        } catch (EOFException ex) {
+            throw new IOException("The worker " + name + " stopped before being ready", ex);
+        }
+        if (!hello) {
+            throw new IOException("The worker " + name + " doesn't speak " + CheckProtocol.HELLO);
+        }
+    }
+
+    /**
+     * Sends a check to the worker, and waits for its answer.
+     * @param C the constraints of the check, null if none
+     * @param cstr the negated constraint, null if none
+     * @param testcase the test case, null if none
+     * @param neg_testcase the negated test case, null if none
+     * @return the answer of the worker
+     */
+    ConsistencyResult check(CheckTrace.Kind kind, Collection<Constraint> C, Constraint cstr, ITestCase testcase, ITestCase neg_testcase) throws IOException {
+        writer.writeCheck(kind, C, cstr, testcase, neg_testcase);
+        out.flush();
+
+        int answer = in.read();
+        if (answer < 0 || answer >= ConsistencyResult.values().length) {
+            throw new IOException("The worker " + name + " gave no answer");
+        }
+        numOfChecks++;
+        return ConsistencyResult.values()[answer];
+    }
+
+    /**
+     * Asks the worker to quit, and stops it.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            out.writeByte(CheckProtocol.QUIT);
+            out.flush();
+        } catch (IOException ignored) {
+            // the worker has already stopped
+        } finally {
+            worker.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
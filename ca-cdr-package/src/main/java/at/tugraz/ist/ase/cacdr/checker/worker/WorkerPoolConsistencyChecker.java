@@ -0,0 +1,359 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker.worker;
+
+import at.tugraz.ist.ase.cacdr.checker.ConsistencyResult;
+import at.tugraz.ist.ase.cacdr.checker.IConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.checker.UnknownConsistencyException;
+import at.tugraz.ist.ase.cacdr.checker.UnknownPolicy;
+import at.tugraz.ist.ase.cacdr.checker.trace.CheckTrace;
+import at.tugraz.ist.ase.cdrmodel.CDRModel;
+import at.tugraz.ist.ase.common.LoggerUtils;
+import at.tugraz.ist.ase.kb.core.Constraint;
+import at.tugraz.ist.ase.test.ITestCase;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.Pipe;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static at.tugraz.ist.ase.cacdr.eval.CAEvaluator.*;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * A consistency checker which forwards the checks to a pool of {@link CheckWorker}s.
+ *
+ * Each worker holds its own copy of the {@link CDRModel}, and answers one check at a time.
+ * A check is given to any idle worker, hence several threads can check at the same time, and
+ * {@link #isConsistent(Collection, Collection, boolean)} spreads its test cases over all workers.
+ *
+ * The workers are either separate processes, see {@link #startProcesses(String, int)}, which keeps
+ * the models and the searches out of the heap of the calling process, or threads of the calling process,
+ * see {@link #inProcess(CDRModel, int)}, which speak the same protocol, e.g., for tests.
+ */
+@Slf4j
+public class WorkerPoolConsistencyChecker implements IConsistencyChecker {
+
+    private static final long STOP_TIMEOUT = 5; // in seconds
+    private static final long IDLE_POLL_TIMEOUT = 100; // in milliseconds
+
+    private final List<WorkerConnection> workers;
+    private final BlockingQueue<WorkerConnection> idleWorkers;
+    private final AtomicInteger numOfAliveWorkers;
+    private ExecutorService executor = null; // created at the first parallel check
+
+    /**
+     * How an UNKNOWN result, i.e., a check failed by a worker, is answered by the isConsistent functions.
+     */
+    @Getter @Setter
+    private UnknownPolicy unknownPolicy = UnknownPolicy.INCONSISTENT;
+
+    /**
+     * The result of the last check
+     */
+    @Getter
+    private volatile ConsistencyResult lastResult = null;
+
+    WorkerPoolConsistencyChecker(List<WorkerConnection> workers) {
+        this.workers = new ArrayList<>(workers);
+        idleWorkers = new LinkedBlockingQueue<>(workers);
+        numOfAliveWorkers = new AtomicInteger(workers.size());
+
+        log.debug("{}Created WorkerPoolConsistencyChecker [workers={}]", LoggerUtils.tab, workers);
+    }
+
+    /**
+     * Starts the given number of worker processes, with the Java runtime and the class path of this process.
+     * Each worker creates its own model, and the method returns when all models are ready.
+     * @param modelClass the name of a class creating the model, see {@link CheckWorker#main(String[])}
+     * @param size the number of workers
+     * @throws IOException if a worker cannot be started
+     */
+    public static WorkerPoolConsistencyChecker startProcesses(@NonNull String modelClass, int size) throws IOException {
+        checkArgument(size > 0, "The number of workers must be positive");
+
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        List<Process> processes = new ArrayList<>(size);
+        List<WorkerConnection> workers = new ArrayList<>(size);
+        try {
+            // the workers create their models at the same time
+            for (int i = 0; i < size; i++) {
+                processes.add(new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), CheckWorker.class.getName(), modelClass)
+                        .redirectError(ProcessBuilder.Redirect.INHERIT)
+                        .start());
+            }
+            for (Process process : processes) {
+                workers.add(new WorkerConnection("process-" + process.pid(), process.getInputStream(), process.getOutputStream(),
+                        () -> stop(process)));
+            }
+        } catch (IOException ex) {
+            processes.forEach(Process::destroyForcibly);
+            throw ex;
+        }
+
+        return new WorkerPoolConsistencyChecker(workers);
+    }
+
+    /**
+     * Starts the given number of workers as threads of this process, each on a copy of the given model.
+     * The workers are connected by pipes, and speak the same protocol as the worker processes.
+     * @param diagModel a {@link CDRModel} which also implements {@link at.tugraz.ist.ase.cdrmodel.IChocoModel}
+     * @param size the number of workers
+     */
+    public static WorkerPoolConsistencyChecker inProcess(@NonNull CDRModel diagModel, int size) throws IOException, CloneNotSupportedException {
+        checkArgument(size > 0, "The number of workers must be positive");
+
+        List<WorkerConnection> workers = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            CheckWorker worker = new CheckWorker((CDRModel) diagModel.clone());
+            Pipe toWorker = Pipe.open();
+            Pipe fromWorker = Pipe.open();
+
+            Thread thread = new Thread(() -> {
+                try (Pipe.SourceChannel in = toWorker.source(); Pipe.SinkChannel out = fromWorker.sink()) {
+                    worker.serve(Channels.newInputStream(in), Channels.newOutputStream(out));
+                } catch (IOException ex) {
+                    log.error("{}The worker stopped: {}", LoggerUtils.tab, ex.getMessage());
+                }
+            }, "check-worker-" + i);
+            thread.setDaemon(true);
+            thread.start();
+
+            workers.add(new WorkerConnection(thread.getName(), Channels.newInputStream(fromWorker.source()),
+                    Channels.newOutputStream(toWorker.sink()), () -> {
+                toWorker.sink().close();
+                fromWorker.source().close();
+            }));
+        }
+
+        return new WorkerPoolConsistencyChecker(workers);
+    }
+
+    @Override
+    public boolean isConsistent(@NonNull Collection<Constraint> C) {
+        checkArgument(!C.isEmpty(), "Cannot check the consistency with an empty set of constraints");
+
+        return decide(check(CheckTrace.Kind.CONSTRAINTS, C, null, null, null));
+    }
+
+    @Override
+    public boolean isConsistent(@NonNull Collection<Constraint> C, @NonNull ITestCase testcase) {
+        checkArgument(!C.isEmpty(), "Cannot check the consistency with an empty set of constraints");
+
+        return decide(check(CheckTrace.Kind.CONSTRAINTS_TESTCASE, C, null, testcase, null));
+    }
+
+    /**
+     * consistent(tα ∧ ¬tγ), see {@link at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker#isConsistent(ITestCase, ITestCase)}
+     */
+    @Override
+    public boolean isConsistent(@NonNull ITestCase testcase, @NonNull ITestCase neg_testcase) {
+        return decide(check(CheckTrace.Kind.TESTCASE_NEG_TESTCASE, null, null, testcase, neg_testcase));
+    }
+
+    /**
+     * consistent(C - {cstr} ∪ {¬cstr}), see {@link at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker#isConsistent(Collection, Constraint)}
+     */
+    @Override
+    public boolean isConsistent(@NonNull Collection<Constraint> C, @NonNull Constraint cstr) {
+        checkArgument(!C.isEmpty(), "Cannot check the consistency with an empty set of constraints");
+
+        return decide(check(CheckTrace.Kind.CONSTRAINTS_NEG_CONSTRAINT, C, cstr, null, null));
+    }
+
+    /**
+     * Checks the test cases with all workers at the same time. The k-th of n tasks checks the test cases
+     * k, k + n, k + 2n..., and with onlyOne, a task stops as soon as a test case before its next one
+     * is known to be violated, which keeps the result the same as checking the test cases one by one.
+     * @return violated test cases, in the order of the given test cases
+     */
+    @Override
+    public Set<ITestCase> isConsistent(@NonNull Collection<Constraint> C, @NonNull Collection<ITestCase> TC, boolean onlyOne) {
+        checkArgument(!C.isEmpty(), "Cannot check the consistency with an empty set of constraints");
+        List<ITestCase> testcases = new ArrayList<>(TC);
+        if (testcases.size() <= 1 || workers.size() == 1) {
+            return IConsistencyChecker.super.isConsistent(C, testcases, onlyOne);
+        }
+
+        log.debug("{}Checking consistency with workers [C={}, TC={}] >>>", LoggerUtils.tab, C, TC);
+        LoggerUtils.indent();
+
+        boolean[] violated = new boolean[testcases.size()];
+        AtomicInteger firstViolation = new AtomicInteger(testcases.size());
+        int numTasks = Math.min(workers.size(), testcases.size());
+
+        List<Callable<Void>> tasks = new ArrayList<>(numTasks);
+        for (int k = 0; k < numTasks; k++) {
+            int first = k;
+            tasks.add(() -> {
+                for (int i = first; i < testcases.size(); i += numTasks) {
+                    if (onlyOne && i > firstViolation.get()) {
+                        break;
+                    }
+                    if (!isConsistent(C, testcases.get(i))) {
+                        violated[i] = true;
+                        firstViolation.accumulateAndGet(i, Math::min);
+                    }
+                }
+                return null;
+            });
+        }
+        invokeAll(tasks);
+
+        Set<ITestCase> TCp = new LinkedHashSet<>();
+        for (int i = 0; i < testcases.size(); i++) {
+            if (violated[i]) {
+                TCp.add(testcases.get(i));
+
+                if (onlyOne) {
+                    break;
+                }
+            }
+        }
+
+        LoggerUtils.outdent();
+        log.debug("{}<<< Checked with workers [TCp={}]", LoggerUtils.tab, TCp);
+        return TCp;
+    }
+
+    /**
+     * @return the number of workers which can still answer checks
+     */
+    public int size() {
+        return numOfAliveWorkers.get();
+    }
+
+    /**
+     * The workers reset their models after each check, hence there's nothing to reset.
+     */
+    @Override
+    public void reset() {
+    }
+
+    @Override
+    public synchronized void dispose() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        for (WorkerConnection worker : workers) {
+            try {
+                worker.close();
+            } catch (IOException ex) {
+                log.warn("{}Cannot stop the worker {}: {}", LoggerUtils.tab, worker, ex.getMessage());
+            }
+        }
+        workers.clear();
+        idleWorkers.clear();
+        numOfAliveWorkers.set(0);
+
+        log.debug("{}Stopped all workers", LoggerUtils.tab);
+    }
+
+    /**
+     * Gives the check to an idle worker, waiting until a worker is idle.
+     * A worker which fails to answer is stopped, and the check results in UNKNOWN.
+     * The waiting is given up as soon as no worker is alive anymore, e.g., when the last worker fails
+     * while other threads are waiting.
+     */
+    private ConsistencyResult check(CheckTrace.Kind kind, Collection<Constraint> C, Constraint cstr, ITestCase testcase, ITestCase neg_testcase) {
+        WorkerConnection worker = null;
+        try {
+            while (worker == null) {
+                checkState(numOfAliveWorkers.get() > 0, "There's no worker to check the consistency");
+                worker = idleWorkers.poll(IDLE_POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a worker", ex);
+        }
+
+        ConsistencyResult result;
+        try {
+            result = worker.check(kind, C, cstr, testcase, neg_testcase);
+            idleWorkers.add(worker);
+        } catch (IOException ex) {
+            log.error("{}The worker {} failed: {}", LoggerUtils.tab, worker, ex.getMessage());
+            numOfAliveWorkers.decrementAndGet();
+            try {
+                worker.close();
+            } catch (IOException ignored) {
+                // the worker is dropped anyway
+            }
+            result = ConsistencyResult.UNKNOWN;
+        }
+        incrementCounter(COUNTER_WORKER_CHECKS);
+
+        log.debug("{}Checked by the worker {} [kind={}, consistency={}]", LoggerUtils.tab, worker, kind, result);
+        lastResult = result;
+        return result;
+    }
+
+    private boolean decide(ConsistencyResult result) {
+        return switch (result) {
+            case CONSISTENT -> true;
+            case INCONSISTENT -> false;
+            case UNKNOWN -> switch (unknownPolicy) {
+                case CONSISTENT -> true;
+                case INCONSISTENT -> false;
+                case ABORT -> throw new UnknownConsistencyException("The worker couldn't decide the check");
+            };
+        };
+    }
+
+    private void invokeAll(List<Callable<Void>> tasks) {
+        try {
+            for (Future<Void> future : executor().invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the workers", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("A task of the workers failed", ex.getCause());
+        }
+    }
+
+    private synchronized ExecutorService executor() {
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(workers.size(), runnable -> {
+                Thread thread = new Thread(runnable, "worker-pool");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+
+    /**
+     * Closes the input of a worker process, which makes it quit, and kills it if it doesn't quit in time.
+     */
+    private static void stop(Process process) throws IOException {
+        process.getOutputStream().close();
+        try {
+            if (!process.waitFor(STOP_TIMEOUT, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException ex) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
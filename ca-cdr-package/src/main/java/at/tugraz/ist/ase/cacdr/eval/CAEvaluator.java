@@ -17,10 +17,46 @@ public class CAEvaluator extends PerformanceEvaluator {
     // Consistency checks
     public static final String COUNTER_FEASIBLE = "The number of consistent:";
     public static final String COUNTER_INFEASIBLE = "The number of INconsistent:";
+    public static final String COUNTER_UNKNOWN = "The number of unknown (stopped by limits):";
 
     public static final String COUNTER_CHOCO_SOLVER_CALLS = "The number of Choco Solver calls:";
+    public static final String COUNTER_SAT_SOLVER_CALLS = "The number of SAT Solver calls:";
+    public static final String COUNTER_BDD_CHECKS = "The number of BDD checks:";
+    public static final String COUNTER_PORTFOLIO_CHECKS = "The number of portfolio checks:";
+    public static final String COUNTER_WORKER_CHECKS = "The number of checks forwarded to workers:";
     public static final String COUNTER_CONSISTENCY_CHECKS = "The number of Consistency checks:";
     public static final String COUNTER_SIZE_CONSISTENCY_CHECKS = "The size of Consistency checks:";
+    public static final String COUNTER_DECIDED_BY_PROPAGATION = "The number of checks decided by propagation:";
+    public static final String COUNTER_DECIDED_BY_SEARCH = "The number of checks decided by search:";
+    public static final String COUNTER_DECIDED_BY_SOLUTION_REUSE = "The number of checks decided by kept solutions:";
+    public static final String COUNTER_SEARCH_NODES = "The number of nodes of the solver:";
+    public static final String COUNTER_SEARCH_FAILS = "The number of fails of the solver:";
+
+    // Caches of consistency checks
+    public static final String COUNTER_CACHE_HITS = "The number of cache hits:";
+    public static final String COUNTER_CACHE_MISSES = "The number of cache misses:";
+    public static final String COUNTER_CACHE_EVICTIONS = "The number of cache evictions:";
+    public static final String COUNTER_CACHE_SUBSET_HITS = "The number of cache hits - subsets of consistent sets:";
+    public static final String COUNTER_CACHE_SUPERSET_HITS = "The number of cache hits - supersets of inconsistent sets:";
+
+    // Incremental posting of constraints
+    public static final String COUNTER_AVOIDED_POST_CONSTRAINT = "The number of avoided post constraints:";
+    public static final String COUNTER_AVOIDED_UNPOST_CONSTRAINT = "The number of avoided unpost constraints:";
+    public static final String COUNTER_SAVED_BACKGROUND_POSTS = "The number of saved posts of background constraints:";
+    public static final String COUNTER_RETIRED_BACKGROUND_CONSTRAINTS = "The number of background constraints entailed by the root domains:";
+    public static final String COUNTER_BACKGROUND_SINGLETON_PRUNED_VALUES = "The number of background values refuted by singleton probes:";
+    public static final String COUNTER_BACKGROUND_SINGLETON_PROBES = "The number of singleton probes of the background:";
+    public static final String COUNTER_BACKGROUND_REAPPLIED_VALUES = "The number of learned background values removed again when re-pinning:";
+
+    // Unsat cores of inconsistent checks
+    public static final String COUNTER_UNSAT_CORES = "The number of unsat cores:";
+    public static final String COUNTER_SIZE_UNSAT_CORES = "The size of unsat cores:";
+    public static final String TIMER_UNSAT_CORE = "Timer for unsat core extraction:";
+
+    // Speculative checks of parallel algorithms
+    public static final String COUNTER_SPECULATIVE_CHECKS = "The number of speculative checks:";
+    public static final String COUNTER_USED_SPECULATIVE_CHECKS = "The number of used speculative checks:";
+    public static final String COUNTER_WASTED_SPECULATIVE_CHECKS = "The number of wasted speculative checks:";
 
 //    public static final String COUNTER_UNPOST_CONSTRAINT = "The number of unpost constraints:";
 //    public static final String COUNTER_POST_CONSTRAINT = "The number of post constraints:";
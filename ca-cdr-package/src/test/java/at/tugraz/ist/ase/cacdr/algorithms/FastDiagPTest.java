@@ -0,0 +1,101 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.algorithms;
+
+import at.tugraz.ist.ase.cacdr.checker.CheckerPool;
+import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.eval.CAEvaluator;
+import at.tugraz.ist.ase.cdrmodel.CDRModel;
+import at.tugraz.ist.ase.cdrmodel.test.model.*;
+import at.tugraz.ist.ase.kb.core.Constraint;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static at.tugraz.ist.ase.cacdr.eval.CAEvaluator.*;
+import static at.tugraz.ist.ase.eval.PerformanceEvaluator.getCounter;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FastDiagPTest {
+
+    @Test
+    void testSameDiagnosesAsFastDiagV3() throws Exception {
+        List<CDRModel> models = List.of(new TestModel1(), new TestModel2(), new TestModel3(), new TestModel4(), new TestModel5());
+        for (CDRModel testModel : models) {
+            testModel.initialize();
+
+            ChocoConsistencyChecker checker = new ChocoConsistencyChecker(testModel);
+            CheckerPool pool = new CheckerPool(testModel, 3);
+
+            Set<Constraint> B = testModel.getCorrectConstraints();
+            List<Constraint> constraints = new ArrayList<>(testModel.getPossiblyFaultyConstraints());
+            Random random = new Random(7);
+            for (int i = 0; i < 5; i++) {
+                Set<Constraint> C = new LinkedHashSet<>(constraints);
+
+                CAEvaluator.reset();
+                Set<Constraint> expected = new FastDiagV3(checker).findDiagnosis(C, B);
+                assertFalse(expected.isEmpty());
+                double checks = getCounter(COUNTER_CONSISTENCY_CHECKS).getValue();
+
+                for (int lookahead = 0; lookahead <= 3; lookahead++) {
+                    FastDiagP fastDiagP = new FastDiagP(checker, pool);
+                    fastDiagP.setLookahead(lookahead);
+
+                    CAEvaluator.reset();
+                    Set<Constraint> diag = fastDiagP.findDiagnosis(C, B);
+
+                    assertEquals(new ArrayList<>(expected), new ArrayList<>(diag));
+                    assertEquals(checks, getCounter(COUNTER_CONSISTENCY_CHECKS).getValue());
+                    if (lookahead == 0) {
+                        assertEquals(0, getCounter(COUNTER_SPECULATIVE_CHECKS).getValue());
+                    }
+                    assertTrue(getCounter(COUNTER_USED_SPECULATIVE_CHECKS).getValue() <= checks);
+                }
+
+                Collections.shuffle(constraints, random);
+            }
+
+            pool.dispose();
+        }
+    }
+
+    @Test
+    void testLookaheadChecks() throws Exception {
+        TestModel4 testModel = new TestModel4();
+        testModel.initialize();
+
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(testModel);
+        CheckerPool pool = new CheckerPool(testModel, 2);
+
+        FastDiagP fastDiagP = new FastDiagP(checker, pool);
+        fastDiagP.setWorkers(4);
+        fastDiagP.setLookahead(3);
+        assertEquals(4, fastDiagP.getWorkers());
+
+        Set<Constraint> C = testModel.getPossiblyFaultyConstraints();
+        Set<Constraint> B = testModel.getCorrectConstraints();
+
+        CAEvaluator.reset();
+        Set<Constraint> diag = fastDiagP.findDiagnosis(C, B);
+        printPerformance();
+
+        assertEquals(new FastDiagV3(checker).findDiagnosis(C, B), diag);
+        double submitted = getCounter(COUNTER_SPECULATIVE_CHECKS).getValue();
+        double used = getCounter(COUNTER_USED_SPECULATIVE_CHECKS).getValue();
+        double wasted = getCounter(COUNTER_WASTED_SPECULATIVE_CHECKS).getValue();
+        assertTrue(submitted > 0);
+        assertTrue(used + wasted <= submitted);
+
+        assertThrows(IllegalArgumentException.class, () -> fastDiagP.setWorkers(0));
+        assertThrows(IllegalArgumentException.class, () -> fastDiagP.setLookahead(-1));
+
+        pool.dispose();
+    }
+}
@@ -9,16 +9,31 @@
 package at.tugraz.ist.ase.cacdr.algorithms;
 
 import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.checker.FMSatConsistencyChecker;
 import at.tugraz.ist.ase.cacdr.eval.CAEvaluator;
+import at.tugraz.ist.ase.cdrmodel.fm.FMDebuggingModel;
 import at.tugraz.ist.ase.cdrmodel.test.model.*;
+import at.tugraz.ist.ase.fm.core.Feature;
+import at.tugraz.ist.ase.fm.core.FeatureModel;
+import at.tugraz.ist.ase.fm.core.RelationshipType;
+import at.tugraz.ist.ase.fm.parser.FMFormat;
+import at.tugraz.ist.ase.fm.parser.FeatureModelParser;
+import at.tugraz.ist.ase.fm.parser.factory.FMParserFactory;
 import at.tugraz.ist.ase.kb.core.Constraint;
+import at.tugraz.ist.ase.test.TestSuite;
+import at.tugraz.ist.ase.test.translator.fm.FMTestCaseTranslator;
 import org.junit.jupiter.api.Test;
 
-import java.util.Set;
+import java.io.File;
+import java.util.*;
+import java.util.stream.Collectors;
 
-import static at.tugraz.ist.ase.cacdr.eval.CAEvaluator.printPerformance;
+import static at.tugraz.ist.ase.cacdr.algorithms.QuickXPlain.COUNTER_QUICKXPLAIN_CALLS;
+import static at.tugraz.ist.ase.cacdr.eval.CAEvaluator.*;
 import static at.tugraz.ist.ase.common.ConstraintUtils.convertToString;
+import static at.tugraz.ist.ase.eval.PerformanceEvaluator.getCounter;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class QuickXplainTest {
 
@@ -190,6 +205,55 @@ public class QuickXplainTest {
 //        assertEquals(allConflictSets, testModel.getExpectedAllConflicts());
     }
 
+    @Test
+    void testQuickXPlainWithUnsatCores() throws Exception {
+        FMDebuggingModel debuggingModel = createInconsistentFeatureModel();
+
+        FMSatConsistencyChecker checker = new FMSatConsistencyChecker(debuggingModel);
+
+        Set<Constraint> C = debuggingModel.getPossiblyFaultyConstraints();
+        Set<Constraint> B = debuggingModel.getCorrectConstraints();
+
+        QuickXPlain quickXplain = new QuickXPlain(checker);
+
+        CAEvaluator.reset();
+        Set<Constraint> conflict = quickXplain.findConflictSet(C, B);
+        double calls = getCounter(COUNTER_QUICKXPLAIN_CALLS).getValue();
+
+        quickXplain.setUnsatCoreShrinking(true);
+
+        CAEvaluator.reset();
+        Set<Constraint> conflictWithCores = quickXplain.findConflictSet(C, B);
+        printPerformance();
+
+        Set<String> expected = Set.of("requires(Bamboo Bike, Engine)", "requires(Bamboo Bike, Back-pedal)", "excludes(Engine, Back-pedal)");
+        assertEquals(expected, conflict.stream().map(Constraint::toString).collect(Collectors.toSet()));
+        assertEquals(conflict, conflictWithCores);
+        assertEquals(1, getCounter(COUNTER_UNSAT_CORES).getValue());
+        assertTrue(getCounter(COUNTER_SIZE_UNSAT_CORES).getValue() < C.size() + B.size());
+        assertTrue(getCounter(COUNTER_QUICKXPLAIN_CALLS).getValue() < calls);
+    }
+
+    /**
+     * The bamboo bike requires an engine and a back-pedal brake, which exclude each other.
+     */
+    private FMDebuggingModel createInconsistentFeatureModel() throws Exception {
+        FeatureModelParser parser = FMParserFactory.getInstance().getParser(FMFormat.FEATUREIDE);
+        FeatureModel featureModel = parser.parse(new File("src/test/resources/bamboobike_featureide.xml"));
+
+        Map<String, Feature> features = new HashMap<>();
+        for (int i = 0; i < featureModel.getNumOfFeatures(); i++) {
+            features.put(featureModel.getFeature(i).getName(), featureModel.getFeature(i));
+        }
+        featureModel.addConstraint(RelationshipType.REQUIRES, features.get("Bamboo Bike"), List.of(features.get("Engine")));
+        featureModel.addConstraint(RelationshipType.REQUIRES, features.get("Bamboo Bike"), List.of(features.get("Back-pedal")));
+
+        FMDebuggingModel debuggingModel = new FMDebuggingModel(featureModel, TestSuite.builder().testCases(new LinkedList<>()).build(),
+                new FMTestCaseTranslator(), true, false);
+        debuggingModel.initialize();
+        return debuggingModel;
+    }
+
 //    @Test
 //    public void testQuickXPlain6() {
 //        TestDiagnosisModel6 diagModel = new TestDiagnosisModel6("Test");
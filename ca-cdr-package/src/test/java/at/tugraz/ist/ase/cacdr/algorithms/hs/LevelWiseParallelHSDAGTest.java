@@ -0,0 +1,105 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.algorithms.hs;
+
+import at.tugraz.ist.ase.cacdr.algorithms.hs.labeler.FastDiagV3Labeler;
+import at.tugraz.ist.ase.cacdr.algorithms.hs.labeler.IHSLabelable;
+import at.tugraz.ist.ase.cacdr.algorithms.hs.labeler.QuickXPlainLabeler;
+import at.tugraz.ist.ase.cacdr.algorithms.hs.parameters.FastDiagV3Parameters;
+import at.tugraz.ist.ase.cacdr.algorithms.hs.parameters.QuickXPlainParameters;
+import at.tugraz.ist.ase.cacdr.checker.CheckerPool;
+import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.checker.IConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.eval.CAEvaluator;
+import at.tugraz.ist.ase.cdrmodel.CDRModel;
+import at.tugraz.ist.ase.cdrmodel.test.model.*;
+import at.tugraz.ist.ase.kb.core.Constraint;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import static at.tugraz.ist.ase.cacdr.algorithms.hs.LevelWiseParallelHSDAG.COUNTER_PARALLEL_LABELS;
+import static at.tugraz.ist.ase.cacdr.eval.CAEvaluator.printPerformance;
+import static at.tugraz.ist.ase.eval.PerformanceEvaluator.getCounter;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LevelWiseParallelHSDAGTest {
+
+    @Test
+    void testSameResultsAsHSDAG() throws Exception {
+        List<CDRModel> models = List.of(new TestModel1(), new TestModel2(), new TestModel3(), new TestModel4(), new TestModel5());
+        for (CDRModel testModel : models) {
+            testModel.initialize();
+
+            ChocoConsistencyChecker checker = new ChocoConsistencyChecker(testModel);
+            CheckerPool pool = new CheckerPool(testModel, 3);
+
+            Set<Constraint> C = testModel.getPossiblyFaultyConstraints();
+            Set<Constraint> B = testModel.getCorrectConstraints();
+
+            QuickXPlainParameters qxParameters = QuickXPlainParameters.builder().C(C).B(B).build();
+            assertSameResults(checker, pool, c -> new QuickXPlainLabeler(c, qxParameters));
+
+            FastDiagV3Parameters fdParameters = FastDiagV3Parameters.builder().C(C).B(B).build();
+            assertSameResults(checker, pool, c -> new FastDiagV3Labeler(c, fdParameters));
+
+            pool.dispose();
+        }
+    }
+
+    @Test
+    void shouldStopAfterFirstDiagnosis() throws Exception {
+        TestModel4 testModel = new TestModel4();
+        testModel.initialize();
+
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(testModel);
+        CheckerPool pool = new CheckerPool(testModel, 2);
+
+        QuickXPlainParameters parameters = QuickXPlainParameters.builder()
+                .C(testModel.getPossiblyFaultyConstraints())
+                .B(testModel.getCorrectConstraints()).build();
+        LevelWiseParallelHSDAG hsdag = new LevelWiseParallelHSDAG(new QuickXPlainLabeler(checker, parameters), checker,
+                pool, c -> new QuickXPlainLabeler(c, parameters));
+        hsdag.setMaxNumberOfDiagnoses(1);
+
+        CAEvaluator.reset();
+        hsdag.construct();
+        printPerformance();
+
+        assertEquals(1, hsdag.getDiagnoses().size());
+        assertEquals(testModel.getExpectedAllDiagnoses().get(0), hsdag.getDiagnoses().get(0));
+
+        pool.dispose();
+    }
+
+    private void assertSameResults(IConsistencyChecker checker, CheckerPool pool, Function<IConsistencyChecker, IHSLabelable> labelerFactory) {
+        HSDAG hsdag = new HSDAG(labelerFactory.apply(checker), checker);
+        hsdag.construct();
+
+        LevelWiseParallelHSDAG parallelHSDAG = new LevelWiseParallelHSDAG(labelerFactory.apply(checker), checker, pool, labelerFactory);
+        CAEvaluator.reset();
+        parallelHSDAG.construct();
+
+        assertFalse(hsdag.getDiagnoses().isEmpty());
+        assertEquals(hsdag.getConflicts(), parallelHSDAG.getConflicts());
+        assertEquals(hsdag.getDiagnoses(), parallelHSDAG.getDiagnoses());
+
+        // one entry per level, and all labels below the root are computed in parallel
+        List<LevelWiseParallelHSDAG.LevelStatistics> levels = parallelHSDAG.getLevels();
+        assertFalse(levels.isEmpty());
+        for (int i = 0; i < levels.size(); i++) {
+            assertEquals(i + 1, levels.get(i).level());
+            assertTrue(levels.get(i).time() > 0);
+        }
+        assertEquals(levels.stream().mapToInt(LevelWiseParallelHSDAG.LevelStatistics::numOfParallelLabels).sum(),
+                getCounter(COUNTER_PARALLEL_LABELS).getValue());
+    }
+}
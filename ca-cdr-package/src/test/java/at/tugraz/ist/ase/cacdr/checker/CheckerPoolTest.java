@@ -0,0 +1,231 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker;
+
+import at.tugraz.ist.ase.cacdr.algorithms.DirectDebug;
+import at.tugraz.ist.ase.cdrmodel.fm.FMDebuggingModel;
+import at.tugraz.ist.ase.fm.core.FeatureModel;
+import at.tugraz.ist.ase.fm.parser.FMFormat;
+import at.tugraz.ist.ase.fm.parser.FeatureModelParser;
+import at.tugraz.ist.ase.fm.parser.factory.FMParserFactory;
+import at.tugraz.ist.ase.kb.core.Constraint;
+import at.tugraz.ist.ase.test.ITestCase;
+import at.tugraz.ist.ase.test.TestSuite;
+import at.tugraz.ist.ase.test.builder.TestSuiteBuilder;
+import at.tugraz.ist.ase.test.builder.fm.FMTestCaseBuilder;
+import at.tugraz.ist.ase.test.translator.fm.FMTestCaseTranslator;
+import com.google.common.io.Files;
+import lombok.Cleanup;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static at.tugraz.ist.ase.common.IOUtils.getInputStream;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CheckerPoolTest {
+
+    @Test
+    void testSameResultsAsChocoConsistencyChecker() throws Exception {
+        File fileFM = new File("src/test/resources/FM_10_0.splx");
+        FMFormat fmFormat = FMFormat.getFMFormat(Files.getFileExtension(fileFM.getName()));
+        FeatureModelParser parser = FMParserFactory.getInstance().getParser(fmFormat);
+        FeatureModel featureModel = parser.parse(fileFM);
+
+        TestSuiteBuilder factory = new TestSuiteBuilder();
+        FMTestCaseBuilder testCaseFactory = new FMTestCaseBuilder();
+        @Cleanup InputStream is = getInputStream(CheckerPoolTest.class.getClassLoader(), "FM_10_0.testcases");
+
+        TestSuite testSuite = factory.buildTestSuite(is, testCaseFactory);
+
+        FMDebuggingModel debuggingModel = new FMDebuggingModel(featureModel, testSuite, new FMTestCaseTranslator(),
+                true, false);
+        debuggingModel.initialize();
+
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(debuggingModel);
+        CheckerPool pool = new CheckerPool(debuggingModel, 3);
+
+        List<Constraint> C = new LinkedList<>(debuggingModel.getAllConstraints());
+        List<ITestCase> TC = new LinkedList<>(debuggingModel.getTestcases());
+
+        // random checks, and their expected results from a checker of the original model
+        Random random = new Random(1);
+        List<List<Constraint>> sets = new ArrayList<>();
+        List<ITestCase> testcases = new ArrayList<>();
+        List<Boolean> expected = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            List<Constraint> S = new LinkedList<>();
+            C.stream().filter(c -> random.nextBoolean()).forEach(S::add);
+            if (S.isEmpty()) {
+                S.add(C.get(0));
+            }
+            ITestCase tc = TC.get(random.nextInt(TC.size()));
+
+            sets.add(S);
+            testcases.add(tc);
+            expected.add(checker.isConsistent(S, tc));
+        }
+
+        assertTrue(expected.contains(true) && expected.contains(false));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < sets.size(); i++) {
+            int idx = i;
+            results.add(executor.submit(() -> pool.withChecker(c -> c.isConsistent(sets.get(idx), testcases.get(idx)))));
+        }
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(expected.get(i), results.get(i).get());
+        }
+        executor.shutdown();
+
+        // all checkers are released, and work on their own models
+        assertEquals(3, pool.size());
+        Set<Object> models = new HashSet<>();
+        for (int i = 0; i < pool.size(); i++) {
+            models.add(pool.acquire().model);
+        }
+        assertEquals(3, models.size());
+        assertFalse(models.contains(debuggingModel.getModel()));
+        assertEquals(0, debuggingModel.getModel().getNbCstrs());
+    }
+
+    @Test
+    void testParallelTestCases() throws Exception {
+        File fileFM = new File("src/test/resources/FM_10_0.splx");
+        FMFormat fmFormat = FMFormat.getFMFormat(Files.getFileExtension(fileFM.getName()));
+        FeatureModelParser parser = FMParserFactory.getInstance().getParser(fmFormat);
+        FeatureModel featureModel = parser.parse(fileFM);
+
+        TestSuiteBuilder factory = new TestSuiteBuilder();
+        FMTestCaseBuilder testCaseFactory = new FMTestCaseBuilder();
+        @Cleanup InputStream is = getInputStream(CheckerPoolTest.class.getClassLoader(), "FM_10_0.testcases");
+
+        TestSuite testSuite = factory.buildTestSuite(is, testCaseFactory);
+
+        FMDebuggingModel debuggingModel = new FMDebuggingModel(featureModel, testSuite, new FMTestCaseTranslator(),
+                true, false);
+        debuggingModel.initialize();
+
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(debuggingModel);
+        ChocoConsistencyChecker parallelChecker = new ChocoConsistencyChecker(debuggingModel);
+        parallelChecker.setPool(new CheckerPool(debuggingModel, 3));
+
+        List<Constraint> C = new LinkedList<>(debuggingModel.getAllConstraints());
+        List<ITestCase> TC = new LinkedList<>(debuggingModel.getTestcases());
+
+        Random random = new Random(1);
+        int violations = 0;
+        for (int i = 0; i < 50; i++) {
+            List<Constraint> S = new LinkedList<>();
+            C.stream().filter(c -> random.nextBoolean()).forEach(S::add);
+            if (S.isEmpty()) {
+                S.add(C.get(0));
+            }
+
+            // the same test cases in the same order
+            Set<ITestCase> TCp = checker.isConsistent(S, TC, false);
+            violations += TCp.size();
+            assertEquals(new ArrayList<>(TCp), new ArrayList<>(parallelChecker.isConsistent(S, TC, false)));
+            assertEquals(new ArrayList<>(checker.isConsistent(S, TC, true)), new ArrayList<>(parallelChecker.isConsistent(S, TC, true)));
+        }
+        assertTrue(violations > 0);
+
+        DirectDebug directDebug = new DirectDebug(checker);
+        DirectDebug parallelDirectDebug = new DirectDebug(parallelChecker);
+        assertEquals(directDebug.findDiagnosis(debuggingModel.getPossiblyFaultyConstraints(), debuggingModel.getCorrectConstraints(), debuggingModel.getTestcases()),
+                parallelDirectDebug.findDiagnosis(debuggingModel.getPossiblyFaultyConstraints(), debuggingModel.getCorrectConstraints(), debuggingModel.getTestcases()));
+
+        parallelChecker.getPool().dispose();
+    }
+
+    @Test
+    void testParallelTestCasesWithSettings() throws Exception {
+        File fileFM = new File("src/test/resources/FM_10_0.splx");
+        FMFormat fmFormat = FMFormat.getFMFormat(Files.getFileExtension(fileFM.getName()));
+        FeatureModelParser parser = FMParserFactory.getInstance().getParser(fmFormat);
+        FeatureModel featureModel = parser.parse(fileFM);
+
+        TestSuiteBuilder factory = new TestSuiteBuilder();
+        FMTestCaseBuilder testCaseFactory = new FMTestCaseBuilder();
+        @Cleanup InputStream is = getInputStream(CheckerPoolTest.class.getClassLoader(), "FM_10_0.testcases");
+
+        TestSuite testSuite = factory.buildTestSuite(is, testCaseFactory);
+
+        FMDebuggingModel debuggingModel = new FMDebuggingModel(featureModel, testSuite, new FMTestCaseTranslator(),
+                true, false);
+        debuggingModel.initialize();
+        FMDebuggingModel clonedModel = (FMDebuggingModel) debuggingModel.clone();
+
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(debuggingModel);
+        ChocoConsistencyChecker parallelChecker = new ChocoConsistencyChecker(clonedModel);
+        CheckerPool pool = new CheckerPool(clonedModel, 3);
+        parallelChecker.setPool(pool);
+
+        List<Constraint> C = new LinkedList<>(debuggingModel.getPossiblyFaultyConstraints());
+        List<Constraint> clonedC = new LinkedList<>(clonedModel.getPossiblyFaultyConstraints());
+        List<ITestCase> TC = new LinkedList<>(debuggingModel.getTestcases());
+        List<ITestCase> clonedTC = new LinkedList<>(clonedModel.getTestcases());
+
+        // the pinned background is included in the checks of the pool
+        checker.pinBackground(debuggingModel.getCorrectConstraints());
+        parallelChecker.pinBackground(clonedModel.getCorrectConstraints());
+        parallelChecker.setCache(new ConsistencyCache(1000));
+        List<CheckEvent> events = Collections.synchronizedList(new ArrayList<>());
+        parallelChecker.addCheckListener(events::add);
+
+        Random random = new Random(3);
+        int violations = 0;
+        for (int i = 0; i < 20; i++) {
+            List<Constraint> S = new LinkedList<>();
+            List<Constraint> clonedS = new LinkedList<>();
+            for (int j = 0; j < C.size(); j++) {
+                if (random.nextBoolean()) {
+                    S.add(C.get(j));
+                    clonedS.add(clonedC.get(j));
+                }
+            }
+            if (S.isEmpty()) {
+                S.add(C.get(0));
+                clonedS.add(clonedC.get(0));
+            }
+
+            Set<ITestCase> TCp = checker.isConsistent(S, TC, false);
+            violations += TCp.size();
+            assertEquals(TCp.stream().map(Object::toString).toList(),
+                    parallelChecker.isConsistent(clonedS, clonedTC, false).stream().map(Object::toString).toList());
+        }
+        assertTrue(violations > 0);
+
+        // the checks of the pool go to the cache and the listeners of the checker
+        assertEquals(20 * TC.size(), events.size());
+        assertTrue(parallelChecker.getCache().size() > 0);
+
+        // the limits and the policy of the checker apply to the checks of the pool
+        parallelChecker.setCache(null);
+        parallelChecker.setStopCriterion(() -> true);
+        parallelChecker.setUnknownPolicy(UnknownPolicy.CONSISTENT);
+        assertTrue(parallelChecker.isConsistent(clonedC, clonedTC, false).isEmpty());
+
+        // the checkers of the pool get back their own settings
+        for (ChocoConsistencyChecker c : pool.getCheckers()) {
+            assertTrue(c.getBackground().isEmpty());
+            assertNull(c.getStopCriterion());
+            assertNull(c.getCache());
+            assertEquals(UnknownPolicy.INCONSISTENT, c.getUnknownPolicy());
+        }
+
+        pool.dispose();
+    }
+}
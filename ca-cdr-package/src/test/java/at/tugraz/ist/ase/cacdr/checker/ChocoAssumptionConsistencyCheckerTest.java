@@ -0,0 +1,155 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker;
+
+import at.tugraz.ist.ase.cacdr.algorithms.DirectDebug;
+import at.tugraz.ist.ase.cacdr.algorithms.QuickXPlain;
+import at.tugraz.ist.ase.cacdr.algorithms.hs.HSDAG;
+import at.tugraz.ist.ase.cacdr.algorithms.hs.labeler.QuickXPlainLabeler;
+import at.tugraz.ist.ase.cacdr.algorithms.hs.parameters.QuickXPlainParameters;
+import at.tugraz.ist.ase.cacdr.eval.CAEvaluator;
+import at.tugraz.ist.ase.cdrmodel.fm.FMDebuggingModel;
+import at.tugraz.ist.ase.cdrmodel.test.model.TestModel2;
+import at.tugraz.ist.ase.fm.core.FeatureModel;
+import at.tugraz.ist.ase.fm.parser.FMFormat;
+import at.tugraz.ist.ase.fm.parser.FeatureModelParser;
+import at.tugraz.ist.ase.fm.parser.factory.FMParserFactory;
+import at.tugraz.ist.ase.kb.core.Constraint;
+import at.tugraz.ist.ase.test.ITestCase;
+import at.tugraz.ist.ase.test.TestSuite;
+import at.tugraz.ist.ase.test.builder.TestSuiteBuilder;
+import at.tugraz.ist.ase.test.builder.fm.FMTestCaseBuilder;
+import at.tugraz.ist.ase.test.translator.fm.FMTestCaseTranslator;
+import com.google.common.io.Files;
+import lombok.Cleanup;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+import static at.tugraz.ist.ase.cacdr.eval.CAEvaluator.*;
+import static at.tugraz.ist.ase.common.ConstraintUtils.COUNTER_POST_CONSTRAINT;
+import static at.tugraz.ist.ase.common.IOUtils.getInputStream;
+import static at.tugraz.ist.ase.eval.PerformanceEvaluator.getCounter;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChocoAssumptionConsistencyCheckerTest {
+
+    @Test
+    void testHSDAG() throws Exception {
+        TestModel2 testModel = new TestModel2();
+        testModel.initialize();
+
+        ChocoAssumptionConsistencyChecker checker = new ChocoAssumptionConsistencyChecker(testModel);
+
+        Set<Constraint> C = testModel.getPossiblyFaultyConstraints();
+        Set<Constraint> B = testModel.getCorrectConstraints();
+
+        QuickXPlainParameters parameter = QuickXPlainParameters.builder()
+                .C(C)
+                .B(B).build();
+        QuickXPlainLabeler quickXplain = new QuickXPlainLabeler(checker, parameter);
+
+        HSDAG hsdag = new HSDAG(quickXplain, checker);
+
+        CAEvaluator.reset();
+        hsdag.construct();
+
+        printPerformance();
+
+        assertEquals(testModel.getExpectedAllConflicts(), hsdag.getConflicts());
+        assertEquals(testModel.getExpectedAllDiagnoses(), hsdag.getDiagnoses());
+        assertEquals(0, getCounter(COUNTER_POST_CONSTRAINT).getValue());
+        assertEquals(0, testModel.getModel().getNbCstrs());
+    }
+
+    @Test
+    void testSameResultsAsChocoConsistencyChecker() throws Exception {
+        File fileFM = new File("src/test/resources/FM_10_0.splx");
+        FMFormat fmFormat = FMFormat.getFMFormat(Files.getFileExtension(fileFM.getName()));
+        FeatureModelParser parser = FMParserFactory.getInstance().getParser(fmFormat);
+        FeatureModel featureModel = parser.parse(fileFM);
+
+        TestSuiteBuilder factory = new TestSuiteBuilder();
+        FMTestCaseBuilder testCaseFactory = new FMTestCaseBuilder();
+        @Cleanup InputStream is = getInputStream(ChocoAssumptionConsistencyCheckerTest.class.getClassLoader(), "FM_10_0.testcases");
+
+        TestSuite testSuite = factory.buildTestSuite(is, testCaseFactory);
+
+        FMDebuggingModel debuggingModel = new FMDebuggingModel(featureModel, testSuite, new FMTestCaseTranslator(),
+                true, false);
+        debuggingModel.initialize();
+
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(debuggingModel);
+        ChocoAssumptionConsistencyChecker assumptionChecker = new ChocoAssumptionConsistencyChecker(debuggingModel);
+
+        List<Constraint> C = new LinkedList<>(debuggingModel.getPossiblyFaultyConstraints());
+        Set<Constraint> B = debuggingModel.getCorrectConstraints();
+        List<ITestCase> TC = new LinkedList<>(debuggingModel.getTestcases());
+
+        for (int i = 1; i <= C.size(); i++) {
+            List<Constraint> S = new LinkedList<>(B);
+            S.addAll(C.subList(0, i));
+
+            assertEquals(checker.isConsistent(S), assumptionChecker.isConsistent(S));
+            assertEquals(checker.isConsistent(S, C.get(i - 1)), assumptionChecker.isConsistent(S, C.get(i - 1)));
+            for (ITestCase tc : TC) {
+                assertEquals(checker.isConsistent(S, tc), assumptionChecker.isConsistent(S, tc));
+            }
+        }
+        for (ITestCase tc1 : TC) {
+            for (ITestCase tc2 : TC) {
+                assertEquals(checker.isConsistent(tc1, tc2), assumptionChecker.isConsistent(tc1, tc2));
+            }
+        }
+
+        DirectDebug directDebug = new DirectDebug(assumptionChecker);
+        DirectDebug directDebug2 = new DirectDebug(checker);
+        assertEquals(directDebug2.findDiagnosis(debuggingModel.getPossiblyFaultyConstraints(), B, debuggingModel.getTestcases()),
+                directDebug.findDiagnosis(debuggingModel.getPossiblyFaultyConstraints(), B, debuggingModel.getTestcases()));
+    }
+
+    @Test
+    void testUnsatCore() throws Exception {
+        TestModel2 testModel = new TestModel2();
+        testModel.initialize();
+
+        ChocoAssumptionConsistencyChecker checker = new ChocoAssumptionConsistencyChecker(testModel);
+
+        List<Constraint> C = new LinkedList<>(testModel.getPossiblyFaultyConstraints());
+        Set<Constraint> B = testModel.getCorrectConstraints();
+
+        for (int i = 1; i <= C.size(); i++) {
+            List<Constraint> S = new LinkedList<>(B);
+            S.addAll(C.subList(0, i));
+
+            if (checker.isConsistent(S)) {
+                assertNull(checker.getUnsatCore());
+            } else {
+                Set<Constraint> core = checker.getUnsatCore();
+                assertTrue(S.containsAll(core));
+                assertFalse(checker.isConsistent(core));
+            }
+        }
+
+        // the shrunk consideration set may lead to another minimal conflict
+        QuickXPlain quickXplain = new QuickXPlain(checker);
+        quickXplain.setUnsatCoreShrinking(true);
+        CAEvaluator.reset();
+        Set<Constraint> conflict = quickXplain.findConflictSet(new LinkedHashSet<>(C), B);
+
+        assertTrue(testModel.getExpectedAllConflicts().contains(conflict));
+        assertTrue(getCounter(COUNTER_UNSAT_CORES).getValue() > 0);
+        assertEquals(0, testModel.getModel().getNbCstrs());
+    }
+}
@@ -0,0 +1,894 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker;
+
+import at.tugraz.ist.ase.cacdr.algorithms.hs.HSDAG;
+import at.tugraz.ist.ase.cacdr.algorithms.hs.labeler.FastDiagV3Labeler;
+import at.tugraz.ist.ase.cacdr.algorithms.hs.parameters.FastDiagV3Parameters;
+import at.tugraz.ist.ase.cacdr.checker.trace.CheckTrace;
+import at.tugraz.ist.ase.cacdr.eval.CAEvaluator;
+import at.tugraz.ist.ase.cdrmodel.fm.FMDebuggingModel;
+import at.tugraz.ist.ase.cdrmodel.test.model.TestModel3;
+import at.tugraz.ist.ase.cdrmodel.test.model.TestModel4;
+import at.tugraz.ist.ase.fm.core.FeatureModel;
+import at.tugraz.ist.ase.fm.parser.FMFormat;
+import at.tugraz.ist.ase.fm.parser.FeatureModelParser;
+import at.tugraz.ist.ase.fm.parser.factory.FMParserFactory;
+import at.tugraz.ist.ase.kb.core.Constraint;
+import at.tugraz.ist.ase.test.ITestCase;
+import at.tugraz.ist.ase.test.TestSuite;
+import at.tugraz.ist.ase.test.builder.TestSuiteBuilder;
+import at.tugraz.ist.ase.test.builder.fm.FMTestCaseBuilder;
+import at.tugraz.ist.ase.test.translator.fm.FMTestCaseTranslator;
+import com.google.common.io.Files;
+import lombok.Cleanup;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.variables.IntVar;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static at.tugraz.ist.ase.cacdr.eval.CAEvaluator.*;
+import static at.tugraz.ist.ase.common.IOUtils.getInputStream;
+import static at.tugraz.ist.ase.eval.PerformanceEvaluator.getCounter;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChocoConsistencyCheckerTest {
+
+    @Test
+    void testCache() throws Exception {
+        TestModel3 testModel = new TestModel3();
+        testModel.initialize();
+
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(testModel);
+        checker.setCache(new ConsistencyCache(100));
+
+        Set<Constraint> C = testModel.getPossiblyFaultyConstraints();
+        Set<Constraint> B = testModel.getCorrectConstraints();
+
+        FastDiagV3Parameters parameter = FastDiagV3Parameters.builder()
+                .C(C)
+                .B(B).build();
+        FastDiagV3Labeler fastDiag = new FastDiagV3Labeler(checker, parameter);
+
+        HSDAG hsdag = new HSDAG(fastDiag, checker);
+
+        CAEvaluator.reset();
+        hsdag.construct();
+
+        printPerformance();
+
+        assertEquals(testModel.getExpectedAllDiagnoses(), hsdag.getDiagnoses());
+        assertTrue(getCounter(COUNTER_CACHE_HITS).getValue() > 0);
+        assertEquals(getCounter(COUNTER_CACHE_MISSES).getValue(), getCounter(COUNTER_CHOCO_SOLVER_CALLS).getValue());
+    }
+
+    @Test
+    void testCacheEviction() throws Exception {
+        TestModel4 testModel = new TestModel4();
+        testModel.initialize();
+
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(testModel);
+        checker.setCache(new ConsistencyCache(2));
+
+        List<Constraint> C = new LinkedList<>(testModel.getPossiblyFaultyConstraints());
+
+        CAEvaluator.reset();
+        boolean c0 = checker.isConsistent(C.subList(0, 1));
+        checker.isConsistent(C.subList(1, 2));
+        assertEquals(c0, checker.isConsistent(C.subList(0, 1))); // hit, C0 becomes the most recently used
+        checker.isConsistent(C.subList(2, 3)); // evicts C1
+        checker.isConsistent(C.subList(0, 1)); // hit
+        checker.isConsistent(C.subList(1, 2)); // miss
+
+        assertEquals(2, checker.getCache().size());
+        assertEquals(2, getCounter(COUNTER_CACHE_HITS).getValue());
+        assertEquals(4, getCounter(COUNTER_CACHE_MISSES).getValue());
+        assertEquals(2, getCounter(COUNTER_CACHE_EVICTIONS).getValue());
+    }
+
+    @Test
+    void testMonotoneCache() throws Exception {
+        TestModel3 testModel = new TestModel3();
+        testModel.initialize();
+
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(testModel);
+        checker.setCache(new MonotoneConsistencyCache());
+
+        Set<Constraint> C = testModel.getPossiblyFaultyConstraints();
+        Set<Constraint> B = testModel.getCorrectConstraints();
+
+        FastDiagV3Parameters parameter = FastDiagV3Parameters.builder()
+                .C(C)
+                .B(B).build();
+        FastDiagV3Labeler fastDiag = new FastDiagV3Labeler(checker, parameter);
+
+        HSDAG hsdag = new HSDAG(fastDiag, checker);
+
+        CAEvaluator.reset();
+        hsdag.construct();
+
+        printPerformance();
+
+        assertEquals(testModel.getExpectedAllDiagnoses(), hsdag.getDiagnoses());
+        assertTrue(getCounter(COUNTER_CACHE_HITS).getValue() > 0);
+        assertEquals(getCounter(COUNTER_CACHE_HITS).getValue(),
+                getCounter(COUNTER_CACHE_SUBSET_HITS).getValue() + getCounter(COUNTER_CACHE_SUPERSET_HITS).getValue());
+        assertEquals(getCounter(COUNTER_CACHE_MISSES).getValue(), getCounter(COUNTER_CHOCO_SOLVER_CALLS).getValue());
+    }
+
+    @Test
+    void testMonotoneCacheSubsetsAndSupersets() throws Exception {
+        TestModel4 testModel = new TestModel4();
+        testModel.initialize();
+
+        List<Constraint> C = new LinkedList<>(testModel.getPossiblyFaultyConstraints());
+        MonotoneConsistencyCache cache = new MonotoneConsistencyCache();
+
+        CAEvaluator.reset();
+        cache.put(CheckKey.of(C.subList(0, 3)), true);
+        cache.put(CheckKey.of(C.subList(0, 2)), true); // subsumed by C[0..3)
+        cache.put(CheckKey.of(C.subList(2, 5)), false);
+        cache.put(CheckKey.of(C.subList(3, 5)), false); // replaces C[2..5)
+        assertEquals(2, cache.size());
+
+        assertEquals(true, cache.get(CheckKey.of(C.subList(1, 3))));
+        assertEquals(false, cache.get(CheckKey.of(C.subList(3, 6))));
+        assertEquals(false, cache.get(CheckKey.of(C)));
+        assertNull(cache.get(CheckKey.of(C.subList(2, 4))));
+        assertNull(cache.get(CheckKey.ofNegated(C.subList(0, 2), C.get(5)))); // another context
+
+        assertEquals(1, getCounter(COUNTER_CACHE_SUBSET_HITS).getValue());
+        assertEquals(2, getCounter(COUNTER_CACHE_SUPERSET_HITS).getValue());
+        assertEquals(2, getCounter(COUNTER_CACHE_MISSES).getValue());
+    }
+
+    @Test
+    void testMonotoneCacheEviction() throws Exception {
+        TestModel4 testModel = new TestModel4();
+        testModel.initialize();
+
+        List<Constraint> C = new LinkedList<>(testModel.getPossiblyFaultyConstraints());
+        MonotoneConsistencyCache cache = new MonotoneConsistencyCache(2);
+
+        CAEvaluator.reset();
+        cache.put(CheckKey.ofNegated(C.subList(0, 2), C.get(3)), true);
+        cache.put(CheckKey.ofNegated(C.subList(0, 2), C.get(4)), true);
+        assertEquals(true, cache.get(CheckKey.ofNegated(C.subList(0, 1), C.get(3)))); // the context of C3 becomes the most recently used
+        cache.put(CheckKey.ofNegated(C.subList(0, 2), C.get(5)), false); // evicts the context of C4
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get(CheckKey.ofNegated(C.subList(0, 2), C.get(4))));
+        assertEquals(true, cache.get(CheckKey.ofNegated(C.subList(0, 2), C.get(3))));
+
+        // the oldest sets of the only context
+        cache.clear();
+        cache.put(CheckKey.of(C.subList(0, 1)), true);
+        cache.put(CheckKey.of(C.subList(1, 2)), true);
+        cache.put(CheckKey.of(C.subList(2, 3)), true); // evicts C[0..1)
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get(CheckKey.of(C.subList(0, 1))));
+        assertEquals(true, cache.get(CheckKey.of(C.subList(1, 2))));
+        assertEquals(2, getCounter(COUNTER_CACHE_EVICTIONS).getValue());
+    }
+
+    @Test
+    void testMonotoneCacheIds() {
+        MonotoneConsistencyCache cache = new MonotoneConsistencyCache(2);
+        Constraint a = new Constraint("a");
+        Constraint b = new Constraint("b");
+
+        // lookups don't give ids
+        assertNull(cache.get(CheckKey.of(List.of(a, b))));
+        assertEquals(0, cache.numOfIds());
+
+        // an unknown constraint can't be in a consistent set, but doesn't hide an inconsistent subset
+        cache.put(CheckKey.of(List.of(a)), false);
+        assertEquals(false, cache.get(CheckKey.of(List.of(a, b))));
+        cache.clear();
+        cache.put(CheckKey.of(List.of(a)), true);
+        assertNull(cache.get(CheckKey.of(List.of(a, b))));
+
+        // the ids of evicted sets are pruned
+        for (int i = 0; i < 1000; i++) {
+            cache.put(CheckKey.of(List.of(new Constraint("c" + i))), true);
+        }
+        assertEquals(2, cache.size());
+        assertTrue(cache.numOfIds() < 128);
+        assertEquals(true, cache.get(CheckKey.of(List.of(new Constraint("c999")))));
+    }
+
+    @Test
+    void testSetIndexCompaction() {
+        SetIndex index = new SetIndex();
+        for (int i = 0; i < 100; i++) {
+            index.add(new int[]{i});
+        }
+
+        index.removeSubsetsOf(IntStream.range(0, 80).toArray());
+
+        assertEquals(20, index.size());
+        assertEquals(20, index.capacity());
+        assertTrue(index.containsSupersetOf(new int[]{90}));
+        assertFalse(index.containsSupersetOf(new int[]{10}));
+        assertTrue(index.removeOldest());
+        assertFalse(index.containsSupersetOf(new int[]{80}));
+    }
+
+    @Test
+    void testIncremental() throws Exception {
+        TestModel3 testModel = new TestModel3();
+        testModel.initialize();
+
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(testModel);
+        checker.setIncremental(true);
+
+        Set<Constraint> C = testModel.getPossiblyFaultyConstraints();
+        Set<Constraint> B = testModel.getCorrectConstraints();
+
+        FastDiagV3Parameters parameter = FastDiagV3Parameters.builder()
+                .C(C)
+                .B(B).build();
+        FastDiagV3Labeler fastDiag = new FastDiagV3Labeler(checker, parameter);
+
+        HSDAG hsdag = new HSDAG(fastDiag, checker);
+
+        CAEvaluator.reset();
+        hsdag.construct();
+
+        printPerformance();
+
+        assertEquals(testModel.getExpectedAllDiagnoses(), hsdag.getDiagnoses());
+        assertTrue(getCounter(COUNTER_AVOIDED_POST_CONSTRAINT).getValue() > 0);
+        assertEquals(getCounter(COUNTER_AVOIDED_POST_CONSTRAINT).getValue(), getCounter(COUNTER_AVOIDED_UNPOST_CONSTRAINT).getValue());
+
+        // constraints of the last check are kept until the incremental mode is turned off
+        assertTrue(testModel.getModel().getNbCstrs() > 0);
+        checker.setIncremental(false);
+        assertEquals(0, testModel.getModel().getNbCstrs());
+    }
+
+    @Test
+    void testPropagationFirst() throws Exception {
+        TestModel3 testModel = new TestModel3();
+        testModel.initialize();
+
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(testModel);
+        checker.setStrategy(CheckingStrategy.PROPAGATION_FIRST);
+
+        Set<Constraint> C = testModel.getPossiblyFaultyConstraints();
+        Set<Constraint> B = testModel.getCorrectConstraints();
+
+        FastDiagV3Parameters parameter = FastDiagV3Parameters.builder()
+                .C(C)
+                .B(B).build();
+        FastDiagV3Labeler fastDiag = new FastDiagV3Labeler(checker, parameter);
+
+        HSDAG hsdag = new HSDAG(fastDiag, checker);
+
+        CAEvaluator.reset();
+        hsdag.construct();
+
+        printPerformance();
+
+        assertEquals(testModel.getExpectedAllDiagnoses(), hsdag.getDiagnoses());
+        assertTrue(getCounter(COUNTER_DECIDED_BY_PROPAGATION).getValue() > 0);
+        assertEquals(getCounter(COUNTER_CHOCO_SOLVER_CALLS).getValue(),
+                getCounter(COUNTER_DECIDED_BY_PROPAGATION).getValue() + getCounter(COUNTER_DECIDED_BY_SEARCH).getValue());
+    }
+
+    @Test
+    void testSolutionReuse() throws Exception {
+        TestModel3 testModel = new TestModel3();
+        testModel.initialize();
+
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(testModel);
+        checker.setSolutionPoolSize(4);
+
+        Set<Constraint> C = testModel.getPossiblyFaultyConstraints();
+        Set<Constraint> B = testModel.getCorrectConstraints();
+
+        FastDiagV3Parameters parameter = FastDiagV3Parameters.builder()
+                .C(C)
+                .B(B).build();
+        FastDiagV3Labeler fastDiag = new FastDiagV3Labeler(checker, parameter);
+
+        HSDAG hsdag = new HSDAG(fastDiag, checker);
+
+        CAEvaluator.reset();
+        hsdag.construct();
+
+        printPerformance();
+
+        assertEquals(testModel.getExpectedAllDiagnoses(), hsdag.getDiagnoses());
+        assertTrue(getCounter(COUNTER_DECIDED_BY_SOLUTION_REUSE).getValue() > 0);
+        assertEquals(getCounter(COUNTER_CHOCO_SOLVER_CALLS).getValue(),
+                getCounter(COUNTER_DECIDED_BY_SOLUTION_REUSE).getValue() + getCounter(COUNTER_DECIDED_BY_SEARCH).getValue());
+        assertEquals(0, testModel.getModel().getNbCstrs());
+    }
+
+    @Test
+    void testCheckListener() throws Exception {
+        TestModel3 testModel = new TestModel3();
+        testModel.initialize();
+
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(testModel);
+        checker.setStrategy(CheckingStrategy.PROPAGATION_FIRST);
+        checker.setCache(new ConsistencyCache(100));
+
+        List<CheckEvent> events = new ArrayList<>();
+        ICheckListener listener = events::add;
+        checker.addCheckListener(listener);
+
+        Set<Constraint> C = testModel.getPossiblyFaultyConstraints();
+        Set<Constraint> B = testModel.getCorrectConstraints();
+
+        FastDiagV3Parameters parameter = FastDiagV3Parameters.builder()
+                .C(C)
+                .B(B).build();
+        FastDiagV3Labeler fastDiag = new FastDiagV3Labeler(checker, parameter);
+
+        HSDAG hsdag = new HSDAG(fastDiag, checker);
+
+        CAEvaluator.reset();
+        hsdag.construct();
+
+        assertEquals(testModel.getExpectedAllDiagnoses(), hsdag.getDiagnoses());
+        // an event for each check, also for the ones found in the cache
+        assertEquals(getCounter(COUNTER_CHOCO_SOLVER_CALLS).getValue(),
+                events.stream().filter(e -> e.getDecision() != CheckEvent.Decision.CACHE).count());
+        assertTrue(events.stream().anyMatch(e -> e.getDecision() == CheckEvent.Decision.CACHE));
+        assertTrue(events.stream().anyMatch(e -> e.getDecision() == CheckEvent.Decision.PROPAGATION));
+        assertTrue(events.stream().filter(e -> e.getDecision() == CheckEvent.Decision.SEARCH).mapToLong(CheckEvent::getNodes).sum() > 0);
+
+        for (CheckEvent event : events) {
+            assertEquals(CheckTrace.Kind.CONSTRAINTS, event.getKind());
+            assertTrue(event.getSize() > 0);
+            assertNotEquals(ConsistencyResult.UNKNOWN, event.getResult());
+            assertTrue(event.getTime() >= event.getPropagationTime() + event.getSearchTime());
+
+            switch (event.getDecision()) {
+                case CACHE -> assertEquals(0, event.getNumOfPostedConstraints());
+                case PROPAGATION -> {
+                    assertTrue(event.getNumOfPostedConstraints() > 0);
+                    assertTrue(event.getPropagationTime() > 0);
+                    assertEquals(0, event.getSearchTime());
+                    assertEquals(0, event.getNodes());
+                }
+                case SEARCH -> {
+                    assertTrue(event.getNumOfPostedConstraints() > 0);
+                    assertTrue(event.getSearchTime() > 0);
+                }
+                default -> fail("Unexpected decision " + event.getDecision());
+            }
+        }
+
+        // nothing is given after removing the listener
+        int numOfEvents = events.size();
+        checker.removeCheckListener(listener);
+        checker.isConsistent(C);
+        assertEquals(numOfEvents, events.size());
+    }
+
+    @Test
+    void testUnknownResults() throws Exception {
+        TestModel3 testModel = new TestModel3();
+        testModel.initialize();
+
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(testModel);
+        // a single constraint leaves decisions to the search
+        List<Constraint> C = List.of(testModel.getPossiblyFaultyConstraints().iterator().next());
+
+        checker.setNodeLimit(1);
+
+        assertFalse(checker.isConsistent(C));
+        assertEquals(ConsistencyResult.UNKNOWN, checker.getLastResult());
+
+        checker.setUnknownPolicy(UnknownPolicy.CONSISTENT);
+        assertTrue(checker.isConsistent(C));
+        assertEquals(ConsistencyResult.UNKNOWN, checker.getLastResult());
+
+        checker.setUnknownPolicy(UnknownPolicy.ABORT);
+        assertThrows(UnknownConsistencyException.class, () -> checker.isConsistent(C));
+        assertEquals(0, testModel.getModel().getNbCstrs());
+
+        checker.setNodeLimit(0);
+        assertTrue(checker.isConsistent(C));
+        assertEquals(ConsistencyResult.CONSISTENT, checker.getLastResult());
+    }
+
+    @Test
+    void testAbortedHSDAG() throws Exception {
+        TestModel3 testModel = new TestModel3();
+        testModel.initialize();
+
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(testModel);
+        checker.setNodeLimit(1);
+        checker.setUnknownPolicy(UnknownPolicy.ABORT);
+
+        Set<Constraint> C = testModel.getPossiblyFaultyConstraints();
+        Set<Constraint> B = testModel.getCorrectConstraints();
+
+        FastDiagV3Parameters parameter = FastDiagV3Parameters.builder()
+                .C(C)
+                .B(B).build();
+        FastDiagV3Labeler fastDiag = new FastDiagV3Labeler(checker, parameter);
+
+        HSDAG hsdag = new HSDAG(fastDiag, checker);
+
+        CAEvaluator.reset();
+        hsdag.construct();
+
+        printPerformance();
+
+        assertFalse(hsdag.isComplete());
+        assertTrue(getCounter(COUNTER_UNKNOWN).getValue() > 0);
+        assertTrue(testModel.getExpectedAllDiagnoses().containsAll(hsdag.getDiagnoses()));
+
+        // the construction can be restarted without limits
+        checker.setNodeLimit(0);
+        hsdag.resetEngine();
+        hsdag.construct();
+
+        assertTrue(hsdag.isComplete());
+        assertEquals(testModel.getExpectedAllDiagnoses(), hsdag.getDiagnoses());
+    }
+
+    @Test
+    void testFailedCheck() throws Exception {
+        TestModel4 testModel = new TestModel4();
+        testModel.initialize();
+
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(testModel);
+
+        List<Constraint> C = new LinkedList<>();
+        List<Constraint> B = new LinkedList<>();
+        for (Constraint c : testModel.getPossiblyFaultyConstraints()) {
+            if (c.getConstraint().contains("v2")) { // v2 = 1, v2 > 2
+                B.add(c);
+            } else {
+                C.add(c);
+            }
+        }
+
+        // an error during the search is an UNKNOWN result
+        checker.setStopCriterion(() -> {
+            throw new IllegalStateException("failed criterion");
+        });
+        CAEvaluator.reset();
+        assertFalse(checker.isConsistent(B));
+        assertEquals(ConsistencyResult.UNKNOWN, checker.getLastResult());
+        assertEquals(1, getCounter(COUNTER_UNKNOWN).getValue());
+
+        // the constraints of the failed check aren't kept in the model
+        assertEquals(0, testModel.getModel().getNbCstrs());
+        checker.setStopCriterion(null);
+        assertTrue(checker.isConsistent(C));
+    }
+
+    @Test
+    void testCheckAll() throws Exception {
+        TestModel4 testModel = new TestModel4();
+        testModel.initialize();
+
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(testModel);
+        ChocoConsistencyChecker pooledChecker = new ChocoConsistencyChecker(testModel);
+        pooledChecker.setPool(new CheckerPool(testModel, 3));
+
+        // growing sets, each one sharing the previous set as its prefix
+        List<Constraint> C = new LinkedList<>(testModel.getPossiblyFaultyConstraints());
+        List<List<Constraint>> sets = new ArrayList<>();
+        for (int i = 0; i < C.size(); i++) {
+            sets.add(C.subList(0, i + 1));
+        }
+        Collections.reverse(sets);
+
+        BitSet expected = new BitSet();
+        for (int i = 0; i < sets.size(); i++) {
+            expected.set(i, checker.isConsistent(sets.get(i)));
+        }
+        assertTrue(expected.get(sets.size() - 1));
+        assertFalse(expected.get(0));
+
+        for (ChocoConsistencyChecker c : List.of(checker, pooledChecker)) {
+            assertEquals(new CheckAllResult(expected, sets.size()), c.checkAll(sets));
+
+            BitSet firstConsistent = new BitSet();
+            firstConsistent.set(expected.nextSetBit(0));
+            assertEquals(new CheckAllResult(firstConsistent, expected.nextSetBit(0) + 1), c.checkAll(sets, CheckAllMode.FIRST_CONSISTENT));
+            // the first set is inconsistent, the following ones aren't checked
+            CheckAllResult firstInconsistent = c.checkAll(sets, CheckAllMode.FIRST_INCONSISTENT);
+            assertEquals(new CheckAllResult(new BitSet(), 1), firstInconsistent);
+            assertFalse(firstInconsistent.isConsistent(0));
+            assertFalse(firstInconsistent.isChecked(1));
+
+            // the checker is back to the non-incremental mode
+            assertFalse(c.isIncremental());
+            assertEquals(0, testModel.getModel().getNbCstrs());
+        }
+
+        Collections.reverse(sets);
+        BitSet reversed = new BitSet();
+        for (int i = 0; i < sets.size(); i++) {
+            reversed.set(i, expected.get(sets.size() - 1 - i));
+        }
+        int firstInconsistent = reversed.nextClearBit(0);
+        for (ChocoConsistencyChecker c : List.of(checker, pooledChecker)) {
+            assertEquals(new CheckAllResult(reversed, sets.size()), c.checkAll(sets));
+            assertEquals(new CheckAllResult(reversed.get(0, firstInconsistent), firstInconsistent + 1),
+                    c.checkAll(sets, CheckAllMode.FIRST_INCONSISTENT));
+        }
+
+        // the checkers of the pool check with the settings of the pooled checker
+        pooledChecker.setStopCriterion(() -> true);
+        pooledChecker.setUnknownPolicy(UnknownPolicy.CONSISTENT);
+        BitSet all = new BitSet();
+        all.set(0, sets.size());
+        assertEquals(new CheckAllResult(all, sets.size()), pooledChecker.checkAll(sets));
+        for (ChocoConsistencyChecker c : pooledChecker.getPool().getCheckers()) {
+            assertNull(c.getStopCriterion());
+            assertEquals(UnknownPolicy.INCONSISTENT, c.getUnknownPolicy());
+        }
+
+        pooledChecker.getPool().dispose();
+    }
+
+    @Test
+    void testWarmStart() throws Exception {
+        File fileFM = new File("src/test/resources/FM_10_1.splx");
+        FMFormat fmFormat = FMFormat.getFMFormat(Files.getFileExtension(fileFM.getName()));
+        FeatureModelParser parser = FMParserFactory.getInstance().getParser(fmFormat);
+        FeatureModel featureModel = parser.parse(fileFM);
+
+        TestSuiteBuilder factory = new TestSuiteBuilder();
+        FMTestCaseBuilder testCaseFactory = new FMTestCaseBuilder();
+        @Cleanup InputStream is = getInputStream(ChocoConsistencyCheckerTest.class.getClassLoader(), "FM_10_1.testcases");
+
+        TestSuite testSuite = factory.buildTestSuite(is, testCaseFactory);
+
+        FMDebuggingModel debuggingModel = new FMDebuggingModel(featureModel, testSuite, new FMTestCaseTranslator(),
+                true, false);
+        debuggingModel.initialize();
+        FMDebuggingModel clonedModel = (FMDebuggingModel) debuggingModel.clone();
+
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(debuggingModel);
+        ChocoConsistencyChecker warmChecker = new ChocoConsistencyChecker(clonedModel);
+        warmChecker.setWarmStart(true);
+        assertTrue(warmChecker.isWarmStart());
+
+        List<CheckEvent> events = new ArrayList<>();
+        warmChecker.addCheckListener(events::add);
+
+        List<Constraint> C = new LinkedList<>(debuggingModel.getAllConstraints());
+        List<Constraint> clonedC = new LinkedList<>(clonedModel.getAllConstraints());
+
+        // the same results, also with the restarts of another search configuration
+        Random random = new Random(11);
+        for (int i = 0; i < 50; i++) {
+            if (i == 25) {
+                warmChecker.setSearchConfiguration(SearchConfiguration.DOM_OVER_WDEG_LUBY);
+            }
+
+            List<Constraint> S = new LinkedList<>();
+            List<Constraint> clonedS = new LinkedList<>();
+            for (int j = 0; j < C.size(); j++) {
+                if (random.nextBoolean()) {
+                    S.add(C.get(j));
+                    clonedS.add(clonedC.get(j));
+                }
+            }
+
+            assertEquals(checker.isConsistent(S), warmChecker.isConsistent(clonedS));
+        }
+
+        // subsets of a consistent set are consistent without any fail, following the values of its solution
+        List<Constraint> S;
+        do {
+            S = clonedC.stream().filter(c -> random.nextBoolean()).toList();
+        } while (S.size() < 3 || !warmChecker.isConsistent(S));
+        events.clear();
+        for (Constraint c : S) {
+            List<Constraint> subset = new LinkedList<>(S);
+            subset.remove(c);
+            assertTrue(warmChecker.isConsistent(subset));
+        }
+        assertEquals(S.size(), events.size());
+        assertTrue(events.stream().allMatch(e -> e.getFails() == 0));
+
+        warmChecker.setWarmStart(false);
+        assertFalse(warmChecker.isWarmStart());
+        assertEquals(SearchConfiguration.DOM_OVER_WDEG_LUBY, warmChecker.getSearchConfiguration());
+    }
+
+    @Test
+    void testPinBackground() throws Exception {
+        File fileFM = new File("src/test/resources/FM_10_1.splx");
+        FMFormat fmFormat = FMFormat.getFMFormat(Files.getFileExtension(fileFM.getName()));
+        FeatureModelParser parser = FMParserFactory.getInstance().getParser(fmFormat);
+        FeatureModel featureModel = parser.parse(fileFM);
+
+        TestSuiteBuilder factory = new TestSuiteBuilder();
+        FMTestCaseBuilder testCaseFactory = new FMTestCaseBuilder();
+        @Cleanup InputStream is = getInputStream(ChocoConsistencyCheckerTest.class.getClassLoader(), "FM_10_1.testcases");
+
+        TestSuite testSuite = factory.buildTestSuite(is, testCaseFactory);
+
+        FMDebuggingModel debuggingModel = new FMDebuggingModel(featureModel, testSuite, new FMTestCaseTranslator(),
+                true, false);
+        debuggingModel.initialize();
+        FMDebuggingModel clonedModel = (FMDebuggingModel) debuggingModel.clone();
+
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(debuggingModel);
+        ChocoConsistencyChecker pinnedChecker = new ChocoConsistencyChecker(clonedModel);
+
+        List<Constraint> C = new LinkedList<>(debuggingModel.getPossiblyFaultyConstraints());
+        List<Constraint> clonedC = new LinkedList<>(clonedModel.getPossiblyFaultyConstraints());
+        List<ITestCase> TC = new LinkedList<>(debuggingModel.getTestcases());
+        List<ITestCase> clonedTC = new LinkedList<>(clonedModel.getTestcases());
+        Set<Constraint> clonedB = clonedModel.getCorrectConstraints();
+
+        pinnedChecker.pinBackground(clonedB);
+
+        CAEvaluator.reset();
+        Random random = new Random(7);
+        for (int i = 0; i < 50; i++) {
+            List<Constraint> S = new LinkedList<>(debuggingModel.getCorrectConstraints());
+            List<Constraint> clonedS = new LinkedList<>(clonedB);
+            for (int j = 0; j < C.size(); j++) {
+                if (random.nextBoolean()) {
+                    S.add(C.get(j));
+                    clonedS.add(clonedC.get(j));
+                }
+            }
+
+            assertEquals(checker.isConsistent(S), pinnedChecker.isConsistent(clonedS));
+            assertEquals(checker.isConsistent(S, TC.get(i % TC.size())), pinnedChecker.isConsistent(clonedS, clonedTC.get(i % TC.size())));
+        }
+        assertEquals(100L * clonedB.stream().mapToInt(c -> c.getChocoConstraints().size()).sum(),
+                getCounter(COUNTER_SAVED_BACKGROUND_POSTS).getValue());
+
+        // after unpinning, B isn't in the model anymore
+        pinnedChecker.unpinBackground();
+        assertEquals(0, clonedModel.getModel().getNbCstrs());
+        assertEquals(checker.isConsistent(C), pinnedChecker.isConsistent(clonedC));
+    }
+
+    @Test
+    void testBackgroundSingletonPruning() throws Exception {
+        TestModel4 testModel = new TestModel4();
+        testModel.initialize();
+        TestModel4 clonedModel = (TestModel4) testModel.clone();
+
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(testModel);
+        ChocoConsistencyChecker pinnedChecker = new ChocoConsistencyChecker(clonedModel);
+        pinnedChecker.setBackgroundSingletonPruning(true);
+
+        List<Constraint> C = new LinkedList<>(testModel.getPossiblyFaultyConstraints());
+        List<Constraint> clonedC = new LinkedList<>(clonedModel.getPossiblyFaultyConstraints());
+        List<Constraint> B = createAllDifferentBackground(testModel.getModel());
+        List<Constraint> clonedB = createAllDifferentBackground(clonedModel.getModel());
+
+        CAEvaluator.reset();
+        pinnedChecker.pinBackground(clonedB);
+
+        // nothing is probed before the checks use the variables of the background
+        assertEquals(0, getCounter(COUNTER_BACKGROUND_SINGLETON_PROBES).getValue());
+
+        for (int i = 0; i < C.size(); i++) {
+            for (int j = i; j < C.size(); j++) {
+                List<Constraint> S = new LinkedList<>(B);
+                S.addAll(C.subList(i, j + 1));
+                List<Constraint> clonedS = new LinkedList<>(clonedB);
+                clonedS.addAll(clonedC.subList(i, j + 1));
+
+                assertEquals(checker.isConsistent(S), pinnedChecker.isConsistent(clonedS));
+            }
+        }
+
+        // v3 = 1 and v3 = 2 fail, though the root propagation of the background cannot remove them
+        assertEquals(2, getCounter(COUNTER_BACKGROUND_SINGLETON_PRUNED_VALUES).getValue());
+        // only the variables of the background are probed, each of them once
+        int backgroundDomains = IntStream.range(0, 3).map(i -> ((IntVar) testModel.getModel().getVars()[i]).getDomainSize()).sum();
+        double probes = getCounter(COUNTER_BACKGROUND_SINGLETON_PROBES).getValue();
+        assertTrue(probes > 0);
+        assertTrue(probes <= backgroundDomains);
+        IntVar v3 = (IntVar) clonedModel.getModel().getVars()[2];
+        assertFalse(v3.contains(1));
+        assertFalse(v3.contains(2));
+
+        // the learned values are restored with the background
+        pinnedChecker.unpinBackground();
+        assertTrue(v3.contains(1));
+        for (int i = 0; i < C.size(); i++) {
+            assertEquals(checker.isConsistent(C.subList(i, i + 1)), pinnedChecker.isConsistent(clonedC.subList(i, i + 1)));
+        }
+
+        // and removed again without probes when the same background is re-pinned
+        CAEvaluator.reset();
+        pinnedChecker.pinBackground(clonedB);
+        assertEquals(2, getCounter(COUNTER_BACKGROUND_REAPPLIED_VALUES).getValue());
+        assertFalse(v3.contains(1));
+        for (int i = 0; i < C.size(); i++) {
+            List<Constraint> S = new LinkedList<>(B);
+            S.add(C.get(i));
+            List<Constraint> clonedS = new LinkedList<>(clonedB);
+            clonedS.add(clonedC.get(i));
+
+            assertEquals(checker.isConsistent(S), pinnedChecker.isConsistent(clonedS));
+        }
+        assertEquals(0, getCounter(COUNTER_BACKGROUND_SINGLETON_PROBES).getValue());
+        pinnedChecker.unpinBackground();
+
+        // no probes without budget
+        TestModel4 budgetModel = (TestModel4) testModel.clone();
+        ChocoConsistencyChecker budgetChecker = new ChocoConsistencyChecker(budgetModel);
+        budgetChecker.setBackgroundSingletonPruning(true);
+        budgetChecker.setSingletonProbeLimit(0);
+        List<Constraint> budgetC = new LinkedList<>(budgetModel.getPossiblyFaultyConstraints());
+        List<Constraint> budgetB = createAllDifferentBackground(budgetModel.getModel());
+        CAEvaluator.reset();
+        budgetChecker.pinBackground(budgetB);
+        for (int i = 0; i < C.size(); i++) {
+            List<Constraint> S = new LinkedList<>(B);
+            S.add(C.get(i));
+            List<Constraint> budgetS = new LinkedList<>(budgetB);
+            budgetS.add(budgetC.get(i));
+
+            assertEquals(checker.isConsistent(S), budgetChecker.isConsistent(budgetS));
+        }
+        assertEquals(0, getCounter(COUNTER_BACKGROUND_SINGLETON_PROBES).getValue());
+        assertEquals(0, getCounter(COUNTER_BACKGROUND_SINGLETON_PRUNED_VALUES).getValue());
+    }
+
+    /**
+     * v1 ≠ v2, v2 ≠ v3, v1 ≠ v3, v1 <= 2, v2 <= 2, which is arc consistent, but only has solutions with v3 = 3
+     */
+    private List<Constraint> createAllDifferentBackground(Model model) {
+        IntVar v1 = (IntVar) model.getVars()[0];
+        IntVar v2 = (IntVar) model.getVars()[1];
+        IntVar v3 = (IntVar) model.getVars()[2];
+
+        List<Constraint> B = new LinkedList<>();
+        B.add(createConstraint("v1 != v2", model.arithm(v1, "!=", v2)));
+        B.add(createConstraint("v2 != v3", model.arithm(v2, "!=", v3)));
+        B.add(createConstraint("v1 != v3", model.arithm(v1, "!=", v3)));
+        B.add(createConstraint("v1 <= 2", model.arithm(v1, "<=", 2)));
+        B.add(createConstraint("v2 <= 2", model.arithm(v2, "<=", 2)));
+        return B;
+    }
+
+    private Constraint createConstraint(String name, org.chocosolver.solver.constraints.Constraint chocoConstraint) {
+        Constraint constraint = new Constraint(name);
+        constraint.addChocoConstraint(chocoConstraint);
+        return constraint;
+    }
+
+    @Test
+    void testRetireEntailedBackground() throws Exception {
+        TestModel4 testModel = new TestModel4();
+        testModel.initialize();
+        TestModel4 clonedModel = (TestModel4) testModel.clone();
+
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(testModel);
+        ChocoConsistencyChecker pinnedChecker = new ChocoConsistencyChecker(clonedModel);
+
+        List<Constraint> C = new LinkedList<>(testModel.getPossiblyFaultyConstraints());
+        List<Constraint> clonedC = new LinkedList<>(clonedModel.getPossiblyFaultyConstraints());
+        // v2 = 1 is entailed by its own root propagation
+        int index = 0;
+        while (!C.get(index).getConstraint().contains("v2 = 1")) {
+            index++;
+        }
+        Constraint b = clonedC.get(index);
+
+        CAEvaluator.reset();
+        pinnedChecker.pinBackground(List.of(b));
+
+        assertEquals(b.getChocoConstraints().size(), getCounter(COUNTER_RETIRED_BACKGROUND_CONSTRAINTS).getValue());
+        assertEquals(0, clonedModel.getModel().getNbCstrs());
+
+        // the root domains still restrict the checks
+        for (int i = 0; i < C.size(); i++) {
+            Set<Constraint> S = new LinkedHashSet<>(C.subList(0, i + 1));
+            S.add(C.get(index));
+            assertEquals(checker.isConsistent(S), pinnedChecker.isConsistent(clonedC.subList(0, i + 1)));
+        }
+
+        pinnedChecker.unpinBackground();
+        assertEquals(checker.isConsistent(C), pinnedChecker.isConsistent(clonedC));
+    }
+
+    @Test
+    void testPinInconsistentBackground() throws Exception {
+        TestModel4 testModel = new TestModel4();
+        testModel.initialize();
+
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(testModel);
+
+        List<Constraint> C = new LinkedList<>();
+        List<Constraint> B = new LinkedList<>();
+        for (Constraint c : testModel.getPossiblyFaultyConstraints()) {
+            if (c.getConstraint().contains("v2")) { // v2 = 1, v2 > 2
+                B.add(c);
+            } else {
+                C.add(c);
+            }
+        }
+        assertTrue(checker.isConsistent(C));
+
+        checker.pinBackground(B);
+        assertFalse(checker.isConsistent(C));
+
+        checker.unpinBackground();
+        assertTrue(checker.isConsistent(C));
+    }
+
+    @Test
+    void testPinBackgroundWithCache() throws Exception {
+        TestModel4 testModel = new TestModel4();
+        testModel.initialize();
+
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(testModel);
+        checker.setCache(new MonotoneConsistencyCache());
+
+        List<Constraint> C = new LinkedList<>();
+        List<Constraint> B = new LinkedList<>();
+        for (Constraint c : testModel.getPossiblyFaultyConstraints()) {
+            if (c.getConstraint().contains("v2")) { // v2 = 1, v2 > 2
+                B.add(c);
+            } else {
+                C.add(c);
+            }
+        }
+        assertTrue(checker.isConsistent(C));
+
+        // C doesn't include B, hence the result cached without B doesn't hold anymore
+        checker.pinBackground(B);
+        assertFalse(checker.isConsistent(C));
+
+        checker.unpinBackground();
+        assertTrue(checker.isConsistent(C));
+        assertTrue(checker.isConsistent(C.subList(0, 1)));
+
+        checker.pinBackground(B);
+        assertFalse(checker.isConsistent(C.subList(0, 1)));
+    }
+
+    @Test
+    void testNegatedPinnedConstraint() throws Exception {
+        TestModel4 testModel = new TestModel4();
+        testModel.initialize();
+        Model model = testModel.getModel();
+        IntVar v1 = (IntVar) model.getVars()[0];
+        int lb = v1.getLB(), ub = v1.getUB();
+
+        Constraint c1 = createConstraint("v1 > lb", model.arithm(v1, ">", lb));
+        c1.addNegChocoConstraint(model.arithm(v1, "<=", lb));
+        Constraint c2 = createConstraint("v1 < ub", model.arithm(v1, "<", ub));
+        c2.addNegChocoConstraint(model.arithm(v1, ">=", ub));
+        List<Constraint> C = List.of(c1, c2);
+
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(testModel);
+        // v1 = lb satisfies v1 < ub and ¬(v1 > lb), i.e., c1 isn't redundant
+        assertTrue(checker.isConsistent(C, c1));
+
+        checker.pinBackground(List.of(c1));
+        int numOfCstrs = model.getNbCstrs();
+        assertTrue(checker.isConsistent(C, c1));
+
+        // the background is pinned again after the check
+        assertEquals(Set.of(c1), checker.getBackground());
+        assertEquals(numOfCstrs, model.getNbCstrs());
+        assertFalse(checker.isConsistent(List.of(c1, createConstraint("v1 = lb", model.arithm(v1, "=", lb)))));
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker;
+
+import at.tugraz.ist.ase.cacdr.algorithms.DirectDebug;
+import at.tugraz.ist.ase.cacdr.eval.CAEvaluator;
+import at.tugraz.ist.ase.cdrmodel.fm.FMDebuggingModel;
+import at.tugraz.ist.ase.fm.core.FeatureModel;
+import at.tugraz.ist.ase.fm.parser.FMFormat;
+import at.tugraz.ist.ase.fm.parser.FeatureModelParser;
+import at.tugraz.ist.ase.fm.parser.factory.FMParserFactory;
+import at.tugraz.ist.ase.kb.core.Constraint;
+import at.tugraz.ist.ase.test.ITestCase;
+import at.tugraz.ist.ase.test.TestCase;
+import at.tugraz.ist.ase.test.TestSuite;
+import at.tugraz.ist.ase.test.translator.fm.FMTestCaseTranslator;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.*;
+
+import static at.tugraz.ist.ase.cacdr.checker.TestDebuggingModels.createDebuggingModel;
+import static at.tugraz.ist.ase.cacdr.checker.FMBddConsistencyChecker.TIMER_BDD_COMPILATION;
+import static at.tugraz.ist.ase.cacdr.eval.CAEvaluator.*;
+import static at.tugraz.ist.ase.eval.PerformanceEvaluator.getCounter;
+import static at.tugraz.ist.ase.eval.PerformanceEvaluator.getTimer;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FMBddConsistencyCheckerTest {
+
+    @Test
+    void testSameResultsAsChocoConsistencyChecker() throws Exception {
+        for (String fm : List.of("FM_10_0", "FM_10_1", "FM_10_2")) {
+            FMDebuggingModel debuggingModel = createDebuggingModel(fm);
+
+            ChocoConsistencyChecker checker = new ChocoConsistencyChecker(debuggingModel);
+            FMSatConsistencyChecker satChecker = new FMSatConsistencyChecker(debuggingModel);
+            IConsistencyChecker bddChecker = ConsistencyCheckerFactory.getInstance().getChecker(CheckerType.BDD, debuggingModel);
+
+            List<Constraint> C = new LinkedList<>(debuggingModel.getPossiblyFaultyConstraints());
+            Set<Constraint> B = debuggingModel.getCorrectConstraints();
+            List<ITestCase> TC = new LinkedList<>(debuggingModel.getTestcases());
+
+            for (int i = 1; i <= C.size(); i++) {
+                List<Constraint> S = new LinkedList<>(B);
+                S.addAll(C.subList(0, i));
+
+                assertEquals(checker.isConsistent(S), bddChecker.isConsistent(S));
+                // the SAT checker also negates constraints
+                assertEquals(satChecker.isConsistent(S, C.get(i - 1)), ((FMBddConsistencyChecker) bddChecker).isConsistent(S, C.get(i - 1)));
+                for (ITestCase tc : TC) {
+                    assertEquals(checker.isConsistent(S, tc), bddChecker.isConsistent(S, tc));
+                }
+            }
+            for (ITestCase tc1 : TC) {
+                for (ITestCase tc2 : TC) {
+                    assertEquals(checker.isConsistent(tc1, tc2), ((FMBddConsistencyChecker) bddChecker).isConsistent(tc1, tc2));
+                }
+            }
+
+            Random random = new Random(1);
+            List<Constraint> all = new LinkedList<>(debuggingModel.getAllConstraints());
+            for (int i = 0; i < 200; i++) {
+                List<Constraint> S = new LinkedList<>();
+                all.stream().filter(c -> random.nextBoolean()).forEach(S::add);
+                if (S.isEmpty()) {
+                    S.add(all.get(0));
+                }
+                ITestCase tc = TC.get(random.nextInt(TC.size()));
+
+                assertEquals(checker.isConsistent(S, tc), bddChecker.isConsistent(S, tc));
+                assertEquals(satChecker.isConsistent(S, S.get(0)), ((FMBddConsistencyChecker) bddChecker).isConsistent(S, S.get(0)));
+            }
+
+            CAEvaluator.reset();
+            DirectDebug directDebug = new DirectDebug(bddChecker);
+            DirectDebug directDebug2 = new DirectDebug(checker);
+            assertEquals(directDebug2.findDiagnosis(debuggingModel.getPossiblyFaultyConstraints(), B, debuggingModel.getTestcases()),
+                    directDebug.findDiagnosis(debuggingModel.getPossiblyFaultyConstraints(), B, debuggingModel.getTestcases()));
+            assertTrue(getCounter(COUNTER_BDD_CHECKS).getValue() > 0);
+        }
+    }
+
+    @Test
+    void testFeatureIDEModel() throws Exception {
+        File fileFM = new File("src/test/resources/bamboobike_featureide.xml");
+        FeatureModelParser parser = FMParserFactory.getInstance().getParser(FMFormat.FEATUREIDE);
+        FeatureModel featureModel = parser.parse(fileFM);
+
+        FMDebuggingModel debuggingModel = new FMDebuggingModel(featureModel, TestSuite.builder().testCases(new LinkedList<>()).build(),
+                new FMTestCaseTranslator(), true, false);
+        debuggingModel.initialize();
+
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(debuggingModel);
+        FMBddConsistencyChecker bddChecker = new FMBddConsistencyChecker(debuggingModel);
+
+        List<Constraint> C = new LinkedList<>(debuggingModel.getAllConstraints());
+        for (int i = 1; i <= C.size(); i++) {
+            List<Constraint> S = C.subList(0, i);
+            assertEquals(checker.isConsistent(S), bddChecker.isConsistent(S));
+        }
+    }
+
+    @Test
+    void testEmptyNegation() throws Exception {
+        FMDebuggingModel debuggingModel = createDebuggingModel("FM_10_0");
+
+        FMBddConsistencyChecker bddChecker = new FMBddConsistencyChecker(debuggingModel);
+        FMSatConsistencyChecker satChecker = new FMSatConsistencyChecker(debuggingModel);
+
+        // ¬(empty conjunction) is false, hence every test case makes the empty test case redundant
+        ITestCase empty = TestCase.builder().testcase("").assignments(new LinkedList<>()).build();
+        for (ITestCase tc : debuggingModel.getTestcases()) {
+            assertFalse(bddChecker.isConsistent(tc, empty));
+            assertFalse(satChecker.isConsistent(tc, empty));
+        }
+    }
+
+    @Test
+    void testCache() throws Exception {
+        File cacheFile = File.createTempFile("FM_10_0", ".bdd");
+        cacheFile.deleteOnExit();
+        assertTrue(cacheFile.delete());
+        FMDebuggingModel debuggingModel = createDebuggingModel("FM_10_0");
+
+        CAEvaluator.reset();
+        FMBddConsistencyChecker compiled = new FMBddConsistencyChecker(debuggingModel, cacheFile);
+        assertTrue(cacheFile.exists());
+        assertEquals(1, getTimer(TIMER_BDD_COMPILATION).getTimings().size());
+
+        // loaded from the cache
+        FMBddConsistencyChecker loaded = new FMBddConsistencyChecker(debuggingModel, cacheFile);
+        assertEquals(1, getTimer(TIMER_BDD_COMPILATION).getTimings().size());
+        assertEquals(compiled.getNumOfNodes(), loaded.getNumOfNodes());
+
+        List<Constraint> C = new LinkedList<>(debuggingModel.getAllConstraints());
+        for (ITestCase tc : debuggingModel.getTestcases()) {
+            for (int i = 1; i <= C.size(); i++) {
+                assertEquals(compiled.isConsistent(C.subList(0, i), tc), loaded.isConsistent(C.subList(0, i), tc));
+            }
+        }
+
+        // the cache of another model is ignored, and overwritten
+        FMDebuggingModel otherModel = createDebuggingModel("FM_10_1");
+        FMBddConsistencyChecker other = new FMBddConsistencyChecker(otherModel, cacheFile);
+        assertEquals(2, getTimer(TIMER_BDD_COMPILATION).getTimings().size());
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(otherModel);
+        for (ITestCase tc : otherModel.getTestcases()) {
+            assertEquals(checker.isConsistent(otherModel.getAllConstraints(), tc), other.isConsistent(otherModel.getAllConstraints(), tc));
+        }
+        assertEquals(other.getNumOfNodes(), new FMBddConsistencyChecker(otherModel, cacheFile).getNumOfNodes());
+        assertEquals(2, getTimer(TIMER_BDD_COMPILATION).getTimings().size());
+    }
+}
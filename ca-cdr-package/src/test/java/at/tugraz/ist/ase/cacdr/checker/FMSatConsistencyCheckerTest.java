@@ -0,0 +1,194 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker;
+
+import at.tugraz.ist.ase.cacdr.algorithms.DirectDebug;
+import at.tugraz.ist.ase.cacdr.algorithms.hs.HSDAG;
+import at.tugraz.ist.ase.cacdr.algorithms.hs.labeler.QuickXPlainLabeler;
+import at.tugraz.ist.ase.cacdr.algorithms.hs.parameters.QuickXPlainParameters;
+import at.tugraz.ist.ase.cacdr.eval.CAEvaluator;
+import at.tugraz.ist.ase.cdrmodel.fm.FMDebuggingModel;
+import at.tugraz.ist.ase.cdrmodel.test.model.TestModel2;
+import at.tugraz.ist.ase.fm.core.FeatureModel;
+import at.tugraz.ist.ase.fm.parser.FMFormat;
+import at.tugraz.ist.ase.fm.parser.FeatureModelParser;
+import at.tugraz.ist.ase.fm.parser.factory.FMParserFactory;
+import at.tugraz.ist.ase.kb.core.Constraint;
+import at.tugraz.ist.ase.test.ITestCase;
+import at.tugraz.ist.ase.test.TestSuite;
+import at.tugraz.ist.ase.test.translator.fm.FMTestCaseTranslator;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.*;
+
+import static at.tugraz.ist.ase.cacdr.checker.TestDebuggingModels.createDebuggingModel;
+import static at.tugraz.ist.ase.cacdr.eval.CAEvaluator.*;
+import static at.tugraz.ist.ase.eval.PerformanceEvaluator.getCounter;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FMSatConsistencyCheckerTest {
+
+    @Test
+    void testSameResultsAsChocoConsistencyChecker() throws Exception {
+        for (String fm : List.of("FM_10_0", "FM_10_1", "FM_10_2")) {
+            FMDebuggingModel debuggingModel = createDebuggingModel(fm);
+
+            ChocoConsistencyChecker checker = new ChocoConsistencyChecker(debuggingModel);
+            IConsistencyChecker satChecker = ConsistencyCheckerFactory.getInstance().getChecker(CheckerType.SAT, debuggingModel);
+
+            List<Constraint> C = new LinkedList<>(debuggingModel.getPossiblyFaultyConstraints());
+            Set<Constraint> B = debuggingModel.getCorrectConstraints();
+            List<ITestCase> TC = new LinkedList<>(debuggingModel.getTestcases());
+
+            for (int i = 1; i <= C.size(); i++) {
+                List<Constraint> S = new LinkedList<>(B);
+                S.addAll(C.subList(0, i));
+
+                assertEquals(checker.isConsistent(S), satChecker.isConsistent(S));
+                for (ITestCase tc : TC) {
+                    assertEquals(checker.isConsistent(S, tc), satChecker.isConsistent(S, tc));
+                }
+            }
+            for (ITestCase tc1 : TC) {
+                for (ITestCase tc2 : TC) {
+                    assertEquals(checker.isConsistent(tc1, tc2), ((FMSatConsistencyChecker) satChecker).isConsistent(tc1, tc2));
+                }
+            }
+
+            // random subsets, which reuse the learned clauses
+            Random random = new Random(1);
+            List<Constraint> all = new LinkedList<>(debuggingModel.getAllConstraints());
+            for (int i = 0; i < 200; i++) {
+                List<Constraint> S = new LinkedList<>();
+                all.stream().filter(c -> random.nextBoolean()).forEach(S::add);
+                if (S.isEmpty()) {
+                    S.add(all.get(0));
+                }
+                ITestCase tc = TC.get(random.nextInt(TC.size()));
+
+                assertEquals(checker.isConsistent(S, tc), satChecker.isConsistent(S, tc));
+            }
+
+            DirectDebug directDebug = new DirectDebug(satChecker);
+            DirectDebug directDebug2 = new DirectDebug(checker);
+            assertEquals(directDebug2.findDiagnosis(debuggingModel.getPossiblyFaultyConstraints(), B, debuggingModel.getTestcases()),
+                    directDebug.findDiagnosis(debuggingModel.getPossiblyFaultyConstraints(), B, debuggingModel.getTestcases()));
+        }
+    }
+
+    @Test
+    void testFeatureIDEModel() throws Exception {
+        File fileFM = new File("src/test/resources/bamboobike_featureide.xml");
+        FeatureModelParser parser = FMParserFactory.getInstance().getParser(FMFormat.FEATUREIDE);
+        FeatureModel featureModel = parser.parse(fileFM);
+
+        FMDebuggingModel debuggingModel = new FMDebuggingModel(featureModel, TestSuite.builder().testCases(new LinkedList<>()).build(),
+                new FMTestCaseTranslator(), true, false);
+        debuggingModel.initialize();
+
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(debuggingModel);
+        FMSatConsistencyChecker satChecker = new FMSatConsistencyChecker(debuggingModel);
+
+        List<Constraint> C = new LinkedList<>(debuggingModel.getAllConstraints());
+        for (int i = 1; i <= C.size(); i++) {
+            List<Constraint> S = C.subList(0, i);
+            assertEquals(checker.isConsistent(S), satChecker.isConsistent(S));
+
+            // ¬cstr is consistent with the others only if the others are consistent
+            if (satChecker.isConsistent(S, C.get(i - 1)) && i > 1) {
+                assertTrue(checker.isConsistent(C.subList(0, i - 1)));
+            }
+        }
+    }
+
+    @Test
+    void testNegatedConstraint() throws Exception {
+        FMDebuggingModel debuggingModel = createDebuggingModel("FM_10_0");
+        FMSatConsistencyChecker satChecker = new FMSatConsistencyChecker(debuggingModel);
+
+        Constraint root = debuggingModel.getCorrectConstraints().iterator().next();
+        for (Constraint c : debuggingModel.getPossiblyFaultyConstraints()) {
+            // ¬c
+            assertTrue(satChecker.isConsistent(List.of(c), c));
+            // {c} ∪ ¬{f0 = true}, i.e., no feature is selected
+            assertTrue(satChecker.isConsistent(List.of(root, c), root));
+        }
+    }
+
+    @Test
+    void testUnsatCore() throws Exception {
+        FMDebuggingModel debuggingModel = createDebuggingModel("FM_10_0");
+        FMSatConsistencyChecker satChecker = new FMSatConsistencyChecker(debuggingModel);
+
+        List<Constraint> all = new LinkedList<>(debuggingModel.getAllConstraints());
+        List<ITestCase> TC = new LinkedList<>(debuggingModel.getTestcases());
+
+        Random random = new Random(1);
+        int cores = 0;
+        for (int i = 0; i < 200; i++) {
+            List<Constraint> S = new LinkedList<>();
+            all.stream().filter(c -> random.nextBoolean()).forEach(S::add);
+            if (S.isEmpty()) {
+                S.add(all.get(0));
+            }
+            ITestCase tc = TC.get(random.nextInt(TC.size()));
+
+            if (satChecker.isConsistent(S, tc)) {
+                assertNull(satChecker.getUnsatCore());
+            } else {
+                Set<Constraint> core = satChecker.getUnsatCore();
+                assertTrue(S.containsAll(core));
+                if (!core.isEmpty()) {
+                    assertFalse(satChecker.isConsistent(core, tc));
+                    cores++;
+                }
+            }
+        }
+        assertTrue(cores > 0);
+    }
+
+    @Test
+    void testHSDAG() throws Exception {
+        FMDebuggingModel debuggingModel = createDebuggingModel("FM_10_1");
+
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(debuggingModel);
+        FMSatConsistencyChecker satChecker = new FMSatConsistencyChecker(debuggingModel);
+
+        HSDAG hsdag = createHSDAG(checker, debuggingModel);
+        hsdag.construct();
+
+        CAEvaluator.reset();
+        HSDAG satHsdag = createHSDAG(satChecker, debuggingModel);
+        satHsdag.construct();
+
+        assertEquals(hsdag.getConflicts(), satHsdag.getConflicts());
+        assertEquals(hsdag.getDiagnoses(), satHsdag.getDiagnoses());
+        assertEquals(0, getCounter(COUNTER_CHOCO_SOLVER_CALLS).getValue());
+        assertTrue(getCounter(COUNTER_SAT_SOLVER_CALLS).getValue() > 0);
+    }
+
+    @Test
+    void testUnsupportedModel() throws Exception {
+        TestModel2 testModel = new TestModel2();
+        testModel.initialize();
+
+        assertThrows(IllegalArgumentException.class, () -> ConsistencyCheckerFactory.getInstance().getChecker(CheckerType.SAT, testModel));
+        assertTrue(ConsistencyCheckerFactory.getInstance().getChecker(CheckerType.CHOCO, testModel) instanceof ChocoConsistencyChecker);
+    }
+
+    private HSDAG createHSDAG(IConsistencyChecker checker, FMDebuggingModel debuggingModel) {
+        QuickXPlainParameters parameter = QuickXPlainParameters.builder()
+                .C(debuggingModel.getPossiblyFaultyConstraints())
+                .B(debuggingModel.getCorrectConstraints()).build();
+        QuickXPlainLabeler quickXplain = new QuickXPlainLabeler(checker, parameter);
+
+        return new HSDAG(quickXplain, checker);
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker;
+
+import at.tugraz.ist.ase.cdrmodel.fm.FMDebuggingModel;
+import at.tugraz.ist.ase.cdrmodel.test.model.TestModel4;
+import at.tugraz.ist.ase.kb.core.Constraint;
+import at.tugraz.ist.ase.test.ITestCase;
+import org.chocosolver.util.criteria.Criterion;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static at.tugraz.ist.ase.cacdr.checker.TestDebuggingModels.createDebuggingModel;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PortfolioConsistencyCheckerTest {
+
+    @Test
+    void testSameResultsAsChocoConsistencyChecker() throws Exception {
+        FMDebuggingModel debuggingModel = createDebuggingModel("FM_10_1");
+
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(debuggingModel);
+        PortfolioConsistencyChecker portfolio = new PortfolioConsistencyChecker(debuggingModel);
+
+        List<Constraint> C = new LinkedList<>(debuggingModel.getAllConstraints());
+        List<ITestCase> TC = new LinkedList<>(debuggingModel.getTestcases());
+
+        Random random = new Random(3);
+        Set<Boolean> results = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            List<Constraint> S = new LinkedList<>();
+            C.stream().filter(c -> random.nextBoolean()).forEach(S::add);
+            if (S.isEmpty()) {
+                S.add(C.get(0));
+            }
+            ITestCase tc = TC.get(random.nextInt(TC.size()));
+
+            boolean expected = checker.isConsistent(S, tc);
+            assertEquals(expected, portfolio.isConsistent(S, tc));
+            assertNotNull(portfolio.getLastWinner());
+            results.add(expected);
+        }
+        assertEquals(Set.of(true, false), results);
+
+        // every check is won by exactly one configuration
+        assertEquals(100, portfolio.getWins().values().stream().mapToInt(Integer::intValue).sum());
+        assertTrue(portfolio.getWins().containsKey(portfolio.getWinningConfiguration()));
+        assertEquals(0, debuggingModel.getModel().getNbCstrs());
+
+        portfolio.dispose();
+    }
+
+    @Test
+    void testSearchConfigurations() throws Exception {
+        TestModel4 testModel = new TestModel4();
+        testModel.initialize();
+
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(testModel);
+        List<Constraint> C = new LinkedList<>(testModel.getPossiblyFaultyConstraints());
+
+        List<Boolean> expected = new ArrayList<>();
+        for (int i = 0; i < C.size(); i++) {
+            expected.add(checker.isConsistent(C.subList(i, C.size())));
+        }
+        assertTrue(expected.contains(true) && expected.contains(false));
+
+        for (SearchConfiguration configuration : SearchConfiguration.values()) {
+            // configured twice, the second configuration replaces the first one
+            checker.setSearchConfiguration(configuration, 1);
+            checker.setSearchConfiguration(configuration, 2);
+
+            assertEquals(configuration, checker.getSearchConfiguration());
+            for (int i = 0; i < C.size(); i++) {
+                assertEquals(expected.get(i), checker.isConsistent(C.subList(i, C.size())), configuration.name());
+            }
+        }
+    }
+
+    @Test
+    void testStopCriterion() throws Exception {
+        TestModel4 testModel = new TestModel4();
+        testModel.initialize();
+
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(testModel);
+        List<Constraint> C = new LinkedList<>(testModel.getPossiblyFaultyConstraints());
+
+        checker.setStopCriterion(() -> true);
+        checker.setUnknownPolicy(UnknownPolicy.CONSISTENT);
+        assertTrue(checker.isConsistent(C));
+        assertEquals(ConsistencyResult.UNKNOWN, checker.getLastResult());
+
+        checker.setStopCriterion(null);
+        assertFalse(checker.isConsistent(C));
+        assertEquals(ConsistencyResult.INCONSISTENT, checker.getLastResult());
+    }
+
+    @Test
+    void testStopCriteriaOfCheckers() throws Exception {
+        TestModel4 testModel = new TestModel4();
+        testModel.initialize();
+
+        PortfolioConsistencyChecker portfolio = new PortfolioConsistencyChecker(testModel);
+        List<Constraint> C = new LinkedList<>(testModel.getPossiblyFaultyConstraints());
+
+        // the criteria of the checkers stop all searches, and are kept after the check
+        List<Criterion> criteria = new ArrayList<>();
+        for (ChocoConsistencyChecker checker : portfolio.getCheckers()) {
+            Criterion criterion = () -> true;
+            checker.setStopCriterion(criterion);
+            criteria.add(criterion);
+        }
+        portfolio.setUnknownPolicy(UnknownPolicy.CONSISTENT);
+        assertTrue(portfolio.isConsistent(C));
+        assertEquals(ConsistencyResult.UNKNOWN, portfolio.getLastResult());
+        assertNull(portfolio.getLastWinner());
+        for (int i = 0; i < criteria.size(); i++) {
+            assertSame(criteria.get(i), portfolio.getCheckers().get(i).getStopCriterion());
+        }
+
+        portfolio.getCheckers().forEach(checker -> checker.setStopCriterion(null));
+        assertFalse(portfolio.isConsistent(C));
+        assertEquals(ConsistencyResult.INCONSISTENT, portfolio.getLastResult());
+        portfolio.getCheckers().forEach(checker -> assertNull(checker.getStopCriterion()));
+
+        portfolio.dispose();
+    }
+}
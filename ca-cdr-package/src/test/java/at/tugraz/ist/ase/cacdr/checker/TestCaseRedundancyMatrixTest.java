@@ -0,0 +1,90 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker;
+
+import at.tugraz.ist.ase.cdrmodel.fm.FMDebuggingModel;
+import at.tugraz.ist.ase.fm.core.FeatureModel;
+import at.tugraz.ist.ase.fm.parser.FMFormat;
+import at.tugraz.ist.ase.fm.parser.FeatureModelParser;
+import at.tugraz.ist.ase.fm.parser.factory.FMParserFactory;
+import at.tugraz.ist.ase.test.ITestCase;
+import at.tugraz.ist.ase.test.TestSuite;
+import at.tugraz.ist.ase.test.builder.TestSuiteBuilder;
+import at.tugraz.ist.ase.test.builder.fm.FMTestCaseBuilder;
+import at.tugraz.ist.ase.test.translator.fm.FMTestCaseTranslator;
+import com.google.common.io.Files;
+import lombok.Cleanup;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static at.tugraz.ist.ase.common.IOUtils.getInputStream;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestCaseRedundancyMatrixTest {
+
+    @Test
+    void testSameRelationAsPairwiseChecks() throws Exception {
+        File fileFM = new File("src/test/resources/FM_10_0.splx");
+        FMFormat fmFormat = FMFormat.getFMFormat(Files.getFileExtension(fileFM.getName()));
+        FeatureModelParser parser = FMParserFactory.getInstance().getParser(fmFormat);
+        FeatureModel featureModel = parser.parse(fileFM);
+
+        TestSuiteBuilder factory = new TestSuiteBuilder();
+        FMTestCaseBuilder testCaseFactory = new FMTestCaseBuilder();
+        @Cleanup InputStream is = getInputStream(TestCaseRedundancyMatrixTest.class.getClassLoader(), "FM_10_0.testcases");
+
+        TestSuite testSuite = factory.buildTestSuite(is, testCaseFactory);
+
+        FMDebuggingModel debuggingModel = new FMDebuggingModel(featureModel, testSuite, new FMTestCaseTranslator(),
+                true, false);
+        debuggingModel.initialize();
+
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(debuggingModel);
+        List<ITestCase> TC = new ArrayList<>(debuggingModel.getTestcases());
+        int n = TC.size();
+
+        TestCaseRedundancyMatrix matrix = TestCaseRedundancyMatrix.compute(checker, TC);
+        CheckerPool pool = new CheckerPool(debuggingModel, 3);
+        TestCaseRedundancyMatrix parallelMatrix = TestCaseRedundancyMatrix.compute(pool, TC);
+        pool.dispose();
+
+        assertEquals(n, matrix.size());
+        int redundant = 0;
+        for (int alpha = 0; alpha < n; alpha++) {
+            for (int gamma = 0; gamma < n; gamma++) {
+                boolean expected = alpha == gamma || !checker.isConsistent(TC.get(alpha), TC.get(gamma));
+
+                assertEquals(expected, matrix.isRedundant(alpha, gamma), alpha + " -> " + gamma);
+                assertEquals(expected, parallelMatrix.isRedundant(alpha, gamma), alpha + " -> " + gamma);
+                if (expected && alpha != gamma) {
+                    redundant++;
+                }
+            }
+        }
+        assertTrue(redundant > 0);
+
+        // the pairs decided without checks
+        assertTrue(matrix.getNumOfChecks() < n * (n - 1));
+        assertEquals(n * (n - 1), matrix.getNumOfChecks() + matrix.getNumOfAssignmentDecisions() + matrix.getNumOfTransitiveDecisions());
+        assertTrue(matrix.getNumOfAssignmentDecisions() > 0);
+
+        // no remaining test case is redundant given another remaining one
+        List<ITestCase> nonRedundant = matrix.getNonRedundantTestCases();
+        assertTrue(nonRedundant.size() < n);
+        for (ITestCase tα : nonRedundant) {
+            for (ITestCase tγ : nonRedundant) {
+                assertTrue(tα == tγ || checker.isConsistent(tα, tγ));
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker;
+
+import at.tugraz.ist.ase.cdrmodel.fm.FMDebuggingModel;
+import at.tugraz.ist.ase.fm.core.FeatureModel;
+import at.tugraz.ist.ase.fm.parser.FMFormat;
+import at.tugraz.ist.ase.fm.parser.FeatureModelParser;
+import at.tugraz.ist.ase.fm.parser.factory.FMParserFactory;
+import at.tugraz.ist.ase.test.TestSuite;
+import at.tugraz.ist.ase.test.builder.TestSuiteBuilder;
+import at.tugraz.ist.ase.test.builder.fm.FMTestCaseBuilder;
+import at.tugraz.ist.ase.test.translator.fm.FMTestCaseTranslator;
+import com.google.common.io.Files;
+import lombok.Cleanup;
+
+import java.io.File;
+import java.io.InputStream;
+
+import static at.tugraz.ist.ase.common.IOUtils.getInputStream;
+
+/**
+ * Debugging models of the feature models in the test resources, shared by the checker tests.
+ */
+public final class TestDebuggingModels {
+
+    private TestDebuggingModels() {}
+
+    /**
+     * Creates an initialized debugging model of a feature model and its test cases.
+     * @param fm the name of the feature model, e.g., FM_10_1 for FM_10_1.splx and FM_10_1.testcases
+     */
+    public static FMDebuggingModel createDebuggingModel(String fm) throws Exception {
+        File fileFM = new File("src/test/resources/" + fm + ".splx");
+        FMFormat fmFormat = FMFormat.getFMFormat(Files.getFileExtension(fileFM.getName()));
+        FeatureModelParser parser = FMParserFactory.getInstance().getParser(fmFormat);
+        FeatureModel featureModel = parser.parse(fileFM);
+
+        TestSuiteBuilder factory = new TestSuiteBuilder();
+        FMTestCaseBuilder testCaseFactory = new FMTestCaseBuilder();
+        @Cleanup InputStream is = getInputStream(TestDebuggingModels.class.getClassLoader(), fm + ".testcases");
+
+        TestSuite testSuite = factory.buildTestSuite(is, testCaseFactory);
+
+        FMDebuggingModel debuggingModel = new FMDebuggingModel(featureModel, testSuite, new FMTestCaseTranslator(),
+                true, false);
+        debuggingModel.initialize();
+        return debuggingModel;
+    }
+}
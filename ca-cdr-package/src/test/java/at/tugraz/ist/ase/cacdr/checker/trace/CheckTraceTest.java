@@ -0,0 +1,116 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker.trace;
+
+import at.tugraz.ist.ase.cacdr.algorithms.DirectDebug;
+import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.checker.ConsistencyResult;
+import at.tugraz.ist.ase.cacdr.checker.FMBddConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.checker.FMSatConsistencyChecker;
+import at.tugraz.ist.ase.cdrmodel.fm.FMDebuggingModel;
+import at.tugraz.ist.ase.kb.core.Constraint;
+import at.tugraz.ist.ase.test.ITestCase;
+import at.tugraz.ist.ase.test.TestCase;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.*;
+
+import static at.tugraz.ist.ase.cacdr.checker.TestDebuggingModels.createDebuggingModel;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CheckTraceTest {
+
+    @Test
+    void testRecordAndReplay() throws Exception {
+        FMDebuggingModel debuggingModel = createDebuggingModel("FM_10_1");
+        File file = File.createTempFile("checks", ".trace");
+
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(debuggingModel);
+        try (CheckTraceRecorder recorder = new CheckTraceRecorder(file)) {
+            checker.setRecorder(recorder);
+
+            // a real workload...
+            DirectDebug directDebug = new DirectDebug(checker);
+            directDebug.findDiagnosis(debuggingModel.getPossiblyFaultyConstraints(),
+                    debuggingModel.getCorrectConstraints(), debuggingModel.getTestcases());
+
+            // ...and the checks without test cases
+            List<Constraint> C = new LinkedList<>(debuggingModel.getAllConstraints());
+            List<ITestCase> TC = new LinkedList<>(debuggingModel.getTestcases());
+            checker.isConsistent(C);
+            for (int i = 0; i < TC.size(); i++) {
+                checker.isConsistent(TC.get(i), TC.get((i + 1) % TC.size()));
+            }
+            for (Constraint c : C) {
+                checker.isConsistent(C, c);
+            }
+            checker.setRecorder(null);
+        }
+
+        CheckTrace trace = CheckTrace.load(file);
+        assertTrue(trace.getChecks().size() > debuggingModel.getTestcases().size() + debuggingModel.getAllConstraints().size());
+        assertEquals(EnumSet.allOf(CheckTrace.Kind.class),
+                EnumSet.copyOf(trace.getChecks().stream().map(CheckTrace.Check::getKind).toList()));
+
+        // the same results with any checker of the same model
+        FMDebuggingModel clonedModel = (FMDebuggingModel) debuggingModel.clone();
+        CheckTraceReport chocoReport = trace.replay(new ChocoConsistencyChecker(clonedModel), clonedModel);
+        CheckTraceReport satReport = trace.replay(new FMSatConsistencyChecker(debuggingModel), debuggingModel);
+        CheckTraceReport bddReport = trace.replay(new FMBddConsistencyChecker(debuggingModel), debuggingModel);
+
+        for (CheckTraceReport report : List.of(chocoReport, satReport, bddReport)) {
+            assertEquals(trace.getChecks().size(), report.getNumOfChecks());
+            assertEquals(0, report.getNumOfUndecidedChecks());
+        }
+        assertTrue(chocoReport.isIdentical(), chocoReport.toString());
+        // the feature model constraints of the Choco model have no negated constraints,
+        // hence only the checks with a negated constraint can differ from SAT and BDD
+        for (CheckTraceReport report : List.of(satReport, bddReport)) {
+            assertTrue(report.getMismatches().stream()
+                    .allMatch(i -> trace.getChecks().get(i).getKind() == CheckTrace.Kind.CONSTRAINTS_NEG_CONSTRAINT), report.toString());
+        }
+
+        file.delete();
+    }
+
+    @Test
+    void testLoadOtherFile() throws Exception {
+        File file = File.createTempFile("checks", ".trace");
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(new byte[]{0, 3, 'B', 'D', 'D'});
+        }
+
+        assertThrows(IOException.class, () -> CheckTrace.load(file));
+
+        file.delete();
+    }
+
+    @Test
+    void testLongTexts() throws Exception {
+        File file = File.createTempFile("checks", ".trace");
+        // longer than the 64KB of writeUTF
+        String text = "ä".repeat(70000);
+        ITestCase testcase = TestCase.builder().testcase(text).assignments(new LinkedList<>()).build();
+
+        try (CheckTraceRecorder recorder = new CheckTraceRecorder(file)) {
+            recorder.record(testcase, testcase, ConsistencyResult.INCONSISTENT, 1);
+            assertEquals(1, recorder.getNumOfChecks());
+        }
+
+        CheckTrace trace = CheckTrace.load(file);
+        assertEquals(List.of(text), trace.getTestcases());
+        assertEquals(1, trace.getChecks().size());
+        assertEquals(ConsistencyResult.INCONSISTENT, trace.getChecks().get(0).getResult());
+
+        file.delete();
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker.worker;
+
+import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.checker.ConsistencyResult;
+import at.tugraz.ist.ase.cacdr.checker.UnknownConsistencyException;
+import at.tugraz.ist.ase.cacdr.checker.UnknownPolicy;
+import at.tugraz.ist.ase.cacdr.checker.trace.CheckWriter;
+import at.tugraz.ist.ase.cacdr.eval.CAEvaluator;
+import at.tugraz.ist.ase.cdrmodel.fm.FMDebuggingModel;
+import at.tugraz.ist.ase.cdrmodel.test.model.TestModel4;
+import at.tugraz.ist.ase.kb.core.Constraint;
+import at.tugraz.ist.ase.test.ITestCase;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.Pipe;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static at.tugraz.ist.ase.cacdr.checker.TestDebuggingModels.createDebuggingModel;
+import static at.tugraz.ist.ase.cacdr.eval.CAEvaluator.COUNTER_WORKER_CHECKS;
+import static at.tugraz.ist.ase.eval.PerformanceEvaluator.getCounter;
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkerPoolConsistencyCheckerTest {
+
+    @Test
+    void testInProcess() throws Exception {
+        FMDebuggingModel debuggingModel = createDebuggingModel("FM_10_1");
+
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(debuggingModel);
+        WorkerPoolConsistencyChecker workers = WorkerPoolConsistencyChecker.inProcess(debuggingModel, 3);
+        assertEquals(3, workers.size());
+
+        List<Constraint> C = new LinkedList<>(debuggingModel.getAllConstraints());
+        List<ITestCase> TC = new LinkedList<>(debuggingModel.getTestcases());
+
+        CAEvaluator.reset();
+        Random random = new Random(5);
+        Set<Boolean> results = new HashSet<>();
+        for (int i = 0; i < 30; i++) {
+            List<Constraint> S = new LinkedList<>();
+            C.stream().filter(c -> random.nextBoolean()).forEach(S::add);
+            if (S.isEmpty()) {
+                S.add(C.get(0));
+            }
+            ITestCase tc = TC.get(random.nextInt(TC.size()));
+            ITestCase neg_tc = TC.get(random.nextInt(TC.size()));
+            Constraint cstr = S.get(random.nextInt(S.size()));
+
+            results.add(checker.isConsistent(S, tc));
+            assertEquals(checker.isConsistent(S), workers.isConsistent(S));
+            assertEquals(checker.isConsistent(S, tc), workers.isConsistent(S, tc));
+            assertEquals(checker.isConsistent(tc, neg_tc), workers.isConsistent(tc, neg_tc));
+            assertEquals(checker.isConsistent(S, cstr), workers.isConsistent(S, cstr));
+            assertNotEquals(ConsistencyResult.UNKNOWN, workers.getLastResult());
+
+            // the test cases are spread over the workers
+            assertEquals(checker.isConsistent(S, TC, false), workers.isConsistent(S, TC, false));
+            assertEquals(checker.isConsistent(S, TC, true), workers.isConsistent(S, TC, true));
+        }
+        assertEquals(Set.of(true, false), results);
+        assertTrue(getCounter(COUNTER_WORKER_CHECKS).getValue() > 120);
+
+        workers.dispose();
+        assertEquals(0, workers.size());
+    }
+
+    @Test
+    void testProcesses() throws Exception {
+        TestModel4 testModel = new TestModel4();
+        testModel.initialize();
+
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(testModel);
+        WorkerPoolConsistencyChecker workers = WorkerPoolConsistencyChecker.startProcesses(TestModel4.class.getName(), 2);
+
+        List<Constraint> C = new LinkedList<>(testModel.getPossiblyFaultyConstraints());
+        for (int i = 0; i < C.size(); i++) {
+            for (int j = i; j < C.size(); j++) {
+                List<Constraint> S = C.subList(i, j + 1);
+                assertEquals(checker.isConsistent(S), workers.isConsistent(S));
+            }
+        }
+
+        workers.dispose();
+    }
+
+    @Test
+    void testUnknownConstraint() throws Exception {
+        TestModel4 testModel = new TestModel4();
+        testModel.initialize();
+
+        WorkerPoolConsistencyChecker workers = WorkerPoolConsistencyChecker.inProcess(testModel, 1);
+        List<Constraint> C = List.of(new Constraint("v4 = 1"));
+
+        // the worker cannot decide a check with a constraint out of its model
+        assertFalse(workers.isConsistent(C));
+        assertEquals(ConsistencyResult.UNKNOWN, workers.getLastResult());
+
+        workers.setUnknownPolicy(UnknownPolicy.ABORT);
+        assertThrows(UnknownConsistencyException.class, () -> workers.isConsistent(C));
+
+        // the worker is still alive
+        assertEquals(1, workers.size());
+        assertTrue(workers.isConsistent(new LinkedList<>(testModel.getPossiblyFaultyConstraints()).subList(0, 1)));
+
+        workers.dispose();
+    }
+
+    @Test
+    void testLongConstraint() throws Exception {
+        TestModel4 testModel = new TestModel4();
+        testModel.initialize();
+
+        WorkerPoolConsistencyChecker workers = WorkerPoolConsistencyChecker.inProcess(testModel, 1);
+        // longer than the 64KB of writeUTF
+        List<Constraint> C = List.of(new Constraint("v4 = 1".repeat(20000)));
+
+        // the worker reads the constraint, which isn't a constraint of its model
+        assertFalse(workers.isConsistent(C));
+        assertEquals(ConsistencyResult.UNKNOWN, workers.getLastResult());
+        assertEquals(1, workers.size());
+
+        workers.dispose();
+    }
+
+    @Test
+    void testLastWorkerFails() throws Exception {
+        Pipe toWorker = Pipe.open();
+        Pipe fromWorker = Pipe.open();
+        CountDownLatch checking = new CountDownLatch(1);
+        CountDownLatch fail = new CountDownLatch(1);
+
+        // a worker which stops without answering its first check
+        Thread thread = new Thread(() -> {
+            try (InputStream in = Channels.newInputStream(toWorker.source());
+                 DataOutputStream out = new DataOutputStream(Channels.newOutputStream(fromWorker.sink()))) {
+                CheckWriter.writeText(out, CheckProtocol.HELLO);
+                out.flush();
+
+                in.read();
+                checking.countDown();
+                fail.await();
+            } catch (IOException | InterruptedException ignored) {
+                // the worker stops anyway
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+
+        WorkerConnection connection = new WorkerConnection("failing", Channels.newInputStream(fromWorker.source()),
+                Channels.newOutputStream(toWorker.sink()), () -> {
+            toWorker.sink().close();
+            fromWorker.source().close();
+        });
+        WorkerPoolConsistencyChecker workers = new WorkerPoolConsistencyChecker(List.of(connection));
+        List<Constraint> C = List.of(new Constraint("v1 = 1"));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<Boolean> first = executor.submit(() -> workers.isConsistent(C));
+        checking.await();
+        // waits for the only worker, which is busy
+        Future<Boolean> second = executor.submit(() -> workers.isConsistent(C));
+        Thread.sleep(200);
+        fail.countDown();
+
+        assertFalse(first.get(5, TimeUnit.SECONDS));
+        assertEquals(0, workers.size());
+        // the waiting check gives up instead of waiting forever
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, ex.getCause());
+
+        executor.shutdownNow();
+        workers.dispose();
+    }
+}
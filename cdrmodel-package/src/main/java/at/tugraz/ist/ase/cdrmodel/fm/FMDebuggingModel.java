@@ -36,6 +36,7 @@ public class FMDebuggingModel extends CDRModel implements IChocoModel, IDebuggin
 
     @Getter
     private Model model;
+    @Getter
     private final FeatureModel featureModel;
     private FMKB fmkb;
     private TestSuite testSuite;
@@ -15,13 +15,13 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class LoggerUtils {
     @Getter
-    public String tab = "";
+    public volatile String tab = "";
 
-    public void indent() {
+    public synchronized void indent() {
         tab += "   ";
     }
 
-    public void outdent() {
+    public synchronized void outdent() {
         if (tab.length() > 0) {
             tab = tab.substring(0, tab.length() - 3);
         }
@@ -15,7 +15,7 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class Counter extends AbstractEvaluator {
     @Getter
-    private long value = 0;
+    private volatile long value = 0;
 
     public Counter(String name) {
         super(name);
@@ -24,11 +24,14 @@ public class Counter extends AbstractEvaluator {
     }
 
     public long increment(int step) {
-        this.value = this.value + step;
+        long value;
+        synchronized (this) {
+            value = this.value = this.value + step;
+        }
 
         log.trace("{}Incremented the counter [counter={}, step(s)={}]", LoggerUtils.tab, name, step);
 
-        return getValue();
+        return value;
     }
 
     @Override
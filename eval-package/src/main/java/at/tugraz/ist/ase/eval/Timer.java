@@ -20,13 +20,14 @@ import static java.util.Collections.unmodifiableList;
 /**
  * Simple class for measuring time in experiments. The timings of time measurements are stored in an array and can be
  * retrieved using getTimings method.
+ *
+ * The start time is kept per thread, hence threads can measure with the same timer at the same time.
  */
 @Slf4j
 public class Timer extends AbstractEvaluator {
 
     private final List<Long> timings = new LinkedList<>();
-    private long time = 0;
-    private boolean running = false;
+    private final ThreadLocal<Long> startTime = new ThreadLocal<>();
 
     public Timer(String name) {
         super(name);
@@ -38,9 +39,8 @@ public class Timer extends AbstractEvaluator {
      * Start the timer.
      */
     public void start() {
-        checkState(!this.running, "The timer \"%s\" is already running!", this.name);
-        this.running = true;
-        this.time = System.nanoTime();
+        checkState(this.startTime.get() == null, "The timer \"%s\" is already running!", this.name);
+        this.startTime.set(System.nanoTime());
 
         log.debug("{}Started the timer [timer={}]", LoggerUtils.tab, name);
     }
@@ -51,16 +51,18 @@ public class Timer extends AbstractEvaluator {
      * @return return the time elapsed since the start in nanoseconds.
      */
     public long stop(boolean isSave) {
-        this.time = getElapsedTime();
-        this.running = false;
+        long time = getElapsedTime();
+        this.startTime.remove();
 
         if (isSave) {
-            this.timings.add(this.time);
+            synchronized (this.timings) {
+                this.timings.add(time);
+            }
         }
 
         log.debug("{}Stopped the timer [timer={}]", LoggerUtils.tab, name);
 
-        return this.time;
+        return time;
     }
 
     public long stop() {
@@ -71,16 +73,19 @@ public class Timer extends AbstractEvaluator {
      * @return the time elapsed since the timer is started.
      */
     public long getElapsedTime() {
-        checkState(this.running, "The timer \"%s\" is not running!", this.name);
+        Long start = this.startTime.get();
+        checkState(start != null, "The timer \"%s\" is not running!", this.name);
 
-        return System.nanoTime() - this.time;
+        return System.nanoTime() - start;
     }
 
     /**
      * @return timings of the time measurement
      */
     public List<Long> getTimings() {
-        return unmodifiableList(this.timings);
+        synchronized (this.timings) {
+            return unmodifiableList(new LinkedList<>(this.timings));
+        }
     }
 
     /**
@@ -88,8 +93,10 @@ public class Timer extends AbstractEvaluator {
      */
     public long total() {
         long total = 0;
-        for (long t : this.timings)
-            total += t;
+        synchronized (this.timings) {
+            for (long t : this.timings)
+                total += t;
+        }
         return total;
     }
 